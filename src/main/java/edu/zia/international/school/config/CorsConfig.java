@@ -16,6 +16,7 @@ public class CorsConfig {
                         .allowedOriginPatterns("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Total-Count", "X-Page", "X-Page-Size", "X-Has-More")
                         .allowCredentials(true);
             }
         };
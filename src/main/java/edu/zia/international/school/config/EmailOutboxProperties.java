@@ -0,0 +1,25 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.mail.outbox")
+@Getter
+@Setter
+public class EmailOutboxProperties {
+    // Emails sent per SMTP connection per poll
+    private int batchSize = 50;
+    // A claimed batch is invisible to other nodes for this long; must comfortably exceed one batch's send time
+    private long claimLeaseSeconds = 300;
+    private int maxAttempts = 8;
+    // Retry delay doubles per attempt starting at initialBackoffSeconds, capped at maxBackoffSeconds
+    private long initialBackoffSeconds = 30;
+    private long maxBackoffSeconds = 3600;
+    // AES-256 key (32 bytes, base64) for bodies at rest; they hold reset links and temporary passwords
+    private String encryptionKey;
+    // Dead letters are deleted after this; by then any link or temporary password in them is stale anyway
+    private long deadLetterRetentionDays = 7;
+}
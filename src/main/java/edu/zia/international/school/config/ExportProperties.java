@@ -0,0 +1,17 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.export")
+@Getter
+@Setter
+public class ExportProperties {
+    // Rows the JDBC driver pulls per round trip (MySQL needs useCursorFetch=true to honour it)
+    private int fetchSize = 1000;
+    // Teachers buffered per subject-name lookup
+    private int teacherBatchSize = 500;
+}
@@ -0,0 +1,17 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.id-allocation")
+@Getter
+@Setter
+public class IdAllocationProperties {
+    // Serials reserved per database round trip; unused ones are skipped when a node restarts
+    private int studentBlockSize = 20;
+    // Kept small: employee IDs only have three serial digits per year
+    private int teacherBlockSize = 5;
+}
@@ -0,0 +1,52 @@
+package edu.zia.international.school.config;
+
+import edu.zia.international.school.entity.AssignmentSubmission;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+* assignment_submissions used AUTO_INCREMENT before its ids came from the id_generators table.
+* Before the app serves anything, the generator row is moved past the highest existing id, so the first block
+* Hibernate takes (next_val - allocationSize + 1 .. next_val) can't collide with old rows. Runs after ddl-auto
+* has created the table; a no-op once the generator is ahead.
+* */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdGeneratorAlignment {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void align() {
+        align(AssignmentSubmission.ID_GENERATOR_ROW, "assignment_submissions", AssignmentSubmission.ID_ALLOCATION_SIZE);
+    }
+
+    void align(String generatorRow, String table, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long floor = maxId + allocationSize;
+
+        boolean exists = !jdbcTemplate.queryForList(
+                "SELECT next_val FROM id_generators WHERE sequence_name = ?", Long.class, generatorRow).isEmpty();
+        if (!exists) {
+            try {
+                jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", generatorRow, floor);
+                log.info("IdGeneratorAlignment | {} ids start after {}", generatorRow, maxId);
+                return;
+            } catch (DataIntegrityViolationException createdMeanwhile) {
+                // Another node inserted it first; fall through and check it
+            }
+        }
+        int moved = jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                floor, generatorRow, floor);
+        if (moved > 0) {
+            log.info("IdGeneratorAlignment | Moved {} ids past existing id {}", generatorRow, maxId);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.pagination")
+@Getter
+@Setter
+public class PaginationProperties {
+    private int defaultPageSize = 50;
+    // Requested sizes above this are clamped
+    private int maxPageSize = 200;
+}
@@ -0,0 +1,50 @@
+package edu.zia.international.school.config;
+
+import edu.zia.international.school.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+@Slf4j
+public class PasswordHashingConfig {
+
+    private static final int MIN_STRENGTH = 8;
+    private static final int MAX_STRENGTH = 16;
+    private static final String CALIBRATION_PASSWORD = "calibration-Passw0rd";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int strength = properties.getTargetHashMillis() > 0
+                ? calibrateStrength(properties.getTargetHashMillis())
+                : properties.getBcryptStrength();
+
+        log.info("PasswordHashingConfig | BCrypt strength {}, {} hashing threads, queue capacity {}",
+                strength, properties.getThreads(), properties.getQueueCapacity());
+
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength),
+                properties.getThreads(), properties.getQueueCapacity(),
+                properties.getRetryAfterSeconds(), meterRegistry);
+    }
+
+    // Highest strength whose single hash stays within the target; each step doubles the cost, so stop at the first miss
+    private int calibrateStrength(long targetHashMillis) {
+        int chosen = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            if (elapsedMillis > targetHashMillis) {
+                break;
+            }
+            chosen = strength;
+        }
+        log.info("PasswordHashingConfig | Calibrated BCrypt strength {} for a {}ms target", chosen, targetHashMillis);
+        return chosen;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+    // Worker threads doing BCrypt; defaults to half the cores so request threads keep CPU for normal reads
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    // Hash requests allowed to wait for a worker before new ones are rejected with 503
+    private int queueCapacity = 200;
+    private int bcryptStrength = 10;
+    // When > 0, the strength is calibrated at startup to the highest value hashing within this many millis
+    private long targetHashMillis = 0;
+    private int retryAfterSeconds = 2;
+}
@@ -0,0 +1,16 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.password-reset")
+@Getter
+@Setter
+public class PasswordResetProperties {
+    private long tokenTtlMinutes = 15;
+    // Rows deleted per statement by the expiry sweeper, to keep each delete's locks short
+    private int sweepBatchSize = 500;
+}
@@ -0,0 +1,27 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.profile-images")
+@Getter
+@Setter
+public class ProfileImageProperties {
+    // Longest edge, in pixels, of the variant list pages show
+    private int thumbnailSize = 160;
+    // Longest edge of the variant profile pages show
+    private int mediumSize = 640;
+    private float jpegQuality = 0.85f;
+    // Uploads larger than this (width x height) are rejected before decoding, so a tiny file can't expand into GBs of heap
+    private long maxSourcePixels = 40_000_000L;
+    // Resize workers; once threads + queue-capacity uploads are in flight, further uploads get 503
+    private int threads = 2;
+    private int queueCapacity = 100;
+    // Uploads wait here until resized; committed ones are resumed after a restart. Outside uploads/, never served
+    private String stagingDir = "storage/profile-incoming";
+    // Variant names change with the content, so browsers may keep them for this long without revalidating
+    private int cacheMaxAgeDays = 365;
+}
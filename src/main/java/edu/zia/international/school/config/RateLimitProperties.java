@@ -0,0 +1,23 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.security.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // Burst size and sustained rate per client IP across login, signup and forgot-password
+    private int ipCapacity = 20;
+    private int ipRefillPerMinute = 20;
+    // Burst size and sustained rate per username / email, so one account can't be hammered from many IPs
+    private int accountCapacity = 5;
+    private int accountRefillPerMinute = 5;
+    // Upper bound on tracked keys per limiter (least valuable evicted first); buckets idle longer than idleEvictMs expire
+    private int maxEntries = 100_000;
+    private long idleEvictMs = 600_000;
+}
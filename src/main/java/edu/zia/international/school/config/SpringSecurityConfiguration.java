@@ -1,11 +1,14 @@
 package edu.zia.international.school.config;
 
 
+import edu.zia.international.school.security.ApiKeyAuthenticationFilter;
+import edu.zia.international.school.security.AuthRateLimitFilter;
 import edu.zia.international.school.security.JWTAuthenticationEntryPoint;
 import edu.zia.international.school.security.JWTAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
@@ -13,8 +16,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -31,13 +32,31 @@ public class SpringSecurityConfiguration {
     @Autowired
     private JWTAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
+
+    @Autowired
+    private AuthRateLimitFilter authRateLimitFilter;
+
+    // /api/** is used by the SPA (JWT) and machine clients (API keys); HTTP Basic is not accepted here,
+    // so a request never pays a BCrypt verify plus user query just to authenticate
     @Bean
-    public static PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    @Order(1)
+    SecurityFilterChain apiSecurityFilterChain(HttpSecurity httpSecurity) throws Exception {
+        httpSecurity.securityMatcher("/api/**");
+        configure(httpSecurity);
+        return httpSecurity.build();
     }
 
     @Bean
+    @Order(2)
     SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+        configure(httpSecurity);
+        httpSecurity.httpBasic(Customizer.withDefaults());
+        return httpSecurity.build();
+    }
+
+    private void configure(HttpSecurity httpSecurity) throws Exception {
         httpSecurity
                 .cors(Customizer.withDefaults())
                 .csrf((csrf) -> csrf.disable())
@@ -50,6 +69,8 @@ public class SpringSecurityConfiguration {
                             "/swagger-resources/**",
                             "/webjars/**"
                     ).permitAll();
+                    // Assignment files are served only through GET /api/assignments/{id}/attachments/{index}
+                    authorize.requestMatchers("/uploads/assignments/**").denyAll();
                     authorize.requestMatchers("/uploads/**").permitAll() ;
                    /* authorize.requestMatchers(HttpMethod.POST, "/api/**").hasRole("ADMIN");
                     authorize.requestMatchers(HttpMethod.PUT, "/api/**").hasRole("ADMIN");
@@ -57,6 +78,8 @@ public class SpringSecurityConfiguration {
                     authorize.requestMatchers(HttpMethod.GET, "/api/**").hasAnyRole("ADMIN", "USER");
                     authorize.requestMatchers(HttpMethod.PATCH, "/api/**").hasAnyRole("ADMIN", "USER");*/
                     authorize.requestMatchers("/admin/**").hasRole("ADMIN");
+                    authorize.requestMatchers("/actuator/health").permitAll();
+                    authorize.requestMatchers("/actuator/**").hasRole("ADMIN");
                     authorize.requestMatchers(HttpMethod.GET, "/api/students/**").hasAnyRole("ADMIN", "TEACHER", "STUDENT");
                     authorize.requestMatchers(HttpMethod.POST, "/api/students/**").hasRole("ADMIN");
                     authorize.requestMatchers(HttpMethod.PUT, "/api/students/**").hasRole("ADMIN");
@@ -64,14 +87,15 @@ public class SpringSecurityConfiguration {
                     authorize.requestMatchers("/api/auth/**").permitAll();
                     authorize.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
                     authorize.anyRequest().authenticated();
-                        }).httpBasic(Customizer.withDefaults());
+                        });
 
         httpSecurity.exceptionHandling(exception ->
                 exception.authenticationEntryPoint(jwtAuthenticationEntryPoint));
 
+        // Throttle before anything else touches the request, so rejected floods cost no hashing or DB work
+        httpSecurity.addFilterBefore(authRateLimitFilter, UsernamePasswordAuthenticationFilter.class);
+        httpSecurity.addFilterBefore(apiKeyAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         httpSecurity.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
-
-        return httpSecurity.build();
     }
 
     @Bean
@@ -1,18 +1,31 @@
 package edu.zia.international.school.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@RequiredArgsConstructor
 public class StaticResourceConfiguration implements WebMvcConfigurer {
 
+    private final ProfileImageProperties profileImageProperties;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         String absolutePath = Paths.get("uploads").toAbsolutePath().toString();
 
+        // Profile photo variants are named by content hash, so a URL's bytes never change (more specific than /uploads/**)
+        registry.addResourceHandler("/uploads/profiles/**")
+                .addResourceLocations("file:" + absolutePath + "/profiles/")
+                .setCacheControl(CacheControl.maxAge(profileImageProperties.getCacheMaxAgeDays(), TimeUnit.DAYS)
+                        .cachePublic()
+                        .immutable());
+
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:" + absolutePath + "/");
     }
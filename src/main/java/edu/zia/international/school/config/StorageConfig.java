@@ -0,0 +1,57 @@
+package edu.zia.international.school.config;
+
+import edu.zia.international.school.storage.BlobStore;
+import edu.zia.international.school.storage.LocalBlobStore;
+import edu.zia.international.school.storage.S3BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+@Configuration
+@Slf4j
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "local", matchIfMissing = true)
+    public BlobStore localBlobStore(StorageProperties properties) {
+        log.info("StorageConfig | Local blob store at {}", Paths.get(properties.getLocal().getRoot()).toAbsolutePath());
+        return new LocalBlobStore(Paths.get(properties.getLocal().getRoot()));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "s3")
+    public S3Client s3Client(StorageProperties properties) {
+        StorageProperties.S3 s3 = properties.getS3();
+        S3ClientBuilder builder = S3Client.builder()
+                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .region(Region.of(s3.getRegion()))
+                .forcePathStyle(s3.isPathStyleAccess());
+        if (s3.getEndpoint() != null && !s3.getEndpoint().isBlank()) {
+            builder.endpointOverride(URI.create(s3.getEndpoint()));
+        }
+        // Explicit keys for stand-ins; otherwise the usual env/profile/instance-role chain
+        builder.credentialsProvider(s3.getAccessKey() != null && !s3.getAccessKey().isBlank()
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()))
+                : DefaultCredentialsProvider.builder().build());
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "s3")
+    public BlobStore s3BlobStore(S3Client s3Client, StorageProperties properties) {
+        log.info("StorageConfig | S3 blob store in bucket {} ({})", properties.getS3().getBucket(),
+                properties.getS3().getEndpoint() != null ? properties.getS3().getEndpoint() : "AWS");
+        return new S3BlobStore(s3Client, properties.getS3().getBucket(), properties.getS3().getKeyPrefix());
+    }
+}
@@ -0,0 +1,44 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.storage")
+@Getter
+@Setter
+public class StorageProperties {
+    // local | s3
+    private String backend = "local";
+    // Uploads are hashed into temp files here before being handed to the backend; same disk as local.root avoids a copy
+    private String stagingDir = "storage/incoming";
+    // Unreferenced blobs are kept this long before the sweeper deletes them
+    private long releaseGraceMinutes = 60;
+    private int sweepBatchSize = 200;
+
+    private Local local = new Local();
+    private S3 s3 = new S3();
+
+    @Getter
+    @Setter
+    public static class Local {
+        // Not under uploads/, so attachments aren't reachable through the public static handler
+        private String root = "storage/blobs";
+    }
+
+    @Getter
+    @Setter
+    public static class S3 {
+        private String bucket;
+        private String region = "us-east-1";
+        // Set for S3-compatible services and local stand-ins, e.g. http://localhost:9000 for MinIO
+        private String endpoint;
+        // MinIO and most stand-ins need path-style URLs (http://host/bucket/key)
+        private boolean pathStyleAccess = true;
+        private String accessKey;
+        private String secretKey;
+        private String keyPrefix = "blobs/";
+    }
+}
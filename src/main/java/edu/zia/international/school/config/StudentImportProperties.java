@@ -0,0 +1,15 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.student-import")
+@Getter
+@Setter
+public class StudentImportProperties {
+    // Rows inserted per JDBC batch / transaction; a failing chunk rolls back only its own rows
+    private int chunkSize = 500;
+}
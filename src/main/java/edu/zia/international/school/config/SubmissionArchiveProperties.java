@@ -0,0 +1,20 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.submission-archive")
+@Getter
+@Setter
+public class SubmissionArchiveProperties {
+    // Archives built at once; each holds one reader thread and depth x chunk-size bytes. Beyond this: 503
+    private int maxConcurrent = 4;
+    private int readAheadChunkSize = 64 * 1024;
+    private int readAheadDepth = 16;
+    private int retryAfterSeconds = 30;
+    // Async timeout of one download, instead of spring.mvc.async.request-timeout; 0 = none
+    private long requestTimeoutMs = 4 * 60 * 60 * 1000L;
+}
@@ -0,0 +1,107 @@
+package edu.zia.international.school.config;
+
+import edu.zia.international.school.entity.AssignmentSubmission;
+import edu.zia.international.school.enums.SubmissionStatus;
+import edu.zia.international.school.repository.AssignmentSubmissionRepository;
+import edu.zia.international.school.service.AttachmentStorageService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+* Brings assignment_submissions from the publish-time fan-out to one row per (assignment, student):
+* 1. drops placeholder PENDING rows (pending is now derived from the roster, so they add nothing, and those of
+*    students who left the class would otherwise still be listed)
+* 2. collapses remaining duplicates (re-publishing used to insert the class again), keeping the graded, else the
+*    latest submitted, else the newest row
+* 3. creates the unique index, which ddl-auto could not add while duplicates existed
+* Each step is a no-op on a clean table.
+* */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionRowCleanup {
+
+    private final AssignmentSubmissionRepository submissionRepository;
+    private final AttachmentStorageService attachmentStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void clean() {
+        int placeholders = submissionRepository.deletePlaceholders(SubmissionStatus.PENDING);
+        if (placeholders > 0) {
+            log.info("SubmissionRowCleanup | Removed {} placeholder PENDING row(s)", placeholders);
+        }
+
+        List<Map<String, Object>> duplicated = jdbcTemplate.queryForList(
+                "SELECT assignment_id, student_id FROM assignment_submissions WHERE assignment_id IS NOT NULL"
+                        + " GROUP BY assignment_id, student_id HAVING COUNT(*) > 1");
+        for (Map<String, Object> pair : duplicated) {
+            transactionTemplate.executeWithoutResult(status ->
+                    keepBestRow(((Number) pair.get("assignment_id")).longValue(), (String) pair.get("student_id")));
+        }
+        if (!duplicated.isEmpty()) {
+            log.info("SubmissionRowCleanup | Collapsed duplicate submissions for {} student/assignment pair(s)", duplicated.size());
+        }
+
+        if (!hasUniqueStudentIndex()) {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX " + AssignmentSubmission.UNIQUE_STUDENT_CONSTRAINT
+                    + " ON assignment_submissions (assignment_id, student_id)");
+            log.info("SubmissionRowCleanup | Created unique index {}", AssignmentSubmission.UNIQUE_STUDENT_CONSTRAINT);
+        }
+    }
+
+    private void keepBestRow(long assignmentId, String studentId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, file_url FROM assignment_submissions WHERE assignment_id = ? AND student_id = ?"
+                        + " ORDER BY (marks IS NULL), (submitted_at IS NULL), submitted_at DESC, id DESC",
+                assignmentId, studentId);
+        Object keptFile = rows.get(0).get("file_url");
+
+        List<String> releasedFiles = new ArrayList<>();
+        for (Map<String, Object> row : rows.subList(1, rows.size())) {
+            Object fileUrl = row.get("file_url");
+            if (fileUrl != null && !Objects.equals(fileUrl, keptFile)) {
+                releasedFiles.add((String) fileUrl);
+            }
+            jdbcTemplate.update("DELETE FROM assignment_submissions WHERE id = ?", row.get("id"));
+        }
+        attachmentStorageService.release(releasedFiles);
+    }
+
+    // Any unique index on exactly (assignment_id, student_id), whatever ddl-auto or an earlier run named it
+    private boolean hasUniqueStudentIndex() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "ASSIGNMENT_SUBMISSIONS" : "assignment_submissions";
+            Map<String, Set<String>> columnsByIndex = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, true, false)) {
+                while (indexes.next()) {
+                    if (indexes.getString("COLUMN_NAME") != null) {
+                        columnsByIndex.computeIfAbsent(indexes.getString("INDEX_NAME"), name -> new HashSet<>())
+                                .add(indexes.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columnsByIndex.containsValue(Set.of("assignment_id", "student_id"));
+        }));
+    }
+}
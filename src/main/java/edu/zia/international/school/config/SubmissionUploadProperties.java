@@ -0,0 +1,23 @@
+package edu.zia.international.school.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.submission-upload")
+@Getter
+@Setter
+public class SubmissionUploadProperties {
+    // Every chunk but the last is exactly this size; small enough that one request holds a Tomcat thread only briefly
+    private int chunkSize = 4 * 1024 * 1024;
+    private long maxFileSize = 2L * 1024 * 1024 * 1024;
+    // Received chunks wait here until the submission is finalized
+    private String directory = "storage/submission-uploads";
+    // Unfinished sessions (and their chunks) are deleted after this
+    private long sessionTtlHours = 24;
+    private int sweepBatchSize = 200;
+    // Unfinished sessions one student may have at once; each can reserve up to maxFileSize of disk
+    private int maxOpenSessions = 3;
+}
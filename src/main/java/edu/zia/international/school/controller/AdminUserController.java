@@ -4,6 +4,7 @@ import edu.zia.international.school.repository.RoleRepository;
 import edu.zia.international.school.repository.UserRepository;
 import edu.zia.international.school.entity.Role;
 import edu.zia.international.school.entity.User;
+import edu.zia.international.school.security.TokenVersionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +19,7 @@ public class AdminUserController {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final TokenVersionCache tokenVersionCache;
 
     @PatchMapping("/{userId}/role")
     @PreAuthorize("hasRole('ADMIN')")
@@ -33,9 +35,11 @@ public class AdminUserController {
         Role role = roleRepository.findByName(roleName.toUpperCase())
                 .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
 
-        // 3. Assign new role
+        // 3. Assign new role & invalidate tokens carrying the old one
         user.setRole(role);
+        tokenVersionCache.bump(user);
         userRepository.save(user);
+        tokenVersionCache.evict(user.getUsername());
 
         return ResponseEntity.ok("Role updated to: " + role.getName() + " for user " + userId);
     }
@@ -0,0 +1,47 @@
+package edu.zia.international.school.controller;
+
+import edu.zia.international.school.dto.apikey.ApiKeyResponse;
+import edu.zia.international.school.dto.apikey.CreateApiKeyRequest;
+import edu.zia.international.school.service.ApiKeyService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/api-keys")
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyController {
+
+    private final ApiKeyService apiKeyService;
+
+    // The raw key is returned only in this response
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiKeyResponse> createApiKey(@Valid @RequestBody CreateApiKeyRequest request,
+                                                       Authentication authentication) {
+        log.info("ApiKeyController | Request received to create API key '{}'", request.name());
+        return new ResponseEntity<>(apiKeyService.createApiKey(request, authentication.getName()), HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ApiKeyResponse>> getAllApiKeys() {
+        return ResponseEntity.ok(apiKeyService.getAllApiKeys());
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> revokeApiKey(@PathVariable Long id) {
+        log.info("ApiKeyController | Request received to revoke API key {}", id);
+        apiKeyService.revokeApiKey(id);
+        return ResponseEntity.ok("API key revoked with id: " + id);
+    }
+}
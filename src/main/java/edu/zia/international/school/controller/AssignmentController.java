@@ -1,17 +1,30 @@
 package edu.zia.international.school.controller;
 
+import edu.zia.international.school.config.SubmissionArchiveProperties;
 import edu.zia.international.school.dto.assignment.*;
 import edu.zia.international.school.service.AssignmentService;
+import edu.zia.international.school.service.SubmissionArchiveService;
+import edu.zia.international.school.service.SubmissionUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -20,6 +33,9 @@ import java.util.List;
 public class AssignmentController {
 
     private final AssignmentService assignmentService;
+    private final SubmissionArchiveService submissionArchiveService;
+    private final SubmissionArchiveProperties submissionArchiveProperties;
+    private final SubmissionUploadService submissionUploadService;
     private static final Logger logger = LoggerFactory.getLogger(AssignmentController.class);
 
     // Only Teacher can create assignments
@@ -61,6 +77,98 @@ public class AssignmentController {
     }
 
 
+    // Attachment download: staff, or students of the assignment's grade/section. Supports Range and conditional GETs
+    @GetMapping("/{id}/attachments/{index}")
+    public void downloadAttachment(@PathVariable Long id,
+                                   @PathVariable int index,
+                                   Authentication authentication,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        logger.debug("User {} downloading attachment {} of assignment {}", authentication.getName(), index, id);
+        FileDownloads.send(assignmentService.getAttachmentFile(id, index, authentication.getName()), request, response);
+    }
+
+    // All submissions as one ZIP (a folder per student), built while it downloads.
+    // A WebAsyncTask rather than a StreamingResponseBody so it gets its own timeout: the global async timeout
+    // is sized for exports and would cut a large archive off mid-stream
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @GetMapping("/{id}/submissions/archive")
+    public WebAsyncTask<Void> downloadSubmissionsArchive(@PathVariable Long id, HttpServletResponse response) {
+        logger.info("Streaming submissions archive for assignment {}", id);
+        SubmissionArchiveService.Reservation reservation = submissionArchiveService.reserve(id);
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("assignment-" + id + "-submissions.zip").build().toString());
+
+        WebAsyncTask<Void> task = new WebAsyncTask<>(submissionArchiveProperties.getRequestTimeoutMs(), () -> {
+            submissionArchiveService.writeArchive(reservation, response.getOutputStream());
+            return null;
+        });
+        // Releases the slot if the write never started (client gone, timeout before dispatch)
+        task.onCompletion(reservation::close);
+        return task;
+    }
+
+    // Submitted file download: staff, or the submitting student
+    @GetMapping("/{assignmentId}/submissions/{studentId}/file")
+    public void downloadSubmissionFile(@PathVariable Long assignmentId,
+                                       @PathVariable String studentId,
+                                       Authentication authentication,
+                                       HttpServletRequest request,
+                                       HttpServletResponse response) throws IOException {
+        logger.debug("User {} downloading submission of student {} for assignment {}",
+                authentication.getName(), studentId, assignmentId);
+        FileDownloads.send(assignmentService.getSubmissionFile(assignmentId, studentId, authentication.getName()),
+                request, response);
+    }
+
+    // Student submission, resumable: start an upload, PUT its chunks (any order, retried as needed), then submit
+    @PreAuthorize("hasRole('STUDENT')")
+    @PostMapping("/{id}/submission/uploads")
+    public ResponseEntity<UploadSessionResponse> startSubmissionUpload(
+            @PathVariable Long id,
+            @RequestBody StartUploadRequest request,
+            Authentication authentication) {
+        logger.info("Student {} starting upload of {} bytes for assignment {}", authentication.getName(), request.getSize(), id);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(assignmentService.startSubmissionUpload(id, request, authentication.getName()));
+    }
+
+    // Which chunks have arrived, for a client resuming after a dropped connection
+    @PreAuthorize("hasRole('STUDENT')")
+    @GetMapping("/{id}/submission/uploads/{uploadId}")
+    public ResponseEntity<UploadSessionResponse> getSubmissionUpload(
+            @PathVariable Long id,
+            @PathVariable String uploadId,
+            Authentication authentication) {
+        return ResponseEntity.ok(submissionUploadService.status(id, uploadId, authentication.getName()));
+    }
+
+    // Raw chunk bytes as the body, streamed to disk; X-Chunk-SHA256 is the hex SHA-256 of those bytes
+    @PreAuthorize("hasRole('STUDENT')")
+    @PutMapping(value = "/{id}/submission/uploads/{uploadId}/chunks/{index}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionResponse> uploadSubmissionChunk(
+            @PathVariable Long id,
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            @RequestHeader("X-Chunk-SHA256") String sha256,
+            InputStream body,
+            Authentication authentication) {
+        logger.debug("Student {} sending chunk {} of upload {}", authentication.getName(), index, uploadId);
+        return ResponseEntity.ok(submissionUploadService.writeChunk(id, uploadId, index, sha256, body, authentication.getName()));
+    }
+
+    @PreAuthorize("hasRole('STUDENT')")
+    @PostMapping("/{id}/submission")
+    public ResponseEntity<AssignmentSubmissionResponse> submitAssignment(
+            @PathVariable Long id,
+            @RequestBody SubmitAssignmentRequest request,
+            Authentication authentication) {
+        logger.info("Student {} submitting assignment {}", authentication.getName(), id);
+        return ResponseEntity.ok(assignmentService.submitAssignment(id, request, authentication.getName()));
+    }
+
     // Only Teacher can view their own assignments
     @PreAuthorize("hasRole('TEACHER')")
     @GetMapping("/teacher")
@@ -118,13 +226,17 @@ public class AssignmentController {
         return ResponseEntity.ok(response);
     }
 
-    // Only Admin can view all assignments
+    // Only Admin can view all assignments: newest first, a page at a time, total in X-Total-Count
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/admin/all")
-    public ResponseEntity<List<AssignmentResponse>> getAllAssignmentsAdmin() {
-        logger.info("Admin requested all assignments");
-        List<AssignmentResponse> assignments = assignmentService.getAllAssignmentsAdmin();
-        return ResponseEntity.ok(assignments);
+    public ResponseEntity<List<AssignmentResponse>> getAllAssignmentsAdmin(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        logger.info("Admin requested assignments page {} (size {})", page, size);
+        Page<AssignmentResponse> assignments = assignmentService.getAllAssignmentsAdmin(page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(assignments.getTotalElements()))
+                .body(assignments.getContent());
     }
 
     // Only Admin can update adminRemarks
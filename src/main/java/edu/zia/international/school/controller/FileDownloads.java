@@ -0,0 +1,159 @@
+package edu.zia.international.school.controller;
+
+import edu.zia.international.school.storage.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+/*
+* Writes a StoredFile with conditional-request and single byte-range support, without buffering it in heap:
+* - If-None-Match / If-Modified-Since -> 304, via ServletWebRequest.checkNotModified (also handles If-Match -> 412)
+* - Range (one range; If-Range honoured) -> 206, unsatisfiable -> 416; multi-range requests get the whole file
+* - local files go out via Tomcat's sendfile when the connector offers it, else FileChannel.transferTo
+* The content type comes from the uploader, so only types that can't run script are shown inline; anything else
+* (HTML, SVG, XML, ...) is a download, and nosniff plus a sandbox CSP keep it from rendering on this origin regardless.
+* */
+final class FileDownloads {
+
+    // Tomcat's sendfile request attributes (org.apache.catalina.Globals); the connector sends the file after we return
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Set<String> INLINE_TYPES = Set.of(
+            "application/pdf", "image/png", "image/jpeg", "image/gif", "image/webp");
+
+    private FileDownloads() {}
+
+    static void send(StoredFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Cached by the browser only, and revalidated each time: access may be revoked, but a 304 costs no body
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (new ServletWebRequest(request, response).checkNotModified(file.etag(), file.lastModified())) {
+            return;
+        }
+
+        long size = file.size();
+        long start = 0;
+        long end = size - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, file)) {
+            List<HttpRange> ranges = parseRanges(rangeHeader);
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                } catch (IllegalArgumentException invalid) {
+                    start = size;
+                }
+                if (start >= size || start > end) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(file.contentType());
+        response.setContentLengthLong(length);
+        ContentDisposition.Builder disposition = isInlineSafe(file.contentType())
+                ? ContentDisposition.inline()
+                : ContentDisposition.attachment();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                disposition.filename(file.filename(), StandardCharsets.UTF_8).build().toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "sandbox");
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (file.localPath() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.localPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (file.localPath() != null) {
+            try (FileChannel channel = FileChannel.open(file.localPath(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = start;
+                long remaining = length;
+                while (remaining > 0) {
+                    long sent = channel.transferTo(position, remaining, target);
+                    if (sent <= 0 && position >= channel.size()) {
+                        throw new IOException("File truncated while sending: " + file.localPath());
+                    }
+                    position += sent;
+                    remaining -= sent;
+                }
+            }
+        } else {
+            try (InputStream in = file.opener().open(start, end)) {
+                StreamUtils.copyRange(in, out, 0, end - start);
+            }
+        }
+        out.flush();
+    }
+
+    static boolean isInlineSafe(String contentType) {
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return type.getType().equals("video") || type.getType().equals("audio")
+                    || INLINE_TYPES.contains(type.getType() + "/" + type.getSubtype());
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // No If-Range, or it still names this exact version: serve the range; otherwise the client gets the whole new file
+    private static boolean ifRangeMatches(HttpServletRequest request, StoredFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.etag());
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == file.lastModified() / 1000 * 1000;
+        } catch (IllegalArgumentException malformed) {
+            return false;
+        }
+    }
+
+    // Malformed or abusive (too many ranges) headers are ignored, as RFC 9110 allows
+    private static List<HttpRange> parseRanges(String rangeHeader) {
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package edu.zia.international.school.controller;
+
+import edu.zia.international.school.dto.search.SearchSuggestion;
+import edu.zia.international.school.enums.PersonType;
+import edu.zia.international.school.service.NameSuggestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+
+    private final NameSuggestService nameSuggestService;
+
+    // 🔹 Type-ahead: ranked matches on name, studentId/empId and username
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<List<SearchSuggestion>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) PersonType type,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("SearchController | Suggest for '{}' (type: {})", query, type);
+        return ResponseEntity.ok(nameSuggestService.suggest(query, type, limit));
+    }
+}
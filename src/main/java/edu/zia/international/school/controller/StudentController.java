@@ -1,18 +1,28 @@
 package edu.zia.international.school.controller;
 
+import edu.zia.international.school.dto.CursorPage;
 import edu.zia.international.school.dto.student.CreateStudentRequest;
+import edu.zia.international.school.dto.student.StudentImportResponse;
 import edu.zia.international.school.dto.student.StudentResponse;
+import edu.zia.international.school.enums.ExportFormat;
+import edu.zia.international.school.service.RegistryExportService;
+import edu.zia.international.school.service.StudentImportService;
 import edu.zia.international.school.service.StudentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +32,8 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final RegistryExportService registryExportService;
     private static final Logger logger = LoggerFactory.getLogger(StudentController.class);
 
     // Only Admin can create students
@@ -34,6 +46,16 @@ public class StudentController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    // Only Admin can bulk import students (CSV with a header row of CreateStudentRequest field names)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StudentImportResponse> importStudents(@RequestParam("file") MultipartFile file) {
+        logger.info("Received bulk student import: {}", file.getOriginalFilename());
+        StudentImportResponse response = studentImportService.importStudents(file);
+        logger.info("Bulk import finished: {} imported, {} failed", response.imported(), response.failed());
+        return ResponseEntity.ok(response);
+    }
+
     // Admin can view all students, students can view their own info
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
@@ -44,6 +66,34 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
 
+    // Keyset-paginated list; pass nextCursor back as cursor for the following page
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<StudentResponse>> getStudentsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction
+    ) {
+        logger.info("Fetching students page sorted by {} {}", sort, direction);
+        CursorPage<StudentResponse> page = studentService.getStudentsPage(cursor, size, sort, direction);
+        logger.info("Students page fetched: {} items, hasMore: {}", page.items().size(), page.hasMore());
+        return ResponseEntity.ok(page);
+    }
+
+    // Full roster for audits (?format=ndjson|csv), streamed row by row
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        logger.info("Exporting all students as {}", exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("students." + exportFormat.extension()).build().toString())
+                .body(out -> registryExportService.exportStudents(exportFormat, out));
+    }
+
     // Admin can view any student, student can view only their own
     @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
     @GetMapping("/{studentId}")
@@ -83,8 +133,9 @@ public class StudentController {
             @RequestParam("image") MultipartFile imageFile) {
         logger.info("Received request to upload profile image for studentId: {}", studentId);
         StudentResponse updated = studentService.uploadProfileImage(studentId, imageFile);
-        logger.info("Profile image uploaded successfully for studentId: {}", studentId);
-        return ResponseEntity.ok(updated);
+        logger.info("Profile image accepted for processing for studentId: {}", studentId);
+        // 202: thumbnail/medium variants are generated in the background, then profileImageUrl switches over
+        return ResponseEntity.accepted().body(updated);
     }
 
     @GetMapping("/me")
@@ -123,7 +174,9 @@ public class StudentController {
             @RequestParam(required = false) String gradeName,
             @RequestParam(required = false) String sectionName,
             @RequestParam(required = false) String studentId,
-            @RequestParam(required = false) String name) {
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
 
         logger.info("Searching students with filters - gradeId: {}, sectionId: {}, gradeName: {}, sectionName: {}, studentId: {}, name: {}",
                 gradeId, sectionId, gradeName, sectionName, studentId, name);
@@ -136,8 +189,15 @@ public class StudentController {
             throw new IllegalArgumentException("At least one filter must be provided (gradeId/sectionId/gradeName/sectionName/studentId/name)");
         }
 
-        List<StudentResponse> students = studentService.searchStudents(gradeId, sectionId, gradeName, sectionName, studentId, name);
-        return ResponseEntity.ok(students);
+        // Results come a page at a time: the headers carry the size actually applied (requests above the max are
+        // clamped) and whether more pages follow, so a client never mistakes a full page for the whole result
+        Page<StudentResponse> students = studentService.searchStudents(gradeId, sectionId, gradeName, sectionName, studentId, name, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(students.getTotalElements()))
+                .header("X-Page", String.valueOf(students.getNumber()))
+                .header("X-Page-Size", String.valueOf(students.getSize()))
+                .header("X-Has-More", String.valueOf(students.hasNext()))
+                .body(students.getContent());
     }
 
 }
@@ -1,16 +1,23 @@
 package edu.zia.international.school.controller;
 
+import edu.zia.international.school.dto.CursorPage;
 import edu.zia.international.school.dto.teacher.*;
+import edu.zia.international.school.enums.ExportFormat;
+import edu.zia.international.school.service.RegistryExportService;
 import edu.zia.international.school.service.TeacherService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +28,7 @@ import java.util.List;
 public class TeacherController {
 
     private final TeacherService teacherService;
+    private final RegistryExportService registryExportService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -37,6 +45,32 @@ public class TeacherController {
         return ResponseEntity.ok(teacherService.getAllTeachers());
     }
 
+    // Full roster for audits (?format=ndjson|csv), streamed row by row
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTeachers(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        log.info("Exporting all teachers as {}", exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("teachers." + exportFormat.extension()).build().toString())
+                .body(out -> registryExportService.exportTeachers(exportFormat, out));
+    }
+
+    // Keyset-paginated list; pass nextCursor back as cursor for the following page
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<TeacherResponse>> getTeachersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction
+    ) {
+        log.info("Fetching teachers page sorted by {} {}", sort, direction);
+        return ResponseEntity.ok(teacherService.getTeachersPage(cursor, size, sort, direction));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<TeacherResponse> getTeacherById(@PathVariable Long id) {
@@ -89,8 +123,9 @@ public class TeacherController {
             @RequestParam("image") MultipartFile imageFile) {
         log.info("Received request to upload profile image for empId: {}", empId);
         TeacherResponse updated = teacherService.uploadProfileImage(empId, imageFile);
-        log.info("Profile image uploaded successfully for empId: {}", empId);
-        return ResponseEntity.ok(updated);
+        log.info("Profile image accepted for processing for empId: {}", empId);
+        // 202: thumbnail/medium variants are generated in the background, then profileImageUrl switches over
+        return ResponseEntity.accepted().body(updated);
     }
 
     @GetMapping("/me")
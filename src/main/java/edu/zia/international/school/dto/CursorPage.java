@@ -0,0 +1,13 @@
+package edu.zia.international.school.dto;
+
+import java.util.List;
+
+/*
+* One keyset page. nextCursor is opaque to clients: pass it back unchanged to get the following page;
+* it is null on the last page.
+* */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -0,0 +1,18 @@
+package edu.zia.international.school.dto.apikey;
+
+import java.time.LocalDateTime;
+
+/*
+* rawKey is only populated in the response to the create call
+* */
+public record ApiKeyResponse(
+        Long id,
+        String name,
+        String role,
+        String keyPrefix,
+        boolean active,
+        String createdBy,
+        LocalDateTime createdAt,
+        LocalDateTime revokedAt,
+        String rawKey
+) {}
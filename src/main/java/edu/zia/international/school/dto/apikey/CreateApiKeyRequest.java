@@ -0,0 +1,8 @@
+package edu.zia.international.school.dto.apikey;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record CreateApiKeyRequest(
+        @NotBlank String name,
+        @NotBlank String role
+) {}
@@ -23,6 +23,8 @@ public class AssignmentResponse {
     private LocalDateTime updatedAt;
     private String lastUpdatedBy;
     private List<String> attachments;
+    // Authorized download paths, same order as attachments
+    private List<String> attachmentUrls;
     private String status;
     private String adminRemarks;
 }
@@ -10,6 +10,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 public class AssignmentSubmissionResponse {
+    // null for a PENDING entry of a roster student with no stored row yet; submissions are addressed by
+    // assignmentId + studentId, never by this id
     private Long id;
     private Long assignmentId;
     private String studentId;
@@ -0,0 +1,17 @@
+package edu.zia.international.school.dto.assignment;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StartUploadRequest {
+    private String filename;
+    // Checked to be a media type, but the stored type is derived from filename
+    private String contentType;
+    private long size;
+    // Optional SHA-256 (hex) of the whole file; verified when the submission is finalized
+    private String sha256;
+}
@@ -0,0 +1,14 @@
+package edu.zia.international.school.dto.assignment;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmitAssignmentRequest {
+    // Upload session whose chunks are all received; null for a text-only submission
+    private String uploadId;
+    private String textAnswer;
+}
@@ -0,0 +1,22 @@
+package edu.zia.international.school.dto.assignment;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResponse {
+    private String uploadId;
+    private long size;
+    private int chunkSize;
+    private int totalChunks;
+    // Indexes already stored; a resuming client sends only the others
+    private List<Integer> receivedChunks;
+    private boolean complete;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,10 @@
+package edu.zia.international.school.dto.search;
+
+/*
+* code is the studentId / empId
+* */
+public record NameIndexEntry(
+        String code,
+        String name,
+        String username
+) {}
@@ -0,0 +1,11 @@
+package edu.zia.international.school.dto.search;
+
+import edu.zia.international.school.enums.PersonType;
+
+public record SearchSuggestion(
+        PersonType type,
+        String code,
+        String name,
+        String username,
+        double score
+) {}
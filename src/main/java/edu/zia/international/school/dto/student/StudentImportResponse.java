@@ -0,0 +1,10 @@
+package edu.zia.international.school.dto.student;
+
+import java.util.List;
+
+public record StudentImportResponse(
+        int totalRows,
+        int imported,
+        int failed,
+        List<StudentImportRowError> errors
+) {}
@@ -0,0 +1,10 @@
+package edu.zia.international.school.dto.student;
+
+/*
+* row is the 1-based line number in the uploaded file (the header is row 1)
+* */
+public record StudentImportRowError(
+        int row,
+        String email,
+        String message
+) {}
@@ -0,0 +1,34 @@
+package edu.zia.international.school.dto.student;
+
+import edu.zia.international.school.enums.StudentStatus;
+
+import java.time.LocalDate;
+
+/*
+* Read-only projection of the columns a StudentResponse shows; list queries select this instead of Student.
+* gradeName/sectionName prefer the linked Grade/Section names over the denormalized columns.
+* */
+public record StudentListRow(
+        Long id,
+        String studentId,
+        String username,
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        String gender,
+        String dateOfBirth,
+        String gradeName,
+        String sectionName,
+        String address,
+        String emergencyContactName,
+        String emergencyContactPhone,
+        String bloodGroup,
+        String nationality,
+        String profileImageUrl,
+        String profileThumbnailUrl,
+        String guardianName,
+        String guardianPhone,
+        LocalDate admissionDate,
+        StudentStatus status
+) {}
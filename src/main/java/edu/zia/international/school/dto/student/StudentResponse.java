@@ -28,6 +28,7 @@ public class StudentResponse {
     private String bloodGroup;
     private String nationality;
     private String profileImageUrl;
+    private String profileThumbnailUrl;
     private String username;
     private String status;
     private String guardianName;
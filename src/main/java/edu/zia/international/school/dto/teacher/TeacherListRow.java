@@ -0,0 +1,35 @@
+package edu.zia.international.school.dto.teacher;
+
+import edu.zia.international.school.enums.TeacherStatus;
+
+import java.time.LocalDate;
+
+/*
+* Read-only projection of the scalar columns a TeacherResponse shows; subjects are looked up separately
+* for the whole list (see TeacherRepository.findSubjectNames).
+* */
+public record TeacherListRow(
+        Long id,
+        String fullName,
+        String email,
+        String username,
+        String phone,
+        String gender,
+        LocalDate dateOfBirth,
+        String qualification,
+        String address,
+        LocalDate joiningDate,
+        Integer experienceYears,
+        String gradeName,
+        String sectionName,
+        String empId,
+        TeacherStatus status,
+        String teacherType,
+        String maritalStatus,
+        String emergencyContactInfo,
+        String bloodGroup,
+        String nationality,
+        String aadharNumber,
+        String profileImageUrl,
+        String profileThumbnailUrl
+) {}
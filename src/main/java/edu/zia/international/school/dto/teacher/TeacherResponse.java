@@ -31,6 +31,7 @@ public class TeacherResponse {
     private String nationality;
     private String aadharNumber;
     private String profileImageUrl;
+    private String profileThumbnailUrl;
 
     public String getProfileImageUrl() {
         if (this.profileImageUrl == null || this.profileImageUrl.isBlank()) {
@@ -39,5 +40,12 @@ public class TeacherResponse {
         return profileImageUrl;
     }
 
+    public String getProfileThumbnailUrl() {
+        if (this.profileThumbnailUrl == null || this.profileThumbnailUrl.isBlank()) {
+            return getProfileImageUrl();
+        }
+        return profileThumbnailUrl;
+    }
+
 
 }
@@ -0,0 +1,6 @@
+package edu.zia.international.school.dto.teacher;
+
+public record TeacherSubjectName(
+        Long teacherId,
+        String subjectName
+) {}
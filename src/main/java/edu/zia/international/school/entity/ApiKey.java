@@ -0,0 +1,42 @@
+package edu.zia.international.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "api_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApiKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Service account name, e.g. "nightly-sis-sync"
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    // SHA-256 (hex) of the raw key; the raw key itself is only shown once, at creation
+    @Column(nullable = false, unique = true, length = 64)
+    private String keyDigest;
+
+    // First characters of the raw key, to help admins recognise a key without storing it
+    @Column(nullable = false, length = 12)
+    private String keyPrefix;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime revokedAt;
+}
@@ -3,6 +3,7 @@ package edu.zia.international.school.entity;
 import edu.zia.international.school.enums.AssignmentStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -42,8 +43,9 @@ public class Assignment {
     private LocalDateTime updatedAt;
     private String lastUpdatedBy;
 
-    // Attachments
+    // Attachments; loaded for up to 100 assignments per query when a list maps them
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "assignment_attachments", joinColumns = @JoinColumn(name = "assignment_id"))
     @Column(name = "file_url")
     private List<String> attachments;
@@ -6,7 +6,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assignment_submissions")
+@Table(
+        name = "assignment_submissions",
+        // One row per student per assignment; also the index behind findByAssignmentIdAndStudentId
+        uniqueConstraints = @UniqueConstraint(name = AssignmentSubmission.UNIQUE_STUDENT_CONSTRAINT,
+                columnNames = {"assignment_id", "student_id"})
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,8 +19,24 @@ import java.time.LocalDateTime;
 @Builder
 public class AssignmentSubmission {
 
+    // Ids handed out in blocks from id_generators. Introduced for the per-student PENDING rows publishing used to write;
+    // publishing no longer writes any, so rows now arrive one at a time (submit, grade) and this just saves the
+    // IDENTITY round trip. Kept rather than switched back, which would need another id alignment.
+    // See IdGeneratorAlignment for rows from before the switch
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String ID_GENERATOR_ROW = "assignment_submissions";
+    public static final String UNIQUE_STUDENT_CONSTRAINT = "uk_assignment_submissions_student";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "assignment_submission_ids")
+    @TableGenerator(
+            name = "assignment_submission_ids",
+            table = "id_generators",
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = ID_GENERATOR_ROW,
+            allocationSize = ID_ALLOCATION_SIZE
+    )
     private Long id;
 
     @ManyToOne
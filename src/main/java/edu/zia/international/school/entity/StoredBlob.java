@@ -0,0 +1,43 @@
+package edu.zia.international.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/*
+* One row per distinct attachment content. refCount is the number of attachment/submission references to it;
+* at 0 the blob is kept for a grace period, then the sweeper deletes the row and the bytes together.
+* */
+@Entity
+@Table(
+        name = "stored_blobs",
+        indexes = @Index(name = "idx_stored_blobs_released", columnList = "ref_count, released_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredBlob {
+
+    // SHA-256 (hex) of the content; also the backend key
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Last time a reference was dropped
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+}
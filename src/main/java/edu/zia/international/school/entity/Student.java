@@ -15,7 +15,16 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "students")
+@Table(
+        name = "students",
+        indexes = {
+                // (sort key, id) pairs backing the keyset-paginated list
+                @Index(name = "idx_students_last_name_id", columnList = "last_name, id"),
+                @Index(name = "idx_students_first_name_id", columnList = "first_name, id"),
+                @Index(name = "idx_students_full_name_normalized", columnList = "full_name_normalized"),
+                @Index(name = "idx_students_last_name_normalized", columnList = "last_name_normalized")
+        }
+)
 public class Student {
 
     @Id
@@ -31,6 +40,17 @@ public class Student {
     @Column(nullable = false)
     private String lastName;
 
+    // Maintained by the database, used for indexed name search (see StudentSpecifications).
+    // VIRTUAL generated columns (MySQL's default): their indexes store the computed values, so a lookup never
+    // evaluates the expression and the rows don't carry a copy. (H2, which builds the test schema, rejects STORED.)
+    @Column(name = "full_name_normalized", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(201) GENERATED ALWAYS AS (LOWER(CONCAT(first_name, ' ', last_name)))")
+    private String fullNameNormalized;
+
+    @Column(name = "last_name_normalized", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(last_name))")
+    private String lastNameNormalized;
+
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -53,7 +73,8 @@ public class Student {
     private String emergencyContactPhone;
     private String bloodGroup;
     private String nationality;
-    private String profileImageUrl;
+    private String profileImageUrl;      // medium variant, relative to uploads/
+    private String profileThumbnailUrl;  // thumbnail variant for lists
 
     @Column(nullable = false, unique = true)
     private String username; // Auto-generated
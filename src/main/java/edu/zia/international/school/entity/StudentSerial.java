@@ -16,6 +16,8 @@ public class StudentSerial {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Unique so concurrent first reservations of a year can't create two rows
+    @Column(unique = true)
     private int year;
 
     private int lastSerial;
@@ -0,0 +1,62 @@
+package edu.zia.international.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/*
+* A resumable upload of one submission file. Chunks live on disk as <directory>/<id>/<index>.chunk;
+* which ones have arrived is read from the directory, so parallel chunk requests never contend on this row.
+* */
+@Entity
+@Table(
+        name = "submission_uploads",
+        indexes = @Index(name = "idx_submission_uploads_expires_at", columnList = "expires_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionUpload {
+
+    // Random UUID; also the upload's directory name
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "assignment_id", nullable = false)
+    private Long assignmentId;
+
+    @Column(nullable = false)
+    private String studentId;
+
+    // Owner; chunk requests are checked against the caller's username
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String filename;
+
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private int totalChunks;
+
+    // Optional SHA-256 (hex) of the whole file, checked when the upload is finalized
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
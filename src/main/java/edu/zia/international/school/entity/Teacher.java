@@ -3,6 +3,7 @@ package edu.zia.international.school.entity;
 import edu.zia.international.school.enums.TeacherStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,7 +14,13 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "teachers")
+@Table(
+        name = "teachers",
+        indexes = {
+                // (sort key, id) pairs backing the keyset-paginated list
+                @Index(name = "idx_teachers_full_name_id", columnList = "full_name, id")
+        }
+)
 public class Teacher {
 
     @Id
@@ -67,12 +74,14 @@ public class Teacher {
     @Column(unique = true)
     private String aadharNumber;
 
-    private String profileImageUrl;
+    private String profileImageUrl;      // medium variant, relative to uploads/
+    private String profileThumbnailUrl;  // thumbnail variant for lists
 
     private String teacherType;  // FULL_TIME, PART_TIME, GUEST, VISITING
 
-    // Subjects
+    // Subjects (batch-loaded when a page of teachers is mapped)
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "teacher_subjects",
             joinColumns = @JoinColumn(name = "teacher_id"),
@@ -89,7 +98,7 @@ public class Teacher {
     @JoinColumn(name = "section_id")
     private Section section;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 }
@@ -45,15 +45,12 @@ public class User {
     @Column(name = "updated_date")
     private Date updatedDate;
 
-    // 👇 Additional Fields for Reset Password
-    @Column(name = "password_reset_token")
-    private String passwordResetToken;
-
-    @Temporal(TemporalType.TIMESTAMP)
-    @Column(name = "password_reset_expiry")
-    private Date passwordResetExpiry;
-
+    // 👇 Reset tokens live in password_reset_tokens, keyed by their hash
     @Column(name = "is_password_reset", nullable = false)
     private boolean passwordReset = false;
 
+    // Bumped on role change / password reset so previously issued JWTs stop validating
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion = 0;
+
 }
@@ -0,0 +1,35 @@
+package edu.zia.international.school.enums;
+
+import edu.zia.international.school.exception.AppRuntimeException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Unsupported export format '" + value + "', expected ndjson or csv");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package edu.zia.international.school.enums;
+
+public enum PersonType {
+    STUDENT,
+    TEACHER
+}
@@ -2,6 +2,7 @@ package edu.zia.international.school.exception;
 
 import edu.zia.international.school.dto.ErrorResponse;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -23,6 +24,7 @@ public class GlobalExceptionHandler {
         UNIQUE_CONSTRAINTS.put("students.UK4j48kma5fa3dcya13gd0l3gi", "phone");
         UNIQUE_CONSTRAINTS.put("students.UKe7x6xyz123abc", "email");
         UNIQUE_CONSTRAINTS.put("students.UKusername", "username");
+        UNIQUE_CONSTRAINTS.put("assignment_submissions.uk_assignment_submissions_student", "Submission for this student");
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
@@ -61,6 +63,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("error", "Service Unavailable");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex, WebRequest request) {
         Map<String, Object> body = Map.of(
@@ -0,0 +1,43 @@
+package edu.zia.international.school.mapper;
+
+import edu.zia.international.school.dto.assignment.AssignmentResponse;
+import edu.zia.international.school.dto.assignment.AssignmentSubmissionResponse;
+import edu.zia.international.school.entity.Assignment;
+import edu.zia.international.school.entity.AssignmentSubmission;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/*
+* Generated at compile time by MapStruct (AssignmentMapperImpl).
+* toResponse leaves the lazily loaded attachments out; toResponseWithAttachments includes them,
+* with their download paths (GET /api/assignments/{id}/attachments/{index}).
+* */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface AssignmentMapper {
+
+    @Mapping(target = "createdByTeacherId", source = "createdByUserId")
+    @Mapping(target = "attachments", ignore = true)
+    @Mapping(target = "attachmentUrls", ignore = true)
+    AssignmentResponse toResponse(Assignment assignment);
+
+    @Mapping(target = "createdByTeacherId", source = "createdByUserId")
+    @Mapping(target = "attachments", defaultExpression = "java(java.util.List.of())")
+    @Mapping(target = "attachmentUrls", expression = "java(attachmentUrls(assignment))")
+    AssignmentResponse toResponseWithAttachments(Assignment assignment);
+
+    @Mapping(target = "assignmentId", source = "assignment.id")
+    AssignmentSubmissionResponse toSubmissionResponse(AssignmentSubmission submission);
+
+    default List<String> attachmentUrls(Assignment assignment) {
+        if (assignment.getAttachments() == null) {
+            return List.of();
+        }
+        return IntStream.range(0, assignment.getAttachments().size())
+                .mapToObj(index -> "/api/assignments/" + assignment.getId() + "/attachments/" + index)
+                .toList();
+    }
+}
@@ -1,18 +1,20 @@
 package edu.zia.international.school.mapper;
 
 import edu.zia.international.school.dto.leave.LeaveAllocationResponse;
+import edu.zia.international.school.dto.leave.LeaveEntitlementResponse;
 import edu.zia.international.school.entity.LeaveAllocation;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
 
-public class LeaveAllocationMapper {
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface LeaveAllocationMapper {
 
-    public static LeaveAllocationResponse toResponse(LeaveAllocation allocation) {
-        return new LeaveAllocationResponse(
-                allocation.getId(),
-                allocation.getEmpId(),
-                allocation.getLeaveType(),
-                allocation.getYear(),
-                allocation.getTotalAllocatedLeaves(),
-                allocation.getRemainingLeaves()
-        );
-    }
+    @Mapping(target = "totalAllocated", source = "totalAllocatedLeaves")
+    @Mapping(target = "remaining", source = "remainingLeaves")
+    LeaveAllocationResponse toResponse(LeaveAllocation allocation);
+
+    @Mapping(target = "totalAllocated", source = "totalAllocatedLeaves")
+    @Mapping(target = "usedLeaves", expression = "java(allocation.getTotalAllocatedLeaves() - allocation.getRemainingLeaves())")
+    LeaveEntitlementResponse toEntitlement(LeaveAllocation allocation);
 }
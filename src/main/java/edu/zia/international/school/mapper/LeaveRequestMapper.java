@@ -3,35 +3,19 @@ package edu.zia.international.school.mapper;
 import edu.zia.international.school.dto.leave.CreateLeaveRequest;
 import edu.zia.international.school.dto.leave.LeaveRequestResponse;
 import edu.zia.international.school.entity.LeaveRequest;
-import edu.zia.international.school.enums.LeaveStatus;
-import org.springframework.stereotype.Component;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
 
-@Component
-public class LeaveRequestMapper {
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface LeaveRequestMapper {
 
-    public LeaveRequest toEntity(CreateLeaveRequest dto) {
-        LeaveRequest entity = new LeaveRequest();
-        entity.setEmpId(dto.empId());
-        entity.setLeaveType(dto.leaveType());
-        entity.setStartDate(dto.startDate());
-        entity.setEndDate(dto.endDate());
-        entity.setReason(dto.reason());
-        entity.setStatus(LeaveStatus.PENDING); // default status
-        return entity;
-    }
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "empName", ignore = true)
+    @Mapping(target = "adminRemarks", ignore = true)
+    @Mapping(target = "appliedOn", ignore = true)
+    @Mapping(target = "status", constant = "PENDING") // default status
+    LeaveRequest toEntity(CreateLeaveRequest dto);
 
-    public LeaveRequestResponse toResponse(LeaveRequest entity) {
-        return new LeaveRequestResponse(
-                entity.getId(),
-                entity.getEmpId(),
-                entity.getEmpName(),
-                entity.getLeaveType(),
-                entity.getStartDate(),
-                entity.getEndDate(),
-                entity.getReason(),
-                entity.getStatus(),
-                entity.getAdminRemarks(),
-                entity.getAppliedOn()
-        );
-    }
+    LeaveRequestResponse toResponse(LeaveRequest entity);
 }
@@ -1,32 +1,22 @@
 package edu.zia.international.school.mapper;
 
+import edu.zia.international.school.dto.student.StudentListRow;
 import edu.zia.international.school.dto.student.StudentResponse;
 import edu.zia.international.school.entity.Student;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
 
-public class StudentMapper {
-    public static StudentResponse toResponse(Student student) {
-        return StudentResponse.builder()
-                .id(student.getId())
-                .studentId(student.getStudentId())
-                .firstName(student.getFirstName())
-                .lastName(student.getLastName())
-                .email(student.getEmail())
-                .phone(student.getPhone())
-                .gender(student.getGender())
-                .dateOfBirth(student.getDateOfBirth() != null ? student.getDateOfBirth().toString() : null)
-                .gradeName(student.getGradeName())
-                .sectionName(student.getSectionName())
-                .address(student.getAddress())
-                .emergencyContactName(student.getEmergencyContactName())
-                .emergencyContactPhone(student.getEmergencyContactPhone())
-                .bloodGroup(student.getBloodGroup())
-                .nationality(student.getNationality())
-                .profileImageUrl(student.getProfileImageUrl())
-                .username(student.getUsername())
-                .status(student.getStatus().name())
-                .guardianName(student.getGuardianName())
-                .guardianPhone(student.getGuardianPhone())
-                .admissionDate(student.getAdmissionDate())
-                .build();
-    }
+/*
+* Generated at compile time by MapStruct (StudentMapperImpl): plain getter/setter calls, no reflection.
+* Grade and section names prefer the linked Grade/Section over the denormalized columns.
+* */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface StudentMapper {
+
+    @Mapping(target = "gradeName", expression = "java(student.getGrade() != null ? student.getGrade().getName() : student.getGradeName())")
+    @Mapping(target = "sectionName", expression = "java(student.getSection() != null ? student.getSection().getName() : student.getSectionName())")
+    StudentResponse toResponse(Student student);
+
+    StudentResponse toResponse(StudentListRow row);
 }
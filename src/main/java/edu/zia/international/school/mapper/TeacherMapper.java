@@ -0,0 +1,29 @@
+package edu.zia.international.school.mapper;
+
+import edu.zia.international.school.dto.teacher.TeacherListRow;
+import edu.zia.international.school.dto.teacher.TeacherResponse;
+import edu.zia.international.school.entity.Subject;
+import edu.zia.international.school.entity.Teacher;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+/*
+* Generated at compile time by MapStruct (TeacherMapperImpl); replaces BeanUtils.copyProperties plus the
+* hand-written subject/grade/section fix-ups that followed it.
+* */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface TeacherMapper {
+
+    @Mapping(target = "gradeName", source = "grade.name")
+    @Mapping(target = "sectionName", source = "section.name")
+    TeacherResponse toResponse(Teacher teacher);
+
+    TeacherResponse toResponse(TeacherListRow row, List<String> subjects);
+
+    default String subjectName(Subject subject) {
+        return subject.getName();
+    }
+}
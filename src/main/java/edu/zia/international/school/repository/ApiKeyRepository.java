@@ -0,0 +1,11 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.entity.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+    List<ApiKey> findByActiveTrue();
+    boolean existsByName(String name);
+}
@@ -1,8 +1,13 @@
 package edu.zia.international.school.repository;
 
 import edu.zia.international.school.entity.AssignmentSubmission;
+import edu.zia.international.school.enums.SubmissionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +17,11 @@ public interface AssignmentSubmissionRepository extends JpaRepository<Assignment
     List<AssignmentSubmission> findByAssignmentId(Long assignmentId);
     Optional<AssignmentSubmission> findByAssignmentIdAndStudentId(Long assignmentId, String studentId);
     List<AssignmentSubmission> findByStudentId(String studentId);
+
+    // Rows that only said "pending", written by publishes before pending was derived from the roster
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AssignmentSubmission s WHERE s.submissionStatus = :pending AND s.submittedAt IS NULL"
+            + " AND s.fileUrl IS NULL AND s.textAnswer IS NULL AND s.marks IS NULL AND s.feedback IS NULL")
+    int deletePlaceholders(@Param("pending") SubmissionStatus pending);
 }
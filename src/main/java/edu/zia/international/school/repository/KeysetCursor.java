@@ -0,0 +1,69 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.exception.AppRuntimeException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+* Position after the last row of a keyset page, ordered by (sortField, id).
+* Pages are fetched with "WHERE (sortField, id) > (value, lastId) ORDER BY sortField, id LIMIT n", so each page
+* costs an index range scan from the cursor regardless of how deep it is; OFFSET is never used.
+* NULL sort values order lowest (MySQL and H2 default), which the predicate below mirrors.
+* */
+public record KeysetCursor(String sortField, Sort.Direction direction, String value, long id) {
+
+    private static final String SEPARATOR = "\n";
+    private static final String NULL_VALUE = "\u0000";
+    private static final String ID = "id";
+
+    public String encode() {
+        String raw = sortField + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + (value == null ? NULL_VALUE : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The cursor must have been issued for the same sort; anything else is rejected instead of silently skipping rows
+    public static KeysetCursor decode(String token, String sortField, Sort.Direction direction) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            if (parts.length != 4 || !parts[0].equals(sortField) || !parts[1].equals(direction.name())) {
+                throw new IllegalArgumentException("cursor does not match the requested sort");
+            }
+            return new KeysetCursor(parts[0], direction, NULL_VALUE.equals(parts[3]) ? null : parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + e.getMessage());
+        }
+    }
+
+    public static Sort sort(String sortField, Sort.Direction direction) {
+        return ID.equals(sortField)
+                ? Sort.by(direction, ID)
+                : Sort.by(new Sort.Order(direction, sortField), new Sort.Order(direction, ID));
+    }
+
+    // Rows strictly after this cursor in sort(sortField, direction) order
+    public <T> Specification<T> after() {
+        boolean asc = direction.isAscending();
+        return (root, query, cb) -> {
+            var idPath = root.<Long>get(ID);
+            var idAfter = asc ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            if (ID.equals(sortField)) {
+                return idAfter;
+            }
+
+            var key = root.<String>get(sortField);
+            if (value == null) {
+                // Still inside the NULL group: ascending continues into the non-null values, descending ends with it
+                return asc ? cb.or(cb.and(cb.isNull(key), idAfter), cb.isNotNull(key))
+                           : cb.and(cb.isNull(key), idAfter);
+            }
+            var keyAfter = asc ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            var sameKey = cb.and(cb.equal(key, value), idAfter);
+            return asc ? cb.or(keyAfter, sameKey)
+                       : cb.or(keyAfter, sameKey, cb.isNull(key));
+        };
+    }
+}
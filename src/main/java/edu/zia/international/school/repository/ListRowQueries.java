@@ -0,0 +1,54 @@
+package edu.zia.international.school.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+* Applies filter and order to a constructor-expression query, then runs it windowed or as a stream, without
+* flushing: the rows are plain records, so there is nothing for the persistence context to track.
+* */
+final class ListRowQueries {
+
+    private ListRowQueries() {
+    }
+
+    static <E, R> TypedQuery<R> prepare(EntityManager entityManager, CriteriaQuery<R> query, Root<E> root,
+                                        CriteriaBuilder cb, Specification<E> where, Sort sort) {
+        if (where != null) {
+            Predicate predicate = where.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+
+    static <R> List<R> window(TypedQuery<R> query, long offset, int limit) {
+        query.setFirstResult(Math.toIntExact(offset));
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    // Rows are pulled from the driver fetchSize at a time; the caller must close the stream
+    static <R> Stream<R> stream(TypedQuery<R> query, int fetchSize) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+}
@@ -0,0 +1,29 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.entity.PasswordResetToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
+
+    @EntityGraph(attributePaths = "user")
+    Optional<PasswordResetToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") long userId);
+
+    // One bounded chunk per call, using the expires_at index; the sweeper loops until a chunk comes back short
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM password_reset_tokens WHERE expires_at < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
@@ -3,6 +3,7 @@ package edu.zia.international.school.repository;
 import edu.zia.international.school.entity.Grade;
 import edu.zia.international.school.entity.Section;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,5 +17,8 @@ public interface SectionRepository extends JpaRepository<Section, Long> {
     Optional<Section> findByGradeAndNameIgnoreCase(Grade grade, String name);
     Optional<Section> findByName(String name);
 
+    @Query("SELECT s FROM Section s JOIN FETCH s.grade")
+    List<Section> findAllWithGrade();
+
 
 }
@@ -0,0 +1,51 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Insert-or-increment in one statement: concurrent uploads of the same new content can't both insert,
+    // and the row lock it takes makes a sweeper deleting this blob wait for the uploading transaction
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (sha256, size_bytes, content_type, ref_count, created_at) " +
+            "VALUES (:sha256, :sizeBytes, :contentType, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, released_at = NULL", nativeQuery = true)
+    int addReference(@Param("sha256") String sha256, @Param("sizeBytes") long sizeBytes,
+                     @Param("contentType") String contentType, @Param("now") LocalDateTime now);
+
+    // Bytes no reference counts yet (or any more): a row with ref_count 0, so the sweeper deletes them after the grace
+    // period. Leaves a referenced row as it is
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (sha256, size_bytes, content_type, ref_count, created_at, released_at) " +
+            "VALUES (:sha256, :sizeBytes, :contentType, 0, :now, :now) " +
+            "ON DUPLICATE KEY UPDATE released_at = CASE WHEN ref_count = 0 THEN :now ELSE released_at END", nativeQuery = true)
+    int holdUnreferenced(@Param("sha256") String sha256, @Param("sizeBytes") long sizeBytes,
+                         @Param("contentType") String contentType, @Param("now") LocalDateTime now);
+
+    // A reference to bytes held by holdUnreferenced; 0 if the sweeper has removed them since
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1, b.releasedAt = NULL WHERE b.sha256 = :sha256")
+    int addHeldReference(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1, b.releasedAt = :now WHERE b.sha256 = :sha256 AND b.refCount > 0")
+    int releaseReference(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.sha256 FROM StoredBlob b WHERE b.refCount = 0 AND b.releasedAt < :cutoff ORDER BY b.releasedAt")
+    List<String> findReleasedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.sha256 = :sha256")
+    Optional<StoredBlob> lockBySha256(@Param("sha256") String sha256);
+}
@@ -0,0 +1,21 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.dto.student.StudentListRow;
+import edu.zia.international.school.entity.Student;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+* Column-only list reads for students: no managed entities, no dirty-checking snapshots.
+* A limit of 0 or less means no limit.
+* */
+public interface StudentListRowQueries {
+
+    List<StudentListRow> findListRows(Specification<Student> where, Sort sort, long offset, int limit);
+
+    // Whole result as a lazily fetched stream (exports); close it, inside the surrounding transaction
+    Stream<StudentListRow> streamListRows(Specification<Student> where, Sort sort, int fetchSize);
+}
@@ -0,0 +1,57 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.dto.student.StudentListRow;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Picked up by Spring Data as the implementation of the StudentListRowQueries fragment
+public class StudentListRowQueriesImpl implements StudentListRowQueries {
+
+    private final EntityManager entityManager;
+
+    public StudentListRowQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<StudentListRow> findListRows(Specification<Student> where, Sort sort, long offset, int limit) {
+        return ListRowQueries.window(query(where, sort), offset, limit);
+    }
+
+    @Override
+    public Stream<StudentListRow> streamListRows(Specification<Student> where, Sort sort, int fetchSize) {
+        return ListRowQueries.stream(query(where, sort), fetchSize);
+    }
+
+    private TypedQuery<StudentListRow> query(Specification<Student> where, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StudentListRow> query = cb.createQuery(StudentListRow.class);
+        Root<Student> s = query.from(Student.class);
+        Join<Student, Grade> grade = s.join("grade", JoinType.LEFT);
+        Join<Student, Section> section = s.join("section", JoinType.LEFT);
+
+        query.select(cb.construct(StudentListRow.class,
+                s.get("id"), s.get("studentId"), s.get("username"), s.get("firstName"), s.get("lastName"),
+                s.get("email"), s.get("phone"), s.get("gender"), s.get("dateOfBirth"),
+                cb.coalesce(grade.<String>get("name"), s.<String>get("gradeName")),
+                cb.coalesce(section.<String>get("name"), s.<String>get("sectionName")),
+                s.get("address"), s.get("emergencyContactName"), s.get("emergencyContactPhone"),
+                s.get("bloodGroup"), s.get("nationality"), s.get("profileImageUrl"),
+                s.get("profileThumbnailUrl"), s.get("guardianName"), s.get("guardianPhone"),
+                s.get("admissionDate"), s.get("status")));
+        return ListRowQueries.prepare(entityManager, query, s, cb, where, sort);
+    }
+}
@@ -1,15 +1,26 @@
 package edu.zia.international.school.repository;
 
+import edu.zia.international.school.dto.search.NameIndexEntry;
 import edu.zia.international.school.entity.Section;
 import edu.zia.international.school.entity.Student;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student>,
+        StudentListRowQueries {
+    @Override
+    @EntityGraph(attributePaths = {"grade", "section"})
+    List<Student> findAll();
+
     Optional<Student> findByStudentId(String studentId);
     Optional<Student> findByUsername(String username);
     boolean existsByEmail(String email);
@@ -22,20 +33,26 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     List<Student> findBySectionId(Long sectionId);
 
-    @Query("SELECT s FROM Student s " +
-            "WHERE (:studentId IS NULL OR s.studentId = :studentId) " +
-            "AND (:name IS NULL OR LOWER(CONCAT(s.firstName, ' ', s.lastName)) LIKE LOWER(CONCAT('%', :name, '%'))) " +
-            "AND (:gradeName IS NULL OR s.gradeName = :gradeName) " +
-            "AND (:gradeId IS NULL OR s.grade.id = :gradeId) " +
-            "AND (:sectionName IS NULL OR s.sectionName = :sectionName) " +
-            "AND (:sectionId IS NULL OR s.section.id = :sectionId)")
-    List<Student> searchStudents(@Param("studentId") String studentId,
-                                 @Param("name") String name,
-                                 @Param("gradeName") String gradeName,
-                                 @Param("gradeId") Long gradeId,
-                                 @Param("sectionName") String sectionName,
-                                 @Param("sectionId") Long sectionId);
+    @Query("SELECT LOWER(s.email) FROM Student s")
+    List<String> findAllEmailsLowercase();
 
+    @Query("SELECT s.phone FROM Student s")
+    List<String> findAllPhones();
 
-}
+    @Query("SELECT new edu.zia.international.school.dto.search.NameIndexEntry(s.studentId, CONCAT(s.firstName, ' ', s.lastName), s.username) FROM Student s")
+    List<NameIndexEntry> findAllNameIndexEntries();
+
+    @Query("SELECT new edu.zia.international.school.dto.search.NameIndexEntry(s.studentId, CONCAT(s.firstName, ' ', s.lastName), s.username) FROM Student s WHERE s.studentId IN :studentIds")
+    List<NameIndexEntry> findNameIndexEntries(@Param("studentIds") Collection<String> studentIds);
 
+    // Students an assignment is for: the section, or the whole grade when sectionId is 0
+    @Query("SELECT s.studentId FROM Student s WHERE s.grade.id = :gradeId AND (:sectionId = 0 OR s.section.id = :sectionId) ORDER BY s.studentId")
+    List<String> findRosterStudentIds(@Param("gradeId") long gradeId, @Param("sectionId") long sectionId);
+
+    // Written by the image pipeline once both variants are on disk; no entity load, so it can't clobber a concurrent edit
+    @Modifying
+    @Transactional
+    @Query("UPDATE Student s SET s.profileImageUrl = :imageUrl, s.profileThumbnailUrl = :thumbnailUrl WHERE s.studentId = :studentId")
+    int updateProfileImage(@Param("studentId") String studentId, @Param("imageUrl") String imageUrl,
+                           @Param("thumbnailUrl") String thumbnailUrl);
+}
@@ -0,0 +1,64 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.entity.Student;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+* Composable student search filters; every non-empty argument becomes one AND-ed predicate of a single query.
+* The name filter matches a prefix of the generated, indexed full_name_normalized column ("jane d") or of
+* last_name_normalized ("doe"). Both sides are plain column comparisons, so MySQL answers the OR with a union of two
+* index range scans instead of scanning the whole table.
+* */
+public final class StudentSpecifications {
+
+    private StudentSpecifications() {
+    }
+
+    public static Specification<Student> search(Long gradeId, Long sectionId, String gradeName,
+                                                String sectionName, String studentId, String name) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(studentId)) {
+                predicates.add(cb.equal(root.get("studentId"), studentId.trim()));
+            }
+            if (gradeId != null) {
+                predicates.add(cb.equal(root.get("grade").get("id"), gradeId));
+            }
+            if (sectionId != null) {
+                predicates.add(cb.equal(root.get("section").get("id"), sectionId));
+            }
+            if (hasText(gradeName)) {
+                predicates.add(cb.equal(root.get("gradeName"), gradeName.trim()));
+            }
+            if (hasText(sectionName)) {
+                predicates.add(cb.equal(root.get("sectionName"), sectionName.trim()));
+            }
+            if (hasText(name)) {
+                String prefix = escapeLike(normalize(name)) + "%";
+                predicates.add(cb.or(
+                        cb.like(root.get("fullNameNormalized"), prefix, '\\'),
+                        cb.like(root.get("lastNameNormalized"), prefix, '\\')
+                ));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Same normalization as the generated columns: lower case, single spaces
+    private static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
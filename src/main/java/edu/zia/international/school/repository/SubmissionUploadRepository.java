@@ -0,0 +1,15 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.entity.SubmissionUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SubmissionUploadRepository extends JpaRepository<SubmissionUpload, String> {
+
+    long countByUsernameAndExpiresAtAfter(String username, LocalDateTime now);
+
+    List<SubmissionUpload> findByExpiresAtBefore(LocalDateTime now, Pageable page);
+}
@@ -0,0 +1,21 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.dto.teacher.TeacherListRow;
+import edu.zia.international.school.entity.Teacher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+* Column-only list reads for teachers: no managed entities, no dirty-checking snapshots.
+* A limit of 0 or less means no limit.
+* */
+public interface TeacherListRowQueries {
+
+    List<TeacherListRow> findListRows(Specification<Teacher> where, Sort sort, long offset, int limit);
+
+    // Whole result as a lazily fetched stream (exports); close it, inside the surrounding transaction
+    Stream<TeacherListRow> streamListRows(Specification<Teacher> where, Sort sort, int fetchSize);
+}
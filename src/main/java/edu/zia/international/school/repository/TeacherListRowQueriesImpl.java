@@ -0,0 +1,56 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.dto.teacher.TeacherListRow;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Picked up by Spring Data as the implementation of the TeacherListRowQueries fragment
+class TeacherListRowQueriesImpl implements TeacherListRowQueries {
+
+    private final EntityManager entityManager;
+
+    TeacherListRowQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TeacherListRow> findListRows(Specification<Teacher> where, Sort sort, long offset, int limit) {
+        return ListRowQueries.window(query(where, sort), offset, limit);
+    }
+
+    @Override
+    public Stream<TeacherListRow> streamListRows(Specification<Teacher> where, Sort sort, int fetchSize) {
+        return ListRowQueries.stream(query(where, sort), fetchSize);
+    }
+
+    private TypedQuery<TeacherListRow> query(Specification<Teacher> where, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TeacherListRow> query = cb.createQuery(TeacherListRow.class);
+        Root<Teacher> t = query.from(Teacher.class);
+        Join<Teacher, Grade> grade = t.join("grade", JoinType.LEFT);
+        Join<Teacher, Section> section = t.join("section", JoinType.LEFT);
+
+        query.select(cb.construct(TeacherListRow.class,
+                t.get("id"), t.get("fullName"), t.get("email"), t.get("username"), t.get("phone"),
+                t.get("gender"), t.get("dateOfBirth"), t.get("qualification"), t.get("address"),
+                t.get("joiningDate"), t.get("experienceYears"), grade.get("name"), section.get("name"),
+                t.get("empId"), t.get("status"), t.get("teacherType"), t.get("maritalStatus"),
+                t.get("emergencyContactInfo"), t.get("bloodGroup"), t.get("nationality"),
+                t.get("aadharNumber"), t.get("profileImageUrl"),
+                t.get("profileThumbnailUrl")));
+        return ListRowQueries.prepare(entityManager, query, t, cb, where, sort);
+    }
+}
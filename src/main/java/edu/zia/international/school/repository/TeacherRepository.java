@@ -1,16 +1,34 @@
 package edu.zia.international.school.repository;
 
+import edu.zia.international.school.dto.search.NameIndexEntry;
+import edu.zia.international.school.dto.teacher.TeacherSubjectName;
 import edu.zia.international.school.entity.Grade;
 import edu.zia.international.school.entity.Section;
 import edu.zia.international.school.entity.Teacher;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public interface TeacherRepository extends JpaRepository<Teacher, Long> {
+public interface TeacherRepository extends JpaRepository<Teacher, Long>, JpaSpecificationExecutor<Teacher>,
+        TeacherListRowQueries {
+    // Keeps the subject lookup's IN list well under driver and optimizer limits
+    int SUBJECT_LOOKUP_CHUNK = 1000;
+
+    @Override
+    @EntityGraph(attributePaths = {"subjects", "grade", "section"})
+    List<Teacher> findAll();
+
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     List<Teacher> findByGrade(Grade grade);
@@ -21,27 +39,60 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     List<Teacher> findBySection(Section section);
 
     // 🔹 By gradeId + sectionId
+    @EntityGraph(attributePaths = {"subjects", "grade", "section"})
     List<Teacher> findByGradeIdAndSectionId(Long gradeId, Long sectionId);
 
     // 🔹 By gradeId only
+    @EntityGraph(attributePaths = {"subjects", "grade", "section"})
     List<Teacher> findByGradeId(Long gradeId);
 
     // 🔹 By sectionId only
+    @EntityGraph(attributePaths = {"subjects", "grade", "section"})
     List<Teacher> findBySectionId(Long sectionId);
 
     // 🔹 By gradeName + sectionName using JPQL
+    @EntityGraph(attributePaths = {"subjects", "grade", "section"})
     @Query("SELECT t FROM Teacher t WHERE t.grade.name = :gradeName AND t.section.name = :sectionName")
     List<Teacher> findByGradeNameAndSectionName(@Param("gradeName") String gradeName,
                                                 @Param("sectionName") String sectionName);
 
     // 🔹 By gradeName only
+    @EntityGraph(attributePaths = {"subjects", "grade", "section"})
     @Query("SELECT t FROM Teacher t WHERE t.grade.name = :gradeName")
     List<Teacher> findByGradeName(@Param("gradeName") String gradeName);
 
     // 🔹 By sectionName only
+    @EntityGraph(attributePaths = {"subjects", "grade", "section"})
     @Query("SELECT t FROM Teacher t WHERE t.section.name = :sectionName")
     List<Teacher> findBySectionName(@Param("sectionName") String sectionName);
 
+    // 🔹 Subject names for a page of list rows, one query for the whole page
+    @Query("SELECT new edu.zia.international.school.dto.teacher.TeacherSubjectName(t.id, s.name) FROM Teacher t JOIN t.subjects s WHERE t.id IN :teacherIds")
+    List<TeacherSubjectName> findSubjectNames(@Param("teacherIds") Collection<Long> teacherIds);
 
-}
+    // 🔹 Subject names keyed by teacher id, one query per SUBJECT_LOOKUP_CHUNK ids
+    default Map<Long, List<String>> findSubjectNamesByTeacher(List<Long> teacherIds) {
+        Map<Long, List<String>> subjectsByTeacher = new HashMap<>();
+        for (int from = 0; from < teacherIds.size(); from += SUBJECT_LOOKUP_CHUNK) {
+            List<Long> chunk = teacherIds.subList(from, Math.min(from + SUBJECT_LOOKUP_CHUNK, teacherIds.size()));
+            for (TeacherSubjectName subject : findSubjectNames(chunk)) {
+                subjectsByTeacher.computeIfAbsent(subject.teacherId(), id -> new ArrayList<>()).add(subject.subjectName());
+            }
+        }
+        return subjectsByTeacher;
+    }
 
+    @Query("SELECT new edu.zia.international.school.dto.search.NameIndexEntry(t.empId, t.fullName, t.username) FROM Teacher t WHERE t.empId IS NOT NULL")
+    List<NameIndexEntry> findAllNameIndexEntries();
+
+    // Names for a page of records that store the creator's username
+    @Query("SELECT new edu.zia.international.school.dto.search.NameIndexEntry(t.empId, t.fullName, t.username) FROM Teacher t WHERE t.username IN :usernames")
+    List<NameIndexEntry> findNameIndexEntriesByUsername(@Param("usernames") Collection<String> usernames);
+
+    // Written by the image pipeline once both variants are on disk; no entity load, so it can't clobber a concurrent edit
+    @Modifying
+    @Transactional
+    @Query("UPDATE Teacher t SET t.profileImageUrl = :imageUrl, t.profileThumbnailUrl = :thumbnailUrl WHERE t.empId = :empId")
+    int updateProfileImage(@Param("empId") String empId, @Param("imageUrl") String imageUrl,
+                           @Param("thumbnailUrl") String thumbnailUrl);
+}
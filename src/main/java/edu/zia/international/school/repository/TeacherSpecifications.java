@@ -0,0 +1,60 @@
+package edu.zia.international.school.repository;
+
+import edu.zia.international.school.entity.Teacher;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+* Teacher search filters. Placement keeps the old finder precedence: ids win over names, and a grade+section
+* pair wins over either alone. Name is a case-insensitive substring, empId and teacherType case-insensitive equality.
+* */
+public final class TeacherSpecifications {
+
+    private TeacherSpecifications() {
+    }
+
+    public static Specification<Teacher> search(Long gradeId, String gradeName, Long sectionId, String sectionName,
+                                                String name, String empId, String teacherType) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (gradeId != null || sectionId != null) {
+                if (gradeId != null) {
+                    predicates.add(cb.equal(root.get("grade").get("id"), gradeId));
+                }
+                if (sectionId != null) {
+                    predicates.add(cb.equal(root.get("section").get("id"), sectionId));
+                }
+            } else {
+                if (gradeName != null) {
+                    predicates.add(cb.equal(root.get("grade").get("name"), gradeName));
+                }
+                if (sectionName != null) {
+                    predicates.add(cb.equal(root.get("section").get("name"), sectionName));
+                }
+            }
+            if (hasText(name)) {
+                String pattern = "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%";
+                predicates.add(cb.like(cb.lower(root.get("fullName")), pattern, '\\'));
+            }
+            if (hasText(empId)) {
+                predicates.add(cb.equal(cb.lower(root.get("empId")), empId.toLowerCase(Locale.ROOT)));
+            }
+            if (hasText(teacherType)) {
+                predicates.add(cb.equal(cb.lower(root.get("teacherType")), teacherType.toLowerCase(Locale.ROOT)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -2,7 +2,10 @@ package edu.zia.international.school.repository;
 
 import edu.zia.international.school.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,6 +14,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsernameOrEmail(String username, String email);
     Boolean existsByUsername(String username);
     Optional<User> findByEmail(String email);
-    Optional<User> findByPasswordResetToken(String token);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.username = :username")
+    Optional<Long> findTokenVersionByUsername(@Param("username") String username);
+
+    @Query("SELECT LOWER(u.email) FROM User u")
+    List<String> findAllEmailsLowercase();
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
 
 }
@@ -0,0 +1,62 @@
+package edu.zia.international.school.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/*
+* Authenticates service accounts (sync scripts, integrations) sending an "X-API-Key" header.
+* Unknown or revoked keys leave the request unauthenticated, so the entry point answers 401.
+* */
+@Component
+@Slf4j
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final ApiKeyIndex apiKeyIndex;
+
+    public ApiKeyAuthenticationFilter(ApiKeyIndex apiKeyIndex) {
+        this.apiKeyIndex = apiKeyIndex;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String rawKey = request.getHeader(API_KEY_HEADER);
+
+        if (StringUtils.hasText(rawKey)) {
+            apiKeyIndex.authenticate(rawKey).ifPresentOrElse(key -> {
+                UserDetails principal = new User(key.name(), "",
+                        Collections.singleton(new SimpleGrantedAuthority("ROLE_" + key.role())));
+
+                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.getAuthorities()
+                );
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            }, () -> log.debug("ApiKeyAuthenticationFilter | Unknown API key for {}", request.getRequestURI()));
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
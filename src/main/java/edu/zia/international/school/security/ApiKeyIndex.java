@@ -0,0 +1,49 @@
+package edu.zia.international.school.security;
+
+import edu.zia.international.school.entity.ApiKey;
+import edu.zia.international.school.repository.ApiKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+* In-memory digest -> key index of active API keys, so a machine client is authenticated with one SHA-256
+* and a hash map lookup instead of a BCrypt verify plus a user query.
+* Rebuilt as an immutable snapshot when keys change on this node, and periodically to pick up changes from others.
+* */
+@Component
+@Slf4j
+public class ApiKeyIndex {
+
+    public record ApiKeyPrincipal(Long id, String name, String role) {}
+
+    private final ApiKeyRepository apiKeyRepository;
+    private volatile Map<String, ApiKeyPrincipal> keysByDigest = Map.of();
+
+    public ApiKeyIndex(ApiKeyRepository apiKeyRepository) {
+        this.apiKeyRepository = apiKeyRepository;
+    }
+
+    public Optional<ApiKeyPrincipal> authenticate(String rawKey) {
+        return Optional.ofNullable(keysByDigest.get(TokenDigests.sha256Hex(rawKey)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.api-keys.refresh-interval-ms:60000}",
+            initialDelayString = "${app.security.api-keys.refresh-interval-ms:60000}")
+    public void reload() {
+        Map<String, ApiKeyPrincipal> reloaded = apiKeyRepository.findByActiveTrue().stream()
+                .collect(Collectors.toUnmodifiableMap(ApiKey::getKeyDigest,
+                        key -> new ApiKeyPrincipal(key.getId(), key.getName(), key.getRole()),
+                        (first, second) -> first));
+        keysByDigest = reloaded;
+        log.debug("ApiKeyIndex | Loaded {} active API keys", reloaded.size());
+    }
+}
@@ -0,0 +1,145 @@
+package edu.zia.international.school.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.zia.international.school.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/*
+* Throttles the unauthenticated, expensive auth endpoints (BCrypt on login/signup, SMTP on forgot-password)
+* with one token bucket per client IP and one per account (username or email), answering 429 + Retry-After.
+* State is per node; behind several nodes the effective limit is multiplied by the node count.
+* The client IP is the remote address as resolved by the container: with server.forward-headers-strategy=native,
+* Tomcat takes it from X-Forwarded-For only when the request arrives from a trusted proxy
+* (server.tomcat.remoteip.internal-proxies), so clients can't pick their own bucket and the proxy isn't one bucket.
+* */
+@Component
+@Slf4j
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/api/auth/login",
+            "/api/auth/signup",
+            "/api/auth/forgot-password"
+    );
+    private static final String[] ACCOUNT_FIELDS = {"usernameOrEmail", "username", "email"};
+    // Login/signup bodies are tiny; anything larger is not buffered and is limited per IP only
+    private static final int MAX_BUFFERED_BODY_BYTES = 16 * 1024;
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter accountLimiter;
+    private final Counter ipRejectedCounter;
+    private final Counter accountRejectedCounter;
+
+    public AuthRateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.ipLimiter = new TokenBucketRateLimiter(properties.getIpCapacity(), properties.getIpRefillPerMinute(),
+                properties.getMaxEntries(), properties.getIdleEvictMs());
+        this.accountLimiter = new TokenBucketRateLimiter(properties.getAccountCapacity(), properties.getAccountRefillPerMinute(),
+                properties.getMaxEntries(), properties.getIdleEvictMs());
+        this.ipRejectedCounter = Counter.builder("auth.rate_limit.rejected")
+                .description("Auth requests rejected by the rate limiter")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        this.accountRejectedCounter = Counter.builder("auth.rate_limit.rejected")
+                .description("Auth requests rejected by the rate limiter")
+                .tag("scope", "account")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !"POST".equalsIgnoreCase(request.getMethod())
+                || !LIMITED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String clientIp = request.getRemoteAddr();
+        long retryAfter = ipLimiter.tryAcquire(clientIp);
+        if (retryAfter > 0) {
+            ipRejectedCounter.increment();
+            log.warn("AuthRateLimitFilter | Too many auth requests from {} to {}", clientIp, request.getRequestURI());
+            reject(response, retryAfter);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        String account = request.getParameter("email");
+        if (account == null && request.getContentLength() >= 0 && request.getContentLength() <= MAX_BUFFERED_BODY_BYTES) {
+            CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request,
+                    request.getInputStream().readNBytes(MAX_BUFFERED_BODY_BYTES));
+            account = accountFromBody(cached.getBody());
+            forwarded = cached;
+        }
+
+        if (StringUtils.hasText(account)) {
+            retryAfter = accountLimiter.tryAcquire(request.getRequestURI() + '|' + account.trim().toLowerCase(Locale.ROOT));
+            if (retryAfter > 0) {
+                accountRejectedCounter.increment();
+                log.warn("AuthRateLimitFilter | Too many auth requests for account {} to {}", account, request.getRequestURI());
+                reject(response, retryAfter);
+                return;
+            }
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private String accountFromBody(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            for (String field : ACCOUNT_FIELDS) {
+                JsonNode value = json.get(field);
+                if (value != null && value.isTextual()) {
+                    return value.asText();
+                }
+            }
+        } catch (IOException e) {
+            // Not JSON; the controller will reject it, the IP bucket already counted it
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        error.put("error", "Too Many Requests");
+        error.put("message", "Too many attempts, please retry later.");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
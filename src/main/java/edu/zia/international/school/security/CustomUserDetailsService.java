@@ -2,10 +2,11 @@ package edu.zia.international.school.security;
 
 import edu.zia.international.school.repository.UserRepository;
 import edu.zia.international.school.entity.User;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,7 +14,8 @@ import org.springframework.stereotype.Service;
 import java.util.Collections;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
 
@@ -22,11 +24,25 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).orElseThrow(() ->
                 new UsernameNotFoundException("User doesn't exist with username or email : " + usernameOrEmail));
 
-        GrantedAuthority authorities = new SimpleGrantedAuthority(user.getRole().getName());
-
+        // Canonical username, so the JWT subject is the same whether the user logged in by username or email
         return new org.springframework.security.core.userdetails.User(
-                usernameOrEmail,
+                user.getUsername(),
                 user.getPassword(),
                 Collections.singleton(new SimpleGrantedAuthority("ROLE_" + user.getRole().getName())));
     }
+
+    // Called by the authentication provider after a successful login whose stored hash uses a lower BCrypt strength than configured
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername()).orElseThrow(() ->
+                new UsernameNotFoundException("User doesn't exist with username : " + userDetails.getUsername()));
+
+        user.setPassword(newEncodedPassword);
+        userRepository.save(user);
+        log.info("CustomUserDetailsService | Re-hashed password for {} with the current work factor", user.getUsername());
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newEncodedPassword)
+                .build();
+    }
 }
@@ -0,0 +1,68 @@
+package edu.zia.international.school.security;
+
+import edu.zia.international.school.config.EmailOutboxProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/*
+* Encrypts queued email bodies at rest: they carry password-reset links and temporary passwords.
+* AES-256-GCM with a random 96-bit IV per message, stored as "v1:" + base64(iv || ciphertext || tag).
+* Values without the prefix were queued before bodies were encrypted and are returned as they are.
+* */
+@Component
+public class EmailBodyCipher {
+
+    private static final String PREFIX = "v1:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final SecretKey key;
+
+    public EmailBodyCipher(EmailOutboxProperties properties) {
+        byte[] raw = properties.getEncryptionKey() == null ? new byte[0]
+                : Base64.getDecoder().decode(properties.getEncryptionKey());
+        if (raw.length != 32) {
+            throw new IllegalStateException("app.mail.outbox.encryption-key must be 32 random bytes, base64-encoded");
+        }
+        this.key = new SecretKeySpec(raw, "AES");
+    }
+
+    public String encrypt(String plaintext) {
+        byte[] iv = new byte[IV_BYTES];
+        SECURE_RANDOM.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt email body", e);
+        }
+    }
+
+    // IllegalStateException if the value was tampered with or encrypted under another key
+    public String decrypt(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        byte[] packed = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, packed, 0, IV_BYTES));
+            return new String(cipher.doFinal(packed, IV_BYTES, packed.length - IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not decrypt email body", e);
+        }
+    }
+}
@@ -1,33 +1,41 @@
 package edu.zia.international.school.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 
 /*
 * Executes before executing spring security filters
 * Validates the JWT token provides the user details to Spring security for Authentication
+* The principal is built from the verified claims; only the token version is checked, via TokenVersionCache
 * */
 @Component
+@Slf4j
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
     private JWTTokenProvider jwtTokenProvider;
-    private UserDetailsService userDetailsService;
+    private TokenVersionCache tokenVersionCache;
 
-    public JWTAuthenticationFilter(JWTTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+    public JWTAuthenticationFilter(JWTTokenProvider jwtTokenProvider, TokenVersionCache tokenVersionCache) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     @Override
@@ -52,12 +60,23 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         // Get JWT token from request
         String token = getTokenFromRequest(request);
 
-        // Validate Token
-        if(StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)){
-            // Get username from token
-            String username = jwtTokenProvider.getUsername(token);
+        // Verify token & read username, role, token version in one pass
+        JwtVerificationResult verification = jwtTokenProvider.verify(token);
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if(verification.isValid()){
+            Claims claims = verification.claims();
+            String username = claims.getSubject();
+            String role = claims.get(JWTTokenProvider.ROLE_CLAIM, String.class);
+            Number version = claims.get(JWTTokenProvider.VERSION_CLAIM, Number.class);
+
+            // Tokens issued before the last role change / password reset are rejected
+            if (role == null || version == null || !tokenVersionCache.isCurrent(username, version.longValue())) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            Set<GrantedAuthority> authorities = Collections.singleton(new SimpleGrantedAuthority("ROLE_" + role));
+            UserDetails userDetails = new User(username, "", authorities);
 
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
@@ -68,6 +87,8 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        } else if (verification.status() != JwtVerificationResult.Status.EMPTY) {
+            log.debug("JWTAuthenticationFilter | Rejected token for {}: {}", path, verification.status());
         }
 
         filterChain.doFilter(request, response);
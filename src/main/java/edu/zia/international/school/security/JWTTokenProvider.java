@@ -1,72 +1,87 @@
 package edu.zia.international.school.security;
 
-import edu.zia.international.school.exception.AppRuntimeException;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Date;
 
 @Component
 public class JWTTokenProvider {
 
+    public static final String ROLE_CLAIM = "role";
+    public static final String VERSION_CLAIM = "ver";
+    private static final String ROLE_PREFIX = "ROLE_";
+
     @Value("${app.jwt-secret}")
     private String jwtSecret;
     @Value("${app.jwt-expiration-milliseconds}")
     private long expirationDate;
 
-    // Generate JWT Token
+    private final TokenVersionCache tokenVersionCache;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    public JWTTokenProvider(TokenVersionCache tokenVersionCache) {
+        this.tokenVersionCache = tokenVersionCache;
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(jwtSecret));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    // Generate JWT Token carrying the role and token version, so requests can be authenticated from claims alone
     public String getToken(Authentication authentication){
         String username = authentication.getName();
         Date currDate = new Date();
 
         Date expiryDate = new Date(currDate.getTime() + expirationDate);
 
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .findFirst()
+                .orElse(null);
+
         return Jwts.builder()
                 .setSubject(username)
+                .claim(ROLE_CLAIM, role)
+                .claim(VERSION_CLAIM, tokenVersionCache.currentVersion(username))
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
     }
 
-    private Key key(){
-        return Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(jwtSecret));
-    }
-
-    // Get username from JWT token
-    public String getUsername(String token){
-        Claims claims = Jwts.parser()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    // Validate JWT Token
-    public boolean validateToken(String token){
+    // Verify signature & expiry and parse claims in a single pass
+    public JwtVerificationResult verify(String token){
+        if (!StringUtils.hasText(token)) {
+            return JwtVerificationResult.rejected(JwtVerificationResult.Status.EMPTY);
+        }
         try {
-            Jwts.parser()
-                    .verifyWith((SecretKey) key())
-                    .build()
-                    .parse(token);
-            return true;
-        } catch (MalformedJwtException malformedJwtException){
-            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Invalid JWT Token");
+            return JwtVerificationResult.valid(jwtParser.parseSignedClaims(token).getPayload());
         } catch (ExpiredJwtException expiredJwtException){
-            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Expired JWT Token");
+            return JwtVerificationResult.rejected(JwtVerificationResult.Status.EXPIRED);
+        } catch (SignatureException signatureException){
+            return JwtVerificationResult.rejected(JwtVerificationResult.Status.INVALID_SIGNATURE);
         } catch (UnsupportedJwtException unsupportedJwtException){
-            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Unsupported JWT token");
-        } catch (IllegalArgumentException illegalArgumentException){
-            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Jwt claims string is null or empty");
+            return JwtVerificationResult.rejected(JwtVerificationResult.Status.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException malformedJwtException){
+            return JwtVerificationResult.rejected(JwtVerificationResult.Status.MALFORMED);
         }
     }
 }
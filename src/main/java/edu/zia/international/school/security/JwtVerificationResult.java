@@ -0,0 +1,31 @@
+package edu.zia.international.school.security;
+
+import io.jsonwebtoken.Claims;
+
+/*
+* Outcome of a single JWT verification pass: either the verified claims or the reason the token was rejected.
+* Returned instead of throwing so the filter can fall through to the authentication entry point cheaply.
+* */
+public record JwtVerificationResult(Status status, Claims claims) {
+
+    public enum Status {
+        VALID,
+        MALFORMED,
+        EXPIRED,
+        UNSUPPORTED,
+        INVALID_SIGNATURE,
+        EMPTY
+    }
+
+    public static JwtVerificationResult valid(Claims claims) {
+        return new JwtVerificationResult(Status.VALID, claims);
+    }
+
+    public static JwtVerificationResult rejected(Status status) {
+        return new JwtVerificationResult(status, null);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+}
@@ -0,0 +1,77 @@
+package edu.zia.international.school.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+* Token buckets keyed by an arbitrary string (client IP, username, ...).
+* Buckets live in a bounded Caffeine cache and each synchronizes only on itself, so callers contend only
+* when they hit the same key. Buckets untouched for idleEvictMillis expire (never before they could have refilled,
+* so dropping one is the same as keeping it); beyond maxEntries the cache evicts by its frequency sketch, which keeps
+* buckets that are hit often over a flood of one-off keys, in amortized O(1) rather than a scan of the map.
+* */
+public class TokenBucketRateLimiter {
+
+    private final Cache<String, Bucket> buckets;
+    private final Ticker ticker;
+    private final int capacity;
+    private final double tokensPerNano;
+
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxEntries, long idleEvictMillis) {
+        this(capacity, refillPerMinute, maxEntries, idleEvictMillis, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxEntries, long idleEvictMillis, Ticker ticker) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.ticker = ticker;
+        long fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(idleEvictMillis), fullRefillNanos)))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Takes one token for the key.
+     * @return 0 if the request may proceed, otherwise the seconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = ticker.read();
+        return buckets.get(key, k -> new Bucket(capacity, now)).tryAcquire(now);
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        private synchronized long tryAcquire(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            long nanosUntilToken = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            return Math.max(1, (nanosUntilToken + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
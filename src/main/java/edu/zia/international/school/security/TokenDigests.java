@@ -0,0 +1,36 @@
+package edu.zia.international.school.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/*
+* Helpers for high-entropy secrets (API keys, reset tokens) that are stored only as SHA-256 digests.
+* A fast hash is enough here because the secrets are random, unlike user-chosen passwords.
+* */
+public final class TokenDigests {
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private TokenDigests() {
+    }
+
+    public static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // URL-safe random secret with the given number of random bytes
+    public static String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        SECURE_RANDOM.nextBytes(buffer);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
+    }
+}
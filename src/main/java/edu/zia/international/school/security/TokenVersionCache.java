@@ -0,0 +1,76 @@
+package edu.zia.international.school.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import edu.zia.international.school.entity.User;
+import edu.zia.international.school.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/*
+* Keeps the current token version of recently active users in memory so the JWT filter
+* can reject stale tokens without loading the full User (and its Role) on every request.
+* A miss costs a single-column lookup. At most MAX_ENTRIES are kept, each for TTL after it was loaded:
+* evict() only reaches this node, so on a multi-instance deployment a revocation takes effect on the others within TTL.
+* */
+@Component
+public class TokenVersionCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final Duration TTL = Duration.ofSeconds(60);
+    static final long UNKNOWN_USER = -1L;
+
+    private final Cache<String, Long> versions;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public TokenVersionCache(UserRepository userRepository) {
+        this(userRepository, Ticker.systemTicker());
+    }
+
+    TokenVersionCache(UserRepository userRepository, Ticker ticker) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(TTL)
+                .ticker(ticker)
+                .build();
+    }
+
+    // Current version for the user, or UNKNOWN_USER if the account no longer exists
+    public long currentVersion(String username) {
+        // Unknown users aren't cached: a null from the loader leaves no entry
+        Long version = versions.get(username, key -> userRepository.findTokenVersionByUsername(key).orElse(null));
+        return version != null ? version : UNKNOWN_USER;
+    }
+
+    public boolean isCurrent(String username, long tokenVersion) {
+        long current = currentVersion(username);
+        return current != UNKNOWN_USER && current == tokenVersion;
+    }
+
+    // Increments the version on the entity; the caller persists it and then calls evict() in the same transaction
+    public void bump(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+
+    // Deferred until the caller's transaction (if any) commits: evicted earlier, a request in between would
+    // re-cache the version that is about to be replaced, and tokens issued before the change would stay valid
+    public void evict(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.invalidate(username);
+            }
+        });
+    }
+}
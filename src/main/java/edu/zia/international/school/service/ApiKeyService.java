@@ -0,0 +1,12 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.dto.apikey.ApiKeyResponse;
+import edu.zia.international.school.dto.apikey.CreateApiKeyRequest;
+
+import java.util.List;
+
+public interface ApiKeyService {
+    ApiKeyResponse createApiKey(CreateApiKeyRequest request, String createdBy);
+    List<ApiKeyResponse> getAllApiKeys();
+    void revokeApiKey(Long id);
+}
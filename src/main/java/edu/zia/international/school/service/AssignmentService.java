@@ -2,6 +2,8 @@ package edu.zia.international.school.service;
 
 import edu.zia.international.school.dto.assignment.*;
 import edu.zia.international.school.enums.SubmissionStatus;
+import edu.zia.international.school.storage.StoredFile;
+import org.springframework.data.domain.Page;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -17,8 +19,12 @@ public interface AssignmentService {
     void deleteAssignment(Long id);
     AssignmentResponse updateAssignment(Long id, UpdateAssignmentRequest request, List<MultipartFile> files, String teacherId);
     AssignmentResponse closeAssignment(Long id, String teacherId);
-    List<AssignmentResponse> getAllAssignmentsAdmin();
+    Page<AssignmentResponse> getAllAssignmentsAdmin(int page, Integer size);
     AssignmentResponse updateAdminRemarks(Long id, String adminRemarks);
     AssignmentResponse createAssignmentAsAdmin(CreateAssignmentRequest request, List<MultipartFile> files, String adminId);
+    StoredFile getAttachmentFile(Long assignmentId, int index, String username);
+    StoredFile getSubmissionFile(Long assignmentId, String studentId, String username);
+    UploadSessionResponse startSubmissionUpload(Long assignmentId, StartUploadRequest request, String username);
+    AssignmentSubmissionResponse submitAssignment(Long assignmentId, SubmitAssignmentRequest request, String username);
 
 }
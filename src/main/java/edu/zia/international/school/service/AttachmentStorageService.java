@@ -0,0 +1,30 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.storage.BlobRef;
+import edu.zia.international.school.storage.StoredFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.Collection;
+
+public interface AttachmentStorageService {
+
+    // Streams the upload to the blob store, hashing as it goes; identical content is stored once.
+    // Returns the reference to persist (see BlobRef). Must run inside the transaction that saves the reference.
+    String store(MultipartFile file);
+
+    // For content too large to copy inside a transaction (e.g. reassembled upload chunks): hashes and writes the bytes
+    // with no transaction open, checking expectedSha256 (hex, optional) before anything is stored. The blob is held
+    // unreferenced until reference() counts it; if that never happens the sweeper removes it after the grace period.
+    // The caller closes `content`
+    BlobRef put(String originalFilename, String contentType, InputStream content, String expectedSha256);
+
+    // Counts one reference to a blob from put(), inside the transaction that saves it; returns the value to persist
+    String reference(BlobRef blob);
+
+    // Drops one reference per value; blobs nobody references are deleted later by the sweeper. Legacy paths are ignored.
+    void release(Collection<String> refs);
+
+    // Metadata and a byte source for a stored reference (or a legacy uploads/ path); ResourceNotFoundException if gone
+    StoredFile open(String ref);
+}
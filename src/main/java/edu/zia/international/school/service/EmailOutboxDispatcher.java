@@ -0,0 +1,193 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.config.EmailOutboxProperties;
+import edu.zia.international.school.entity.EmailDeadLetter;
+import edu.zia.international.school.entity.EmailOutbox;
+import edu.zia.international.school.repository.EmailDeadLetterRepository;
+import edu.zia.international.school.repository.EmailOutboxRepository;
+import edu.zia.international.school.security.EmailBodyCipher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+* Delivers outbox emails in the background.
+* Each poll claims due rows in a short transaction (pushing next_attempt_at out by the lease), sends the whole
+* batch over one SMTP connection with no transaction open, then deletes the sent rows and reschedules the
+* failed ones with exponential backoff. Rows out of attempts, and rows whose body can't be decrypted, move to
+* email_dead_letters, which are deleted after the retention period.
+* Bodies stay encrypted in both tables and are decrypted only to build the message.
+* */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailDeadLetterRepository emailDeadLetterRepository;
+    private final JavaMailSender mailSender;
+    private final EmailBodyCipher emailBodyCipher;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailOutboxProperties properties;
+    private final String emailIdFrom;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 EmailDeadLetterRepository emailDeadLetterRepository,
+                                 JavaMailSender mailSender,
+                                 EmailBodyCipher emailBodyCipher,
+                                 TransactionTemplate transactionTemplate,
+                                 EmailOutboxProperties properties,
+                                 @Value("${spring.mail.username}") String emailIdFrom) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailDeadLetterRepository = emailDeadLetterRepository;
+        this.mailSender = mailSender;
+        this.emailBodyCipher = emailBodyCipher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.emailIdFrom = emailIdFrom;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+            }
+        } while (batch.size() == properties.getBatchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.dead-letter-sweep-interval-ms:3600000}")
+    public void purgeDeadLetters() {
+        int deleted = emailDeadLetterRepository.deleteFailedBefore(
+                LocalDateTime.now().minusDays(properties.getDeadLetterRetentionDays()));
+        if (deleted > 0) {
+            log.info("EmailOutboxDispatcher | Purged {} expired dead letters", deleted);
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.lockDueBatch(now, properties.getBatchSize());
+            due.forEach(email -> email.setNextAttemptAt(now.plusSeconds(properties.getClaimLeaseSeconds())));
+            return due;
+        });
+    }
+
+    private void sendBatch(List<EmailOutbox> batch) {
+        // A row that can't be turned into a message (body encrypted under another key, corrupt ciphertext) will
+        // never send; it is dead-lettered on its own instead of failing the rows claimed with it
+        List<EmailOutbox> sendable = new ArrayList<>(batch.size());
+        List<SimpleMailMessage> messages = new ArrayList<>(batch.size());
+        List<EmailOutbox> unreadable = new ArrayList<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.add(toMessage(email));
+                sendable.add(email);
+            } catch (RuntimeException e) {
+                email.setLastError(truncate("Could not build message: " + e.getMessage()));
+                unreadable.add(email);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        String batchError = null;
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.toArray(SimpleMailMessage[]::new));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                batchError = e.getMessage();
+            } catch (RuntimeException e) {
+                // Authentication / configuration problems, or a sender bug: nothing in the batch is known to have gone out
+                batchError = Objects.requireNonNullElse(e.getMessage(), e.getClass().getName());
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        List<EmailOutbox> failed = new ArrayList<>();
+        for (int i = 0; i < sendable.size(); i++) {
+            EmailOutbox email = sendable.get(i);
+            boolean messageFailed = batchError != null && (failures.isEmpty() || failures.containsKey(messages.get(i)));
+            if (messageFailed) {
+                Exception cause = failures.get(messages.get(i));
+                email.setLastError(truncate(cause != null ? cause.getMessage() : batchError));
+                failed.add(email);
+            } else {
+                sentIds.add(email.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailOutboxRepository.deleteAllByIdInBatch(sentIds);
+            }
+            failed.forEach(this::scheduleRetry);
+            unreadable.forEach(email -> deadLetter(email, email.getAttempts() + 1));
+        });
+
+        log.info("EmailOutboxDispatcher | Sent {} emails, {} failed, {} unreadable",
+                sentIds.size(), failed.size(), unreadable.size());
+    }
+
+    private void scheduleRetry(EmailOutbox email) {
+        int attempts = email.getAttempts() + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            deadLetter(email, attempts);
+            return;
+        }
+
+        long backoff = Math.min(properties.getMaxBackoffSeconds(),
+                properties.getInitialBackoffSeconds() << Math.min(attempts - 1, 30));
+        email.setAttempts(attempts);
+        email.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+        emailOutboxRepository.save(email);
+        log.warn("EmailOutboxDispatcher | Delivery to {} failed (attempt {}), retrying in {}s: {}",
+                email.getRecipient(), attempts, backoff, email.getLastError());
+    }
+
+    private void deadLetter(EmailOutbox email, int attempts) {
+        log.error("EmailOutboxDispatcher | Giving up on '{}' to {} after {} attempts: {}",
+                email.getSubject(), email.getRecipient(), attempts, email.getLastError());
+        emailDeadLetterRepository.save(EmailDeadLetter.builder()
+                .recipient(email.getRecipient())
+                .subject(email.getSubject())
+                .body(email.getBody())
+                .attempts(attempts)
+                .lastError(email.getLastError())
+                .createdAt(email.getCreatedAt())
+                .failedAt(LocalDateTime.now())
+                .build());
+        emailOutboxRepository.deleteById(email.getId());
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(emailIdFrom);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(emailBodyCipher.decrypt(email.getBody()));
+        return message;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
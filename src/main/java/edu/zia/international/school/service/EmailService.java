@@ -1,27 +1,39 @@
 package edu.zia.international.school.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import edu.zia.international.school.entity.EmailOutbox;
+import edu.zia.international.school.repository.EmailOutboxRepository;
+import edu.zia.international.school.security.EmailBodyCipher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/*
+* Queues emails in the outbox table. The row commits (or rolls back) with the caller's transaction,
+* and EmailOutboxDispatcher delivers it in the background, so no request waits on SMTP.
+* Bodies are stored encrypted (EmailBodyCipher); recipient and subject stay readable for operations.
+* */
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class EmailService {
 
-    @Value("${spring.mail.username}")
-    private String emailIdFrom;
-
-    @Autowired
-    private JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailBodyCipher emailBodyCipher;
 
+    @Transactional
     public void sendEmail(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("jhahimalaya534@gmail.com");
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        mailSender.send(message);
+        LocalDateTime now = LocalDateTime.now();
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(emailBodyCipher.encrypt(text))
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        log.debug("EmailService | Queued '{}' for {}", subject, to);
     }
 }
-
@@ -0,0 +1,15 @@
+package edu.zia.international.school.service;
+
+/*
+* Must be called outside any transaction: refilling a serial block takes its own short transaction, and a caller
+* already holding a pooled connection would need a second one while other callers wait on the refill.
+* Both methods fail with 409 once the year's serials no longer fit the ID format.
+* */
+public interface IdAllocationService {
+
+    // Format: STD20250001
+    String nextStudentId(int admissionYear);
+
+    // Format: ZIA2025001
+    String nextEmpId(int year);
+}
@@ -0,0 +1,19 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.dto.search.NameIndexEntry;
+import edu.zia.international.school.enums.PersonType;
+
+/*
+* Published when a student or teacher is created, renamed or deleted; applied to the suggest index after commit.
+* entry is null for removals.
+* */
+public record NameIndexChangedEvent(PersonType type, String code, NameIndexEntry entry) {
+
+    public static NameIndexChangedEvent upsert(PersonType type, NameIndexEntry entry) {
+        return new NameIndexChangedEvent(type, entry.code(), entry);
+    }
+
+    public static NameIndexChangedEvent removed(PersonType type, String code) {
+        return new NameIndexChangedEvent(type, code, null);
+    }
+}
@@ -0,0 +1,12 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.dto.search.SearchSuggestion;
+import edu.zia.international.school.enums.PersonType;
+
+import java.util.List;
+
+public interface NameSuggestService {
+
+    // type null searches students and teachers
+    List<SearchSuggestion> suggest(String query, PersonType type, Integer limit);
+}
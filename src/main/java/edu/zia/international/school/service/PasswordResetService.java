@@ -0,0 +1,10 @@
+package edu.zia.international.school.service;
+
+public interface PasswordResetService {
+
+    // false if no user is registered with the email
+    boolean sendResetLink(String email);
+
+    // false if the token is unknown or expired
+    boolean resetPassword(String token, String newPassword);
+}
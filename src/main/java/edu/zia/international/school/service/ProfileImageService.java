@@ -0,0 +1,10 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.enums.PersonType;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ProfileImageService {
+
+    // Stages the upload and queues thumbnail/medium generation; the profile's URLs change once both variants exist
+    void submit(PersonType type, String code, MultipartFile imageFile);
+}
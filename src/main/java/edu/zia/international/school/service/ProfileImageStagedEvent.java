@@ -0,0 +1,11 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.enums.PersonType;
+
+import java.nio.file.Path;
+
+/*
+* Published once an uploaded profile photo is on local disk; resized after the upload's transaction commits.
+* sourceHash is the SHA-256 of the uploaded bytes and names the generated variants.
+* */
+public record ProfileImageStagedEvent(PersonType type, String code, Path stagedFile, String sourceHash) {}
@@ -0,0 +1,17 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/*
+* Full student/teacher roster exports, written row by row to out; returns the number of rows written.
+* out is flushed but not closed.
+* */
+public interface RegistryExportService {
+
+    long exportStudents(ExportFormat format, OutputStream out) throws IOException;
+
+    long exportTeachers(ExportFormat format, OutputStream out) throws IOException;
+}
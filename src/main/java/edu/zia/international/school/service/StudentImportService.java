@@ -0,0 +1,9 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.dto.student.StudentImportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface StudentImportService {
+
+    StudentImportResponse importStudents(MultipartFile file);
+}
@@ -1,8 +1,10 @@
 package edu.zia.international.school.service;
 
 
+import edu.zia.international.school.dto.CursorPage;
 import edu.zia.international.school.dto.student.CreateStudentRequest;
 import edu.zia.international.school.dto.student.StudentResponse;
+import org.springframework.data.domain.Page;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -13,6 +15,8 @@ public interface StudentService {
 
     List<StudentResponse> getAllStudents();
 
+    CursorPage<StudentResponse> getStudentsPage(String cursor, Integer size, String sort, String direction);
+
     StudentResponse getStudentById(String studentId);
 
     StudentResponse updateStudent(String studentId, CreateStudentRequest request);
@@ -25,6 +29,7 @@ public interface StudentService {
 
     List<StudentResponse> getStudentsByGradeAndSection(String gradeName, String sectionName);
 
-    List<StudentResponse> searchStudents(Long gradeId, Long sectionId, String gradeName, String sectionName, String studentId, String name);
+    Page<StudentResponse> searchStudents(Long gradeId, Long sectionId, String gradeName, String sectionName, String studentId, String name,
+                                         int page, Integer size);
 
 }
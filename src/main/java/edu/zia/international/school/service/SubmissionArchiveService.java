@@ -0,0 +1,22 @@
+package edu.zia.international.school.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface SubmissionArchiveService {
+
+    // Checks the assignment exists and takes an archive slot, so both errors surface before the response is committed
+    Reservation reserve(Long assignmentId);
+
+    // Writes a ZIP of every submitted file and text answer of the reserved assignment, one folder per student.
+    // Gives the reservation's slot back when done, whether or not the archive completed.
+    void writeArchive(Reservation reservation, OutputStream out) throws IOException;
+
+    // A held archive slot; closing it more than once is harmless
+    interface Reservation extends AutoCloseable {
+        Long assignmentId();
+
+        @Override
+        void close();
+    }
+}
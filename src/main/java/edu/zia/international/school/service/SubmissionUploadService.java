@@ -0,0 +1,26 @@
+package edu.zia.international.school.service;
+
+import edu.zia.international.school.dto.assignment.StartUploadRequest;
+import edu.zia.international.school.dto.assignment.UploadSessionResponse;
+import edu.zia.international.school.storage.BlobRef;
+
+import java.io.InputStream;
+
+public interface SubmissionUploadService {
+
+    // Opens an upload session; the caller has already checked the student may submit to the assignment
+    UploadSessionResponse start(Long assignmentId, String studentId, String username, StartUploadRequest request);
+
+    // Stores one chunk, verified against its SHA-256 (hex); re-sending a chunk replaces it
+    UploadSessionResponse writeChunk(Long assignmentId, String uploadId, int index, String sha256,
+                                     InputStream content, String username);
+
+    UploadSessionResponse status(Long assignmentId, String uploadId, String username);
+
+    // Joins the chunks into the attachment store, verified against the whole-file SHA-256 if one was given.
+    // Runs with no transaction open, however large the file; follow with complete() in the transaction that saves it
+    BlobRef assemble(Long assignmentId, String uploadId, String username);
+
+    // Ends the session; must run inside the caller's transaction, the chunks are only deleted once it commits
+    void complete(Long assignmentId, String uploadId, String username);
+}
@@ -1,6 +1,7 @@
 package edu.zia.international.school.service;
 
 
+import edu.zia.international.school.dto.CursorPage;
 import edu.zia.international.school.dto.teacher.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -9,6 +10,8 @@ import java.util.List;
 public interface TeacherService {
     TeacherResponse createTeacher(CreateTeacherRequest request);
     List<TeacherResponse> getAllTeachers();
+
+    CursorPage<TeacherResponse> getTeachersPage(String cursor, Integer size, String sort, String direction);
     TeacherResponse getTeacherById(Long id);
     TeacherResponse getByEmpId(String empId);
     TeacherResponse updateTeacher(Long id, UpdateTeacherRequest request);
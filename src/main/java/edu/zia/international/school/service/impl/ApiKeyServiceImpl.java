@@ -0,0 +1,97 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.dto.apikey.ApiKeyResponse;
+import edu.zia.international.school.dto.apikey.CreateApiKeyRequest;
+import edu.zia.international.school.entity.ApiKey;
+import edu.zia.international.school.exception.ResourceAlreadyExistsException;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.repository.ApiKeyRepository;
+import edu.zia.international.school.repository.RoleRepository;
+import edu.zia.international.school.security.ApiKeyIndex;
+import edu.zia.international.school.security.TokenDigests;
+import edu.zia.international.school.service.ApiKeyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyServiceImpl implements ApiKeyService {
+
+    private static final String KEY_PREFIX = "zis_";
+    private static final int KEY_RANDOM_BYTES = 32;
+    private static final int DISPLAY_PREFIX_LENGTH = 12;
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final RoleRepository roleRepository;
+    private final ApiKeyIndex apiKeyIndex;
+
+    @Override
+    public ApiKeyResponse createApiKey(CreateApiKeyRequest request, String createdBy) {
+        log.info("Creating API key '{}' with role {} for {}", request.name(), request.role(), createdBy);
+
+        if (apiKeyRepository.existsByName(request.name())) {
+            throw new ResourceAlreadyExistsException("API key already exists with name: " + request.name());
+        }
+
+        String roleName = roleRepository.findByName(request.role().toUpperCase())
+                .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + request.role()))
+                .getName();
+
+        String rawKey = KEY_PREFIX + TokenDigests.randomToken(KEY_RANDOM_BYTES);
+
+        ApiKey apiKey = ApiKey.builder()
+                .name(request.name())
+                .keyDigest(TokenDigests.sha256Hex(rawKey))
+                .keyPrefix(rawKey.substring(0, DISPLAY_PREFIX_LENGTH))
+                .role(roleName)
+                .active(true)
+                .createdBy(createdBy)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        ApiKey saved = apiKeyRepository.save(apiKey);
+        apiKeyIndex.reload();
+
+        log.info("API key '{}' created with ID: {}", saved.getName(), saved.getId());
+        return toResponse(saved, rawKey);
+    }
+
+    @Override
+    public List<ApiKeyResponse> getAllApiKeys() {
+        return apiKeyRepository.findAll().stream()
+                .map(apiKey -> toResponse(apiKey, null))
+                .toList();
+    }
+
+    @Override
+    public void revokeApiKey(Long id) {
+        ApiKey apiKey = apiKeyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("API key not found with ID: " + id));
+
+        apiKey.setActive(false);
+        apiKey.setRevokedAt(LocalDateTime.now());
+        apiKeyRepository.save(apiKey);
+        apiKeyIndex.reload();
+
+        log.info("API key '{}' revoked", apiKey.getName());
+    }
+
+    private ApiKeyResponse toResponse(ApiKey apiKey, String rawKey) {
+        return new ApiKeyResponse(
+                apiKey.getId(),
+                apiKey.getName(),
+                apiKey.getRole(),
+                apiKey.getKeyPrefix(),
+                apiKey.isActive(),
+                apiKey.getCreatedBy(),
+                apiKey.getCreatedAt(),
+                apiKey.getRevokedAt(),
+                rawKey
+        );
+    }
+}
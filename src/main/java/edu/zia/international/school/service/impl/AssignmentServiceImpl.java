@@ -1,27 +1,41 @@
 package edu.zia.international.school.service.impl;
 
+import edu.zia.international.school.config.PaginationProperties;
 import edu.zia.international.school.dto.assignment.*;
+import edu.zia.international.school.dto.search.NameIndexEntry;
 import edu.zia.international.school.entity.*;
 import edu.zia.international.school.enums.AssignmentStatus;
 import edu.zia.international.school.enums.SubmissionStatus;
+import edu.zia.international.school.exception.AppRuntimeException;
 import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.mapper.AssignmentMapper;
 import edu.zia.international.school.repository.*;
 import edu.zia.international.school.service.AssignmentService;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.service.SubmissionUploadService;
+import edu.zia.international.school.storage.BlobRef;
+import edu.zia.international.school.storage.StoredFile;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,13 +43,17 @@ import java.util.stream.Collectors;
 public class AssignmentServiceImpl implements AssignmentService {
 
     private final AssignmentRepository assignmentRepository;
-    private final AssignmentSubmissionRepository assignmentSubmissionRepository;
     private final AssignmentSubmissionRepository submissionRepository;
     private final GradeRepository gradeRepository;
     private final SectionRepository sectionRepository;
     private final TeacherRepository teacherRepository;
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
+    private final AssignmentMapper assignmentMapper;
+    private final AttachmentStorageService attachmentStorageService;
+    private final SubmissionUploadService submissionUploadService;
+    private final PaginationProperties paginationProperties;
+    private final TransactionTemplate transactionTemplate;
     private static final Logger logger = LoggerFactory.getLogger(AssignmentServiceImpl.class);
 
     @Override
@@ -63,23 +81,8 @@ public class AssignmentServiceImpl implements AssignmentService {
             sectionName = section.getName();
         }
 
-        // 🔹 File upload logic (same as before)
-        List<String> fileUrls = new ArrayList<>();
-        if (files != null && !files.isEmpty()) {
-            for (MultipartFile file : files) {
-                try {
-                    String uploadDir = "uploads/assignments/";
-                    File dir = new File(uploadDir);
-                    if (!dir.exists()) dir.mkdirs();
-
-                    String filePath = uploadDir + UUID.randomUUID() + "_" + file.getOriginalFilename();
-                    file.transferTo(new File(filePath));
-                    fileUrls.add(filePath);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
-                }
-            }
-        }
+        // 🔹 Store attachments (deduplicated by content)
+        List<String> fileUrls = storeAttachments(files);
 
         AssignmentStatus status = request.getStatus() != null ? request.getStatus() : AssignmentStatus.DRAFT;
 
@@ -98,26 +101,9 @@ public class AssignmentServiceImpl implements AssignmentService {
                 .status(status)
                 .build();
 
+        // 🔹 No per-student rows: until a student submits or is graded, PENDING is derived from the roster
         Assignment saved = assignmentRepository.save(assignment);
-
-        // 🔹 If assignment is published, map to students
-        if (status == AssignmentStatus.PUBLISHED && grade != null && section != null) {
-            List<Student> students = studentRepository.findByGradeNameAndSectionName(gradeName, sectionName);
-
-            List<AssignmentSubmission> submissions = students.stream()
-                    .map(student -> AssignmentSubmission.builder()
-                            .assignment(saved)
-                            .studentId(student.getStudentId())
-                            .submissionStatus(SubmissionStatus.PENDING)
-                            .submittedAt(null)
-                            .fileUrl(null)
-                            .build())
-                    .toList();
-
-            assignmentSubmissionRepository.saveAll(submissions);
-            saved.setSubmissions(submissions);
-        }
-        return mapToResponse(saved);
+        return assignmentMapper.toResponse(saved);
     }
 
     @Override
@@ -125,7 +111,7 @@ public class AssignmentServiceImpl implements AssignmentService {
         logger.info("Fetching assignments for teacher {}", teacherId);
         return assignmentRepository.findByCreatedByUserId(teacherId)
                 .stream()
-                .map(this::mapToResponse)
+                .map(assignmentMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -134,17 +120,37 @@ public class AssignmentServiceImpl implements AssignmentService {
         logger.info("Fetching assignments for Grade {} Section {}", gradeId, sectionId);
         return assignmentRepository.findByGradeIdAndSectionId(gradeId, sectionId)
                 .stream()
-                .map(this::mapToResponse)
+                .map(assignmentMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AssignmentSubmissionResponse> getSubmissions(Long assignmentId) {
         logger.info("Fetching submissions for assignment {}", assignmentId);
-        return submissionRepository.findByAssignmentId(assignmentId)
+        List<AssignmentSubmissionResponse> responses = submissionRepository.findByAssignmentId(assignmentId)
                 .stream()
-                .map(this::mapSubmissionToResponse)
+                .map(assignmentMapper::toSubmissionResponse)
                 .collect(Collectors.toList());
+
+        // 🔹 Everyone on the current roster without a row is PENDING, including students who joined after publishing
+        assignmentRepository.findById(assignmentId)
+                .filter(assignment -> assignment.getStatus() != AssignmentStatus.DRAFT)
+                .ifPresent(assignment -> {
+                    Set<String> withRow = responses.stream()
+                            .map(AssignmentSubmissionResponse::getStudentId)
+                            .collect(Collectors.toSet());
+                    for (String studentId : studentRepository.findRosterStudentIds(assignment.getGradeId(), assignment.getSectionId())) {
+                        if (!withRow.contains(studentId)) {
+                            responses.add(AssignmentSubmissionResponse.builder()
+                                    .assignmentId(assignmentId)
+                                    .studentId(studentId)
+                                    .submissionStatus(SubmissionStatus.PENDING)
+                                    .build());
+                        }
+                    }
+                });
+        return responses;
     }
 
     @Override
@@ -153,13 +159,10 @@ public class AssignmentServiceImpl implements AssignmentService {
                                                                SubmissionStatus submissionStatus, Double marks, String feedback) {
         logger.info("Updating submission status for assignment {} and student {}", assignmentId, studentId);
 
-        // 1. Find submission
+        // 1. Find submission; a still-virtual PENDING one gets its row now
         AssignmentSubmission submission = submissionRepository
                 .findByAssignmentIdAndStudentId(assignmentId, studentId)
-                .orElseThrow(() -> {
-                    logger.error("Submission not found for assignment {} student {}", assignmentId, studentId);
-                    return new ResourceNotFoundException("Submission not found for this assignment and student");
-                });
+                .orElseGet(() -> newSubmissionOnRoster(assignmentId, studentId));
 
         // 2. Update fields
         if (marks != null) {
@@ -180,17 +183,7 @@ public class AssignmentServiceImpl implements AssignmentService {
         logger.info("Successfully updated submission {} for assignment {} student {}", saved.getId(), assignmentId, studentId);
 
         // 3. Convert to response
-        return AssignmentSubmissionResponse.builder()
-                .id(saved.getId())
-                .assignmentId(saved.getAssignment().getId())
-                .studentId(saved.getStudentId())
-                .fileUrl(saved.getFileUrl())
-                .textAnswer(saved.getTextAnswer())
-                .marks(saved.getMarks())
-                .feedback(saved.getFeedback())
-                .submissionStatus(saved.getSubmissionStatus())
-                .submittedAt(saved.getSubmittedAt())
-                .build();
+        return assignmentMapper.toSubmissionResponse(saved);
     }
 
 
@@ -203,16 +196,30 @@ public class AssignmentServiceImpl implements AssignmentService {
                     return new ResourceNotFoundException("Assignment not found with id: " + id);
                 });
 
-        return mapToResponse(assignment);
+        return assignmentMapper.toResponse(assignment);
     }
 
     @Override
+    @Transactional
     public void deleteAssignment(Long id) {
         logger.info("Deleting assignment with id {}", id);
 
         Assignment assignment = assignmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Assignment not found with id: " + id));
 
+        // 🔹 Drop this assignment's references; shared blobs stay until nothing points at them
+        List<String> refs = new ArrayList<>();
+        if (assignment.getAttachments() != null) {
+            refs.addAll(assignment.getAttachments());
+        }
+        if (assignment.getSubmissions() != null) {
+            assignment.getSubmissions().stream()
+                    .map(AssignmentSubmission::getFileUrl)
+                    .filter(Objects::nonNull)
+                    .forEach(refs::add);
+        }
+        attachmentStorageService.release(refs);
+
         assignmentRepository.delete(assignment);
 
         logger.info("Successfully deleted assignment with id {}", id);
@@ -283,26 +290,13 @@ public class AssignmentServiceImpl implements AssignmentService {
             List<String> fileUrls = new ArrayList<>(assignment.getAttachments() != null
                     ? assignment.getAttachments() : new ArrayList<>());
 
-            for (MultipartFile file : files) {
-                try {
-                    String uploadDir = "uploads/assignments/";
-                    File dir = new File(uploadDir);
-                    if (!dir.exists()) dir.mkdirs();
-
-                    String filePath = uploadDir + UUID.randomUUID() + "_" + file.getOriginalFilename();
-                    file.transferTo(new File(filePath));
-                    fileUrls.add(filePath);
-
-                    logger.info("File '{}' uploaded successfully for assignment {}", file.getOriginalFilename(), id);
-                } catch (Exception e) {
-                    logger.error("Error saving file '{}' for assignment {}", file.getOriginalFilename(), id, e);
-                    throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
-                }
-            }
+            fileUrls.addAll(storeAttachments(files));
+            logger.info("Stored {} new attachment(s) for assignment {}", files.size(), id);
             assignment.setAttachments(fileUrls);
         }
 
-        // 🔹 Update status
+        // 🔹 Update status. Re-publishing writes no submission rows (pending comes from the roster),
+        // so repeated edits of a published assignment cost nothing extra
         AssignmentStatus status = request.getStatus() != null ? request.getStatus() : AssignmentStatus.DRAFT;
         assignment.setStatus(status);
         assignment.setUpdatedAt(LocalDateTime.now());
@@ -313,29 +307,8 @@ public class AssignmentServiceImpl implements AssignmentService {
 
         Assignment updated = assignmentRepository.save(assignment);
 
-        // 🔹 If assignment is published → create mappings for all students in grade/section
-        if (status == AssignmentStatus.PUBLISHED) {
-            List<Student> students;
-            if (updated.getSectionId() != 0) {
-                students = studentRepository.findByGradeIdAndSectionId(updated.getGradeId(), updated.getSectionId());
-            } else {
-                students = studentRepository.findByGradeId(updated.getGradeId());
-            }
-
-            List<AssignmentSubmission> mappings = students.stream()
-                    .map(student -> AssignmentSubmission.builder()
-                            .assignment(updated)
-                            .studentId(student.getStudentId())
-                            .submissionStatus(SubmissionStatus.PENDING)
-                            .build())
-                    .collect(Collectors.toList());
-
-            assignmentSubmissionRepository.saveAll(mappings);
-            logger.info("Mapped assignment {} to {} students after update", updated.getId(), students.size());
-        }
-
         logger.info("Assignment ID {} updated successfully by {}", updated.getId(), fullName);
-        return mapToResponse(updated);
+        return assignmentMapper.toResponse(updated);
     }
 
 
@@ -352,36 +325,32 @@ public class AssignmentServiceImpl implements AssignmentService {
         assignment.setStatus(AssignmentStatus.CLOSED);
         assignment.setUpdatedAt(LocalDateTime.now());
 
-        return mapToResponse(assignmentRepository.save(assignment));
+        return assignmentMapper.toResponse(assignmentRepository.save(assignment));
     }
 
     @Override
-    public List<AssignmentResponse> getAllAssignmentsAdmin() {
-        List<Assignment> allAssignments = assignmentRepository.findAll();
-
-        return allAssignments.stream()
-                .map(a -> {
-                    // Fetch teacher name by username
-                    String teacherName = teacherRepository.findByUsername(a.getCreatedByUserId())
-                            .map(Teacher::getFullName)
-                            .orElse(a.getCreatedByUserId());
-
-                    return AssignmentResponse.builder()
-                            .id(a.getId())
-                            .title(a.getTitle())
-                            .description(a.getDescription())
-                            .dueDate(a.getDueDate())
-                            .gradeName(a.getGradeName())
-                            .sectionName(a.getSectionName())
-                            .createdByTeacherId(teacherName)
-                            .createdAt(a.getCreatedAt())
-                            .updatedAt(a.getUpdatedAt())
-                            .attachments(a.getAttachments() != null ? a.getAttachments() : List.of())
-                            .status(a.getStatus().name())
-                            .adminRemarks(a.getAdminRemarks())
-                            .build();
-                })
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<AssignmentResponse> getAllAssignmentsAdmin(int page, Integer size) {
+        int pageSize = size == null || size < 1
+                ? paginationProperties.getDefaultPageSize()
+                : Math.min(size, paginationProperties.getMaxPageSize());
+        Page<Assignment> assignments = assignmentRepository.findAll(
+                PageRequest.of(Math.max(page, 0), pageSize, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+
+        // 🔹 Creator names for the whole page in one query; attachments load in @BatchSize groups
+        Set<String> creators = assignments.stream()
+                .map(Assignment::getCreatedByUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, String> teacherNames = creators.isEmpty() ? Map.of()
+                : teacherRepository.findNameIndexEntriesByUsername(creators).stream()
+                        .collect(Collectors.toMap(NameIndexEntry::username, NameIndexEntry::name, (a, b) -> a));
+
+        return assignments.map(a -> {
+            AssignmentResponse response = assignmentMapper.toResponseWithAttachments(a);
+            response.setCreatedByTeacherId(teacherNames.getOrDefault(a.getCreatedByUserId(), a.getCreatedByUserId()));
+            return response;
+        });
     }
 
     @Override
@@ -402,19 +371,7 @@ public class AssignmentServiceImpl implements AssignmentService {
         logger.info("Updated admin remarks for assignment id={} successfully", assignmentId);
 
         // Convert to DTO
-        return AssignmentResponse.builder()
-                .id(assignment.getId())
-                .title(assignment.getTitle())
-                .description(assignment.getDescription())
-                .gradeName(assignment.getGradeName())
-                .sectionName(assignment.getSectionName())
-                .createdByTeacherId(assignment.getCreatedByUserId())
-                .createdAt(assignment.getCreatedAt())
-                .updatedAt(assignment.getUpdatedAt())
-                .status(assignment.getStatus().name())
-                .adminRemarks(assignment.getAdminRemarks())
-                .attachments(assignment.getAttachments())
-                .build();
+        return assignmentMapper.toResponseWithAttachments(assignment);
     }
 
     @Override
@@ -455,23 +412,8 @@ public class AssignmentServiceImpl implements AssignmentService {
             assignedTeacherId = assignedTeacher.getEmpId();
         }
 
-        // 🔹 Handle File Uploads
-        List<String> fileUrls = new ArrayList<>();
-        if (files != null && !files.isEmpty()) {
-            for (MultipartFile file : files) {
-                try {
-                    String uploadDir = "uploads/assignments/";
-                    File dir = new File(uploadDir);
-                    if (!dir.exists()) dir.mkdirs();
-
-                    String filePath = uploadDir + UUID.randomUUID() + "_" + file.getOriginalFilename();
-                    file.transferTo(new File(filePath));
-                    fileUrls.add(filePath);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
-                }
-            }
-        }
+        // 🔹 Store attachments (deduplicated by content)
+        List<String> fileUrls = storeAttachments(files);
 
         // 🔹 Default assignment status (if null, fallback to DRAFT)
         AssignmentStatus status = request.getStatus() != null ? request.getStatus() : AssignmentStatus.DRAFT;
@@ -493,66 +435,181 @@ public class AssignmentServiceImpl implements AssignmentService {
                 .status(status)
                 .build();
 
+        // 🔹 No per-student rows: until a student submits or is graded, PENDING is derived from the roster
         Assignment saved = assignmentRepository.save(assignment);
 
-        // 🔹 If assignment is published, map to students
-        if (status == AssignmentStatus.PUBLISHED && grade != null && section != null) {
-            List<Student> students = studentRepository.findByGradeNameAndSectionName(gradeName, sectionName);
-
-            List<AssignmentSubmission> submissions = students.stream()
-                    .map(student -> AssignmentSubmission.builder()
-                            .assignment(saved)
-                            .studentId(student.getStudentId())
-                            .submissionStatus(SubmissionStatus.PENDING)
-                            .submittedAt(null)
-                            .fileUrl(null)
-                            .build())
-                    .toList();
-
-            assignmentSubmissionRepository.saveAll(submissions);
-            saved.setSubmissions(submissions);
+        return assignmentMapper.toResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StoredFile getAttachmentFile(Long assignmentId, int index, String username) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found with id: " + assignmentId));
+
+        // 🔹 Staff see every assignment; students only those for their own grade/section
+        if (!isStaff()) {
+            Student student = studentRepository.findByUsername(username)
+                    .orElseThrow(() -> new AccessDeniedException("You are not allowed to download this attachment"));
+            if (!isAssignedTo(student, assignment)) {
+                logger.warn("Student {} denied attachment {} of assignment {}", username, index, assignmentId);
+                throw new AccessDeniedException("You are not allowed to download this attachment");
+            }
         }
 
-        return mapToResponse(saved);
+        List<String> attachments = assignment.getAttachments();
+        if (attachments == null || index < 0 || index >= attachments.size()) {
+            throw new ResourceNotFoundException("Attachment " + index + " not found for assignment " + assignmentId);
+        }
+        return attachmentStorageService.open(attachments.get(index));
     }
 
-    private AssignmentResponse mapToResponse(Assignment assignment) {
-        AssignmentResponse response = new AssignmentResponse();
-        response.setId(assignment.getId());
-        response.setTitle(assignment.getTitle());
-        response.setDescription(assignment.getDescription());
-        response.setDueDate(assignment.getDueDate());
-        response.setCreatedAt(assignment.getCreatedAt());
-        response.setUpdatedAt(assignment.getUpdatedAt());
-        response.setLastUpdatedBy(assignment.getLastUpdatedBy());
-        response.setStatus(assignment.getStatus().name());
-        response.setCreatedByTeacherId(assignment.getCreatedByUserId());
-        response.setGradeName(assignment.getGradeName());
-        response.setSectionName(assignment.getSectionName());
-        response.setAdminRemarks(assignment.getAdminRemarks());
-
-        /*Grade grade = gradeRepository.findById(assignment.getGradeId()).orElse(null);
-        Section section = sectionRepository.findById(assignment.getSectionId()).orElse(null);
-
-        response.setGradeName(grade != null ? grade.getName() : null);
-        response.setSectionName(section != null ? section.getName() : null);*/
-
-        return response;
+    @Override
+    @Transactional(readOnly = true)
+    public StoredFile getSubmissionFile(Long assignmentId, String studentId, String username) {
+        // 🔹 Staff, or the student who submitted it
+        if (!isStaff()) {
+            boolean ownSubmission = studentRepository.findByUsername(username)
+                    .map(student -> student.getStudentId().equals(studentId))
+                    .orElse(false);
+            if (!ownSubmission) {
+                logger.warn("User {} denied submission file of student {} for assignment {}", username, studentId, assignmentId);
+                throw new AccessDeniedException("You are not allowed to download this submission");
+            }
+        }
+
+        AssignmentSubmission submission = submissionRepository.findByAssignmentIdAndStudentId(assignmentId, studentId)
+                .filter(s -> s.getFileUrl() != null)
+                .orElseThrow(() -> new ResourceNotFoundException("No submitted file for this assignment and student"));
+        return attachmentStorageService.open(submission.getFileUrl());
+    }
+
+    @Override
+    @Transactional
+    public UploadSessionResponse startSubmissionUpload(Long assignmentId, StartUploadRequest request, String username) {
+        Student student = findSubmittingStudent(assignmentId, username);
+        return submissionUploadService.start(assignmentId, student.getStudentId(), username, request);
     }
 
-    private AssignmentSubmissionResponse mapSubmissionToResponse(AssignmentSubmission submission) {
-        return AssignmentSubmissionResponse.builder()
-                .id(submission.getId())
-                .studentId(submission.getStudentId())
-                .submittedAt(submission.getSubmittedAt())
-                .fileUrl(submission.getFileUrl())
-                .textAnswer(submission.getTextAnswer())
-                .marks(submission.getMarks())
-                .feedback(submission.getFeedback())
-                .submissionStatus(submission.getSubmissionStatus())
+    // Not @Transactional: the file is assembled between two short transactions, so however large it is,
+    // no connection is held while its bytes are copied
+    @Override
+    public AssignmentSubmissionResponse submitAssignment(Long assignmentId, SubmitAssignmentRequest request, String username) {
+        boolean hasFile = request.getUploadId() != null && !request.getUploadId().isBlank();
+        boolean hasText = request.getTextAnswer() != null && !request.getTextAnswer().isBlank();
+        if (!hasFile && !hasText) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "A submission needs a file or a text answer");
+        }
+
+        // 🔹 Fail fast, before any bytes are copied
+        String studentId = transactionTemplate.execute(status -> {
+            Student student = findSubmittingStudent(assignmentId, username);
+            submissionRepository.findByAssignmentIdAndStudentId(assignmentId, student.getStudentId())
+                    .ifPresent(AssignmentServiceImpl::rejectIfGraded);
+            return student.getStudentId();
+        });
+
+        BlobRef file = hasFile ? submissionUploadService.assemble(assignmentId, request.getUploadId(), username) : null;
+
+        return transactionTemplate.execute(status -> {
+            Assignment assignment = assignmentRepository.getReferenceById(assignmentId);
+            AssignmentSubmission submission = submissionRepository.findByAssignmentIdAndStudentId(assignmentId, studentId)
+                    .orElseGet(() -> AssignmentSubmission.builder()
+                            .assignment(assignment)
+                            .studentId(studentId)
+                            .build());
+            // 🔹 Checked again: it may have been graded while the file was assembled
+            rejectIfGraded(submission);
+
+            if (file != null) {
+                String ref = attachmentStorageService.reference(file);
+                submissionUploadService.complete(assignmentId, request.getUploadId(), username);
+                if (submission.getFileUrl() != null) {
+                    attachmentStorageService.release(List.of(submission.getFileUrl()));
+                }
+                submission.setFileUrl(ref);
+            }
+            if (hasText) {
+                submission.setTextAnswer(request.getTextAnswer().trim());
+            }
+
+            // 🔹 Due date is a whole day: anything after it is late
+            LocalDate dueDate = assignment.getDueDate();
+            submission.setSubmittedAt(LocalDateTime.now());
+            submission.setSubmissionStatus(dueDate != null && LocalDate.now().isAfter(dueDate)
+                    ? SubmissionStatus.LATE : SubmissionStatus.SUBMITTED);
+
+            AssignmentSubmission saved = submissionRepository.save(submission);
+            logger.info("Student {} submitted assignment {} ({})", studentId, assignmentId, saved.getSubmissionStatus());
+            return assignmentMapper.toSubmissionResponse(saved);
+        });
+    }
+
+    // 🔹 Once graded, the work the marks were given for stays as it is
+    private static void rejectIfGraded(AssignmentSubmission submission) {
+        if (submission.getMarks() != null) {
+            throw new AppRuntimeException(HttpStatus.CONFLICT, "This submission has already been graded");
+        }
+    }
+
+    // First row for a student who so far was only PENDING by being on the roster
+    private AssignmentSubmission newSubmissionOnRoster(Long assignmentId, String studentId) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .filter(a -> a.getStatus() != AssignmentStatus.DRAFT)
+                .filter(a -> studentRepository.findRosterStudentIds(a.getGradeId(), a.getSectionId()).contains(studentId))
+                .orElseThrow(() -> {
+                    logger.error("Submission not found for assignment {} student {}", assignmentId, studentId);
+                    return new ResourceNotFoundException("Submission not found for this assignment and student");
+                });
+        return AssignmentSubmission.builder()
+                .assignment(assignment)
+                .studentId(studentId)
                 .build();
     }
 
+    // The calling student, if the assignment is published for their grade/section
+    private Student findSubmittingStudent(Long assignmentId, String username) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found with id: " + assignmentId));
+        Student student = studentRepository.findByUsername(username)
+                .orElseThrow(() -> new AccessDeniedException("Only students can submit assignments"));
+
+        if (!isAssignedTo(student, assignment)) {
+            logger.warn("Student {} denied submission to assignment {}", username, assignmentId);
+            throw new AccessDeniedException("This assignment is not assigned to you");
+        }
+        if (assignment.getStatus() != AssignmentStatus.PUBLISHED) {
+            throw new AppRuntimeException(HttpStatus.CONFLICT, "Assignment is not open for submissions");
+        }
+        return student;
+    }
+
+    // Same grade, and same section unless the assignment is for the whole grade (sectionId 0)
+    private static boolean isAssignedTo(Student student, Assignment assignment) {
+        boolean sameGrade = student.getGrade() != null && student.getGrade().getId() == assignment.getGradeId();
+        boolean sameSection = assignment.getSectionId() == 0
+                || (student.getSection() != null && student.getSection().getId() == assignment.getSectionId());
+        return sameGrade && sameSection;
+    }
+
+    private static boolean isStaff() {
+        return SecurityContextHolder.getContext().getAuthentication()
+                .getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN") || auth.getAuthority().equals("ROLE_TEACHER"));
+    }
+
+    /**
+     * Helper method to store uploaded files, returning the references to save on the assignment
+     */
+    private List<String> storeAttachments(List<MultipartFile> files) {
+        List<String> refs = new ArrayList<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                refs.add(attachmentStorageService.store(file));
+            }
+        }
+        return refs;
+    }
 
     /**
      * Helper method to fetch user full name from Teacher/Admin repo
@@ -0,0 +1,294 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.StorageProperties;
+import edu.zia.international.school.entity.StoredBlob;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.repository.StoredBlobRepository;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.storage.BlobRef;
+import edu.zia.international.school.storage.BlobStore;
+import edu.zia.international.school.storage.StoredFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/*
+* Content-addressed attachment storage: each upload is hashed while it streams to a staging file, counted in
+* stored_blobs, and written to the BlobStore only if that content isn't there yet.
+* The reference row is taken before the bytes are checked, so a sweeper deleting the same blob (which holds the row
+* lock) either finishes first, and the bytes are re-put, or waits and then sees refCount > 0.
+* Bytes written for a transaction that then rolls back lose their row with it; they are recorded again as
+* unreferenced so the sweeper still finds them.
+* */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentStorageServiceImpl implements AttachmentStorageService {
+
+    private static final int MAX_FILENAME_LENGTH = 180;
+    private static final Path LEGACY_UPLOADS_ROOT = Paths.get("uploads").toAbsolutePath().normalize();
+
+    private final BlobStore blobStore;
+    private final StoredBlobRepository storedBlobRepository;
+    private final StorageProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    // The upload hashed into a staging file, not yet handed to the backend
+    private record Staged(Path path, String sha256, long size) {}
+
+    @Override
+    @Transactional
+    public String store(MultipartFile file) {
+        String filename = safeFilename(file.getOriginalFilename());
+        String contentType = file.getContentType();
+        Staged staged = null;
+        try (InputStream in = file.getInputStream()) {
+            staged = stage(in);
+            String sha256 = staged.sha256();
+            long size = staged.size();
+
+            storedBlobRepository.addReference(sha256, size, contentType, LocalDateTime.now());
+            if (blobStore.exists(sha256)) {
+                log.debug("AttachmentStorage | {} ({} bytes) already stored as {}", filename, size, sha256);
+            } else {
+                blobStore.put(sha256, staged.path(), size, contentType);
+                log.info("AttachmentStorage | Stored {} ({} bytes) as {}", filename, size, sha256);
+                holdOnRollback(sha256, size, contentType);
+            }
+            return new BlobRef(sha256, filename).toString();
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
+        } finally {
+            deleteQuietly(staged != null ? staged.path() : null);
+        }
+    }
+
+    // Holding the row before writing keeps the sweeper off these bytes for the grace period, which covers the copy
+    // and the caller's reference(); a sweep already under way finishes first, and the bytes are then put back
+    @Override
+    public BlobRef put(String originalFilename, String contentType, InputStream content, String expectedSha256) {
+        String filename = safeFilename(originalFilename);
+        Staged staged = null;
+        try {
+            staged = stage(content);
+            String sha256 = staged.sha256();
+            long size = staged.size();
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256)) {
+                throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "File checksum mismatch; upload the file again");
+            }
+
+            transactionTemplate.executeWithoutResult(status ->
+                    storedBlobRepository.holdUnreferenced(sha256, size, contentType, LocalDateTime.now()));
+            if (blobStore.exists(sha256)) {
+                log.debug("AttachmentStorage | {} ({} bytes) already stored as {}", filename, size, sha256);
+            } else {
+                blobStore.put(sha256, staged.path(), size, contentType);
+                log.info("AttachmentStorage | Stored {} ({} bytes) as {}", filename, size, sha256);
+            }
+            return new BlobRef(sha256, filename);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file " + originalFilename, e);
+        } finally {
+            deleteQuietly(staged != null ? staged.path() : null);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String reference(BlobRef blob) {
+        if (storedBlobRepository.addHeldReference(blob.sha256()) == 0) {
+            throw new AppRuntimeException(HttpStatus.CONFLICT, "The uploaded file expired before it was saved; upload it again");
+        }
+        return blob.toString();
+    }
+
+    private Staged stage(InputStream content) throws IOException {
+        Path stagingDir = Paths.get(properties.getStagingDir());
+        Files.createDirectories(stagingDir);
+        Path path = Files.createTempFile(stagingDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = Files.copy(new DigestInputStream(content, digest), path, StandardCopyOption.REPLACE_EXISTING);
+            return new Staged(path, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(path);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            deleteQuietly(path);
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Runs after the caller's transaction is over, so in a new one. The upsert leaves the row alone if a concurrent
+    // upload of the same content has referenced the bytes in the meantime
+    private void holdOnRollback(String sha256, long size, String contentType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+                requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                try {
+                    requiresNew.executeWithoutResult(tx ->
+                            storedBlobRepository.holdUnreferenced(sha256, size, contentType, LocalDateTime.now()));
+                    log.info("AttachmentStorage | Upload of {} rolled back, left for the sweeper", sha256);
+                } catch (RuntimeException e) {
+                    log.warn("AttachmentStorage | Could not record rolled back blob {}", sha256, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void release(Collection<String> refs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String ref : refs) {
+            BlobRef.parse(ref).ifPresent(blob -> {
+                if (storedBlobRepository.releaseReference(blob.sha256(), now) == 0) {
+                    log.warn("AttachmentStorage | Released {} with no outstanding references", blob.sha256());
+                }
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StoredFile open(String ref) {
+        BlobRef blob = BlobRef.parse(ref).orElse(null);
+        if (blob == null) {
+            return openLegacy(ref);
+        }
+        StoredBlob stored = storedBlobRepository.findById(blob.sha256())
+                .filter(b -> b.getRefCount() > 0)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found: " + blob.filename()));
+        String contentType = stored.getContentType() != null
+                ? stored.getContentType()
+                : contentTypeOf(blob.filename());
+
+        // Content-addressed, so the digest is a strong validator for every reference to it
+        return new StoredFile(blob.filename(), contentType, stored.getSizeBytes(),
+                stored.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                "\"" + blob.sha256() + "\"",
+                blobStore.localPath(blob.sha256()).orElse(null),
+                (start, end) -> blobStore.open(blob.sha256(), start, end));
+    }
+
+    // Files written to uploads/ before the blob store; confined to that directory
+    private StoredFile openLegacy(String ref) {
+        Path path = Paths.get(ref).toAbsolutePath().normalize();
+        if (!path.startsWith(LEGACY_UPLOADS_ROOT) || !Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Attachment not found: " + ref);
+        }
+        try {
+            long size = Files.size(path);
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            String name = path.getFileName().toString();
+            // Stored as <uuid>_<original name>
+            String filename = name.length() > 37 && name.charAt(36) == '_' ? name.substring(37) : name;
+            return new StoredFile(filename, contentTypeOf(filename), size, lastModified,
+                    "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"",
+                    path, (start, end) -> Channels.newInputStream(Files.newByteChannel(path).position(start)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String contentTypeOf(String filename) {
+        return MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+
+    // Each blob in its own short transaction; the row lock keeps a concurrent upload of the same content out
+    @Scheduled(fixedDelayString = "${app.storage.sweep-interval-ms:600000}")
+    public void sweepReleasedBlobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(properties.getReleaseGraceMinutes());
+        List<String> candidates = storedBlobRepository.findReleasedBefore(cutoff,
+                PageRequest.of(0, properties.getSweepBatchSize()));
+
+        int deleted = 0;
+        for (String sha256 : candidates) {
+            try {
+                Boolean removed = transactionTemplate.execute(status -> storedBlobRepository.lockBySha256(sha256)
+                        // Re-checked under the lock: referenced or held again since it was listed
+                        .filter(blob -> blob.getRefCount() == 0
+                                && blob.getReleasedAt() != null && blob.getReleasedAt().isBefore(cutoff))
+                        .map(blob -> {
+                            try {
+                                blobStore.delete(sha256);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            storedBlobRepository.delete(blob);
+                            return true;
+                        })
+                        .orElse(false));
+                if (Boolean.TRUE.equals(removed)) {
+                    deleted++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("AttachmentStorage | Could not delete blob {}, will retry", sha256, e);
+            }
+        }
+        if (deleted > 0) {
+            log.info("AttachmentStorage | Deleted {} unreferenced blobs", deleted);
+        }
+    }
+
+    static String safeFilename(String original) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(original == null ? "" : original.replace('\\', '/')));
+        if (name == null || name.isBlank() || name.equals("..")) {
+            return "file";
+        }
+        name = name.replaceAll("[\\p{Cntrl}\"]", "_");
+        return name.length() > MAX_FILENAME_LENGTH ? name.substring(name.length() - MAX_FILENAME_LENGTH) : name;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("AttachmentStorage | Could not delete staged file {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package edu.zia.international.school.service.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+* Hi/lo serial allocation per year: a block of blockSize serials is reserved in the database at once
+* (the only point where nodes coordinate), then handed out from an AtomicInteger without any lock.
+* Serials left in a block when the node stops are skipped, so IDs stay unique and increasing per node but may have gaps.
+* */
+public class BlockIdAllocator {
+
+    @FunctionalInterface
+    public interface BlockReserver {
+        // Reserves blockSize serials for the year and returns the first one
+        int reserve(int year, int blockSize);
+    }
+
+    private final BlockReserver reserver;
+    private final int blockSize;
+    private final ConcurrentHashMap<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    public BlockIdAllocator(BlockReserver reserver, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.reserver = reserver;
+        this.blockSize = blockSize;
+    }
+
+    public int next(int year) {
+        while (true) {
+            Block block = blocks.get(year);
+            if (block != null) {
+                int serial = block.next.getAndIncrement();
+                if (serial <= block.last) {
+                    return serial;
+                }
+            }
+            refill(year, block);
+        }
+    }
+
+    // Only one thread reserves; the others loop back and take from the block it installed
+    private synchronized void refill(int year, Block exhausted) {
+        if (blocks.get(year) != exhausted) {
+            return;
+        }
+        int first = reserver.reserve(year, blockSize);
+        blocks.put(year, new Block(first, first + blockSize - 1));
+    }
+
+    private static final class Block {
+        private final AtomicInteger next;
+        private final int last;
+
+        private Block(int first, int last) {
+            this.next = new AtomicInteger(first);
+            this.last = last;
+        }
+    }
+}
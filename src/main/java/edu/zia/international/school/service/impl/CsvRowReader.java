@@ -0,0 +1,93 @@
+package edu.zia.international.school.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+* Minimal RFC 4180 reader: comma separated, optional double quotes, "" as an escaped quote,
+* quoted fields may span lines. Reads one record at a time so large files are never held in memory.
+* */
+class CsvRowReader {
+
+    private final Reader reader;
+    private int line = 1;
+    private int recordStartLine = 1;
+    private int pushedBack = -2;
+
+    CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Line number where the last returned record started
+    int recordLine() {
+        return recordStartLine;
+    }
+
+    // Next record, or null at end of input
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordStartLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordStartLine);
+                }
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = peek;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int peek = read();
+                    if (peek != '\n') {
+                        pushedBack = peek;
+                    }
+                }
+                fields.add(field.toString().trim());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,60 @@
+package edu.zia.international.school.service.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/*
+* RFC 4180 counterpart of CsvRowReader: fields containing a comma, quote or line break are quoted,
+* quotes doubled, records end with CRLF.
+* Text starting with = + - @ (or a tab / carriage return) is prefixed with ' so spreadsheets show it instead of
+* evaluating it as a formula; numbers are written as they are.
+* */
+class CsvRowWriter {
+
+    private final Writer writer;
+
+    CsvRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void write(List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object field = fields.get(i);
+            if (field instanceof Number) {
+                writeField(field.toString());
+            } else if (field != null) {
+                writeField(neutralizeFormula(field.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        return switch (value.charAt(0)) {
+            case '=', '+', '-', '@', '\t', '\r' -> "'" + value;
+            default -> value;
+        };
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
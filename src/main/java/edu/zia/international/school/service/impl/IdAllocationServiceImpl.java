@@ -0,0 +1,109 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.IdAllocationProperties;
+import edu.zia.international.school.entity.StudentSerial;
+import edu.zia.international.school.entity.TeacherSerial;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.repository.StudentSerialRepository;
+import edu.zia.international.school.repository.TeacherSerialRepository;
+import edu.zia.international.school.service.IdAllocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/*
+* Student and employee IDs from per-node serial blocks (see BlockIdAllocator).
+* Blocks are reserved in their own transaction, so the row lock on student_serial / teacher_serial is held
+* for one short update per block instead of for the whole create-student / create-teacher transaction.
+* Callers allocate before opening theirs: the refill then runs on the only connection the thread holds,
+* and threads waiting on the refill hold none, so a busy pool can't deadlock on it.
+* */
+@Service
+@Slf4j
+public class IdAllocationServiceImpl implements IdAllocationService {
+
+    private final StudentSerialRepository studentSerialRepository;
+    private final TeacherSerialRepository teacherSerialRepository;
+    private static final int MAX_STUDENT_SERIAL = 9999;
+    private static final int MAX_EMPLOYEE_SERIAL = 999;
+
+    private final TransactionTemplate transactionTemplate;
+    private final BlockIdAllocator studentSerials;
+    private final BlockIdAllocator teacherSerials;
+
+    public IdAllocationServiceImpl(StudentSerialRepository studentSerialRepository,
+                                   TeacherSerialRepository teacherSerialRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   IdAllocationProperties properties) {
+        this.studentSerialRepository = studentSerialRepository;
+        this.teacherSerialRepository = teacherSerialRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.studentSerials = new BlockIdAllocator(this::reserveStudentBlock, properties.getStudentBlockSize());
+        this.teacherSerials = new BlockIdAllocator(this::reserveTeacherBlock, properties.getTeacherBlockSize());
+    }
+
+    @Override
+    public String nextStudentId(int admissionYear) {
+        requireNoTransaction();
+        int serial = studentSerials.next(admissionYear);
+        if (serial > MAX_STUDENT_SERIAL) {
+            throw new AppRuntimeException(HttpStatus.CONFLICT,
+                    "Student IDs for " + admissionYear + " are exhausted (STD" + admissionYear + MAX_STUDENT_SERIAL + " reached)");
+        }
+        return String.format("STD%d%04d", admissionYear, serial);
+    }
+
+    @Override
+    public String nextEmpId(int year) {
+        requireNoTransaction();
+        int serial = teacherSerials.next(year);
+        if (serial > MAX_EMPLOYEE_SERIAL) {
+            throw new AppRuntimeException(HttpStatus.CONFLICT,
+                    "Employee IDs for " + year + " are exhausted (ZIA" + year + MAX_EMPLOYEE_SERIAL + " reached)");
+        }
+        return String.format("ZIA%d%03d", year, serial);
+    }
+
+    private static void requireNoTransaction() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("IDs must be allocated before the caller's transaction starts");
+        }
+    }
+
+    private int reserveStudentBlock(int year, int blockSize) {
+        return retryOnCreateRace(() -> transactionTemplate.execute(status -> {
+            StudentSerial serial = studentSerialRepository.findByYear(year)
+                    .orElseGet(() -> studentSerialRepository.saveAndFlush(StudentSerial.builder().year(year).lastSerial(0).build()));
+            int first = serial.getLastSerial() + 1;
+            serial.setLastSerial(serial.getLastSerial() + blockSize);
+            log.debug("IdAllocationService | Reserved student serials {}-{} for {}", first, serial.getLastSerial(), year);
+            return first;
+        }));
+    }
+
+    private int reserveTeacherBlock(int year, int blockSize) {
+        return retryOnCreateRace(() -> transactionTemplate.execute(status -> {
+            TeacherSerial serial = teacherSerialRepository.findByYear(year)
+                    .orElseGet(() -> teacherSerialRepository.saveAndFlush(new TeacherSerial(year, 0)));
+            int first = serial.getLastSerial() + 1;
+            serial.setLastSerial(serial.getLastSerial() + blockSize);
+            log.debug("IdAllocationService | Reserved employee serials {}-{} for {}", first, serial.getLastSerial(), year);
+            return first;
+        }));
+    }
+
+    // Two nodes may both try to create the first row of a year; the loser retries and finds the winner's row
+    private static int retryOnCreateRace(Supplier<Integer> reservation) {
+        try {
+            return reservation.get();
+        } catch (DataIntegrityViolationException e) {
+            return reservation.get();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.PaginationProperties;
+import edu.zia.international.school.dto.CursorPage;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.repository.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+* Shared keyset paging for the list endpoints; sortKeys maps each allowed sort field to its value getter
+* on the fetched row, which is a read-only projection rather than a managed entity.
+* */
+final class KeysetPages {
+
+    private KeysetPages() {
+    }
+
+    @FunctionalInterface
+    interface RowSource<E, W> {
+        List<W> find(Specification<E> where, Sort sort, int limit);
+    }
+
+    static <E, W, R> CursorPage<R> fetch(RowSource<E, W> rowSource,
+                                         Map<String, Function<W, String>> sortKeys,
+                                         Function<W, Long> idOf,
+                                         String cursor, Integer size, String sort, String direction,
+                                         PaginationProperties properties,
+                                         Function<List<W>, List<R>> mapper) {
+        String sortField = sort == null || sort.isBlank() ? "id" : sort;
+        if (!sortKeys.containsKey(sortField)) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST,
+                    "Unsupported sort '" + sortField + "', expected one of " + sortKeys.keySet());
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+        int pageSize = size == null || size < 1
+                ? properties.getDefaultPageSize()
+                : Math.min(size, properties.getMaxPageSize());
+
+        Specification<E> where = cursor == null || cursor.isBlank()
+                ? (root, query, cb) -> cb.conjunction()
+                : KeysetCursor.decode(cursor, sortField, sortDirection).after();
+
+        // One extra row tells whether another page exists without a count query
+        List<W> rows = rowSource.find(where, KeysetCursor.sort(sortField, sortDirection), pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<W> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            W last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(sortField, sortDirection, sortKeys.get(sortField).apply(last), idOf.apply(last)).encode();
+        }
+        return new CursorPage<>(mapper.apply(page), nextCursor, hasMore);
+    }
+}
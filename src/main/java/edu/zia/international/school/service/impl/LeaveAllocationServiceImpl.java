@@ -23,6 +23,7 @@ public class LeaveAllocationServiceImpl implements LeaveAllocationService {
     private final LeaveAllocationRepository leaveAllocationRepository;
 
     private final TeacherRepository teacherRepository;
+    private final LeaveAllocationMapper leaveAllocationMapper;
 
 
     @Override
@@ -70,7 +71,7 @@ public class LeaveAllocationServiceImpl implements LeaveAllocationService {
 
 
                 LeaveAllocation saved = leaveAllocationRepository.save(allocation);
-                responseList.add(LeaveAllocationMapper.toResponse(saved));
+                responseList.add(leaveAllocationMapper.toResponse(saved));
 
             } catch (ResourceNotFoundException ex) {
                 log.warn("Skipping leave allocation for empId={}: {}", empId, ex.getMessage());
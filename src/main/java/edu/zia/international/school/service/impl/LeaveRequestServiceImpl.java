@@ -7,6 +7,7 @@ import edu.zia.international.school.entity.Teacher;
 import edu.zia.international.school.enums.LeaveStatus;
 import edu.zia.international.school.exception.InvalidRequestException;
 import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.mapper.LeaveAllocationMapper;
 import edu.zia.international.school.mapper.LeaveRequestMapper;
 import edu.zia.international.school.repository.LeaveAllocationRepository;
 import edu.zia.international.school.repository.LeaveRequestRepository;
@@ -33,6 +34,7 @@ public class LeaveRequestServiceImpl implements LeaveRequestService {
     private final LeaveRequestRepository leaveRequestRepository;
     private final LeaveAllocationRepository leaveAllocationRepository;
     private final LeaveRequestMapper leaveRequestMapper;
+    private final LeaveAllocationMapper leaveAllocationMapper;
 
     private final TeacherRepository teacherRepository;
 
@@ -201,18 +203,7 @@ public class LeaveRequestServiceImpl implements LeaveRequestService {
         log.info("Found {} leave allocations for teacher {}", allocations.size(), teacher.getEmpId());
 
         List<LeaveEntitlementResponse> responses = allocations.stream()
-                .map(a -> {
-                    int usedLeaves = a.getTotalAllocatedLeaves() - a.getRemainingLeaves();
-                    log.debug("LeaveType: {}, Total: {}, Used: {}, Remaining: {}",
-                            a.getLeaveType(), a.getTotalAllocatedLeaves(), usedLeaves, a.getRemainingLeaves());
-
-                    return LeaveEntitlementResponse.builder()
-                            .leaveType(a.getLeaveType())
-                            .totalAllocated(a.getTotalAllocatedLeaves())
-                            .usedLeaves(usedLeaves)
-                            .remainingLeaves(a.getRemainingLeaves())
-                            .build();
-                })
+                .map(leaveAllocationMapper::toEntitlement)
                 .collect(Collectors.toList());
 
         log.info("Returning {} leave entitlement records", responses.size());
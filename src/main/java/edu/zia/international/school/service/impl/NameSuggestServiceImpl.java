@@ -0,0 +1,104 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.dto.search.NameIndexEntry;
+import edu.zia.international.school.dto.search.SearchSuggestion;
+import edu.zia.international.school.enums.PersonType;
+import edu.zia.international.school.repository.StudentRepository;
+import edu.zia.international.school.repository.TeacherRepository;
+import edu.zia.international.school.service.NameIndexChangedEvent;
+import edu.zia.international.school.service.NameSuggestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+* Type-ahead over student and teacher names, IDs and usernames, served from per-type TrigramIndexes.
+* Kept current from NameIndexChangedEvents published by the student/teacher services on this node, and rebuilt
+* from the database at startup and periodically to pick up changes made on other nodes. A rebuild fills fresh
+* indexes and swaps them in, so lookups never see a half-loaded index.
+* */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NameSuggestServiceImpl implements NameSuggestService {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+
+    // Replaced as a whole by a rebuild; events update whichever snapshot is current
+    private record Snapshot(Map<PersonType, TrigramIndex<String>> indexes,
+                            Map<PersonType, Map<String, NameIndexEntry>> entries) {
+        Snapshot() {
+            this(new EnumMap<>(Map.of(PersonType.STUDENT, new TrigramIndex<>(), PersonType.TEACHER, new TrigramIndex<>())),
+                    new EnumMap<>(Map.of(PersonType.STUDENT, new ConcurrentHashMap<>(), PersonType.TEACHER, new ConcurrentHashMap<>())));
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:300000}",
+            initialDelayString = "${app.search.refresh-interval-ms:300000}")
+    public void loadIndex() {
+        long start = System.currentTimeMillis();
+        Snapshot rebuilt = new Snapshot();
+        studentRepository.findAllNameIndexEntries().forEach(entry -> put(rebuilt, PersonType.STUDENT, entry));
+        teacherRepository.findAllNameIndexEntries().forEach(entry -> put(rebuilt, PersonType.TEACHER, entry));
+        snapshot = rebuilt;
+        log.debug("NameSuggestService | Indexed {} students and {} teachers in {} ms",
+                rebuilt.indexes().get(PersonType.STUDENT).size(), rebuilt.indexes().get(PersonType.TEACHER).size(),
+                System.currentTimeMillis() - start);
+    }
+
+    // fallbackExecution: also applied when the change was made outside a transaction
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNameIndexChanged(NameIndexChangedEvent event) {
+        Snapshot current = snapshot;
+        if (event.entry() == null) {
+            current.indexes().get(event.type()).remove(event.code());
+            current.entries().get(event.type()).remove(event.code());
+        } else {
+            put(current, event.type(), event.entry());
+        }
+    }
+
+    @Override
+    public List<SearchSuggestion> suggest(String query, PersonType type, Integer limit) {
+        int topK = limit == null || limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Collection<PersonType> types = type == null ? List.of(PersonType.values()) : List.of(type);
+
+        Snapshot current = snapshot;
+        List<SearchSuggestion> suggestions = new ArrayList<>();
+        for (PersonType personType : types) {
+            for (TrigramIndex.Hit<String> hit : current.indexes().get(personType).search(query, topK)) {
+                NameIndexEntry entry = current.entries().get(personType).get(hit.key());
+                if (entry != null) {
+                    suggestions.add(new SearchSuggestion(personType, entry.code(), entry.name(), entry.username(), hit.score()));
+                }
+            }
+        }
+        if (types.size() > 1) {
+            suggestions.sort(Comparator.comparingDouble(SearchSuggestion::score).reversed());
+        }
+        return suggestions.size() > topK ? suggestions.subList(0, topK) : suggestions;
+    }
+
+    private static void put(Snapshot target, PersonType type, NameIndexEntry entry) {
+        if (entry.code() == null) {
+            return;
+        }
+        target.entries().get(type).put(entry.code(), entry);
+        target.indexes().get(type).put(entry.code(), entry.name(), entry.code(), entry.username());
+    }
+}
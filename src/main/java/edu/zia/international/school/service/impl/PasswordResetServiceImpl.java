@@ -0,0 +1,118 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.AppProperties;
+import edu.zia.international.school.config.PasswordResetProperties;
+import edu.zia.international.school.entity.PasswordResetToken;
+import edu.zia.international.school.entity.User;
+import edu.zia.international.school.repository.PasswordResetTokenRepository;
+import edu.zia.international.school.repository.UserRepository;
+import edu.zia.international.school.security.TokenDigests;
+import edu.zia.international.school.security.TokenVersionCache;
+import edu.zia.international.school.service.EmailService;
+import edu.zia.international.school.service.PasswordResetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordResetServiceImpl implements PasswordResetService {
+
+    private static final int TOKEN_RANDOM_BYTES = 32;
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final EmailService emailService;
+    private final TokenVersionCache tokenVersionCache;
+    private final AppProperties appProperties;
+    private final PasswordResetProperties passwordResetProperties;
+
+    @Override
+    @Transactional
+    public boolean sendResetLink(String email) {
+        Optional<User> optionalUser = userRepository.findByEmail(email);
+        if (optionalUser.isEmpty()) {
+            log.warn("Email not found: {}", email);
+            return false;
+        }
+
+        User user = optionalUser.get();
+
+        // Only the latest link stays valid
+        passwordResetTokenRepository.deleteByUserId(user.getId());
+
+        String token = TokenDigests.randomToken(TOKEN_RANDOM_BYTES);
+        LocalDateTime now = LocalDateTime.now();
+        passwordResetTokenRepository.save(PasswordResetToken.builder()
+                .tokenHash(TokenDigests.sha256Hex(token))
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(passwordResetProperties.getTokenTtlMinutes()))
+                .build());
+
+        String resetLink = appProperties.getResetBaseUrl() + "?token=" + token;
+        String emailBody = String.format("""
+            Dear %s,
+            
+            Click the link to reset your password:
+            %s
+
+            This link expires in %d minutes.
+            """, user.getName(), resetLink, passwordResetProperties.getTokenTtlMinutes());
+
+        emailService.sendEmail(user.getEmail(), "Password Reset Request", emailBody);
+        log.info("Password reset link sent to {}", user.getEmail());
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean resetPassword(String token, String newPassword) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+
+        // Unique-index lookup on the token digest, independent of how many users exist
+        Optional<PasswordResetToken> resetToken = passwordResetTokenRepository.findByTokenHash(TokenDigests.sha256Hex(token));
+        if (resetToken.isEmpty() || resetToken.get().getExpiresAt().isBefore(LocalDateTime.now())) {
+            log.warn("Invalid or expired password reset token");
+            return false;
+        }
+
+        User user = resetToken.get().getUser();
+        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPasswordReset(true);
+        tokenVersionCache.bump(user);
+        userRepository.save(user);
+        passwordResetTokenRepository.deleteByUserId(user.getId());
+        tokenVersionCache.evict(user.getUsername());
+
+        log.info("Password successfully reset for user: {}", user.getUsername());
+        return true;
+    }
+
+    // Deletes expired tokens in bounded chunks so the sweep never holds a long lock on the table
+    @Scheduled(fixedDelayString = "${app.password-reset.sweep-interval-ms:300000}")
+    public void purgeExpiredTokens() {
+        int batchSize = passwordResetProperties.getSweepBatchSize();
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = passwordResetTokenRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired password reset tokens", total);
+        }
+    }
+}
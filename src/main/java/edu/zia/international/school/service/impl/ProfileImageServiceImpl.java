@@ -0,0 +1,324 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.ProfileImageProperties;
+import edu.zia.international.school.enums.PersonType;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.exception.ServiceUnavailableException;
+import edu.zia.international.school.repository.StudentRepository;
+import edu.zia.international.school.repository.TeacherRepository;
+import edu.zia.international.school.service.ProfileImageService;
+import edu.zia.international.school.service.ProfileImageStagedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/*
+* Profile photo pipeline: the request only streams the upload to a staged file (hashing it on the way),
+* then a small worker pool decodes it once, writes a thumbnail and a medium JPEG, and points the profile at them.
+* Variants live at uploads/profiles/<first 2 hex>/<sha256>-<edge>.jpg: the same photo always maps to the same names,
+* so re-uploads skip the resize and the files can be cached as immutable.
+* At most threads + queue-capacity uploads are in flight; beyond that the upload is refused with 503 rather than
+* decoded on the request thread. Staged files are named <type>.<code>.<n>.part until the upload commits and
+* .pending after; pending ones are resumed at startup, the newest per profile winning, and .part ones are deleted.
+* */
+@Service
+@Slf4j
+public class ProfileImageServiceImpl implements ProfileImageService, DisposableBean {
+
+    static final String PROFILE_DIR = "profiles";
+    private static final String PART = ".part";
+    private static final String PENDING = ".pending";
+    private static final int RETRY_AFTER_SECONDS = 10;
+
+    private final Path uploadsRoot;
+    private final Path stagingDir;
+    private final ProfileImageProperties properties;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    // One permit per upload between staging and the end of its resize; sized so the executor never rejects
+    private final Semaphore slots;
+
+    // Newest upload per profile, so a slow resize can't overwrite a newer photo that finished first
+    private final Map<String, String> latestUpload = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProfileImageServiceImpl(ProfileImageProperties properties,
+                                   StudentRepository studentRepository,
+                                   TeacherRepository teacherRepository,
+                                   ApplicationEventPublisher eventPublisher) {
+        this(properties, studentRepository, teacherRepository, eventPublisher, Paths.get("uploads"));
+    }
+
+    ProfileImageServiceImpl(ProfileImageProperties properties,
+                            StudentRepository studentRepository,
+                            TeacherRepository teacherRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            Path uploadsRoot) {
+        this.properties = properties;
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+        this.eventPublisher = eventPublisher;
+        this.uploadsRoot = uploadsRoot;
+        this.stagingDir = Paths.get(properties.getStagingDir());
+        this.slots = new Semaphore(properties.getThreads() + properties.getQueueCapacity());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "profile-image-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void submit(PersonType type, String code, MultipartFile imageFile) {
+        if (!slots.tryAcquire()) {
+            log.warn("ProfileImageService | Refusing photo for {} {}: {} uploads already in flight",
+                    type, code, properties.getThreads() + properties.getQueueCapacity());
+            throw new ServiceUnavailableException("Too many profile photos are being processed, try again shortly",
+                    RETRY_AFTER_SECONDS);
+        }
+        Path staged = null;
+        try {
+            Files.createDirectories(stagingDir);
+            staged = Files.createTempFile(stagingDir, type + "." + code + ".", PART);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(imageFile.getInputStream(), digest)) {
+                Files.copy(in, staged, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (!ImageVariants.isReadable(staged)) {
+                throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Unsupported image format");
+            }
+
+            String sourceHash = HexFormat.of().formatHex(digest.digest());
+            latestUpload.put(key(type, code), sourceHash);
+            eventPublisher.publishEvent(new ProfileImageStagedEvent(type, code, staged, sourceHash));
+            log.info("ProfileImageService | Queued {} {} photo {}", type, code, sourceHash);
+
+        } catch (IOException e) {
+            discardStaged(staged);
+            log.error("ProfileImageService | Failed to stage photo for {} {}", type, code, e);
+            throw new RuntimeException("Failed to upload image", e);
+        } catch (NoSuchAlgorithmException e) {
+            discardStaged(staged);
+            throw new IllegalStateException("SHA-256 not available", e);
+        } catch (RuntimeException e) {
+            discardStaged(staged);
+            throw e;
+        }
+    }
+
+    // After commit, so a rolled-back upload never gets resized
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStaged(ProfileImageStagedEvent event) {
+        Path pending = event.stagedFile().resolveSibling(
+                event.stagedFile().getFileName().toString().replace(PART, PENDING));
+        try {
+            Files.move(event.stagedFile(), pending, StandardCopyOption.ATOMIC_MOVE);
+            // Commit order decides which upload a restart resumes
+            Files.setLastModifiedTime(pending, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            latestUpload.remove(key(event.type(), event.code()), event.sourceHash());
+            discardStaged(event.stagedFile());
+            log.error("ProfileImageService | Could not mark photo {} as pending", event.sourceHash(), e);
+            return;
+        }
+        enqueue(new ProfileImageStagedEvent(event.type(), event.code(), pending, event.sourceHash()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onDiscarded(ProfileImageStagedEvent event) {
+        latestUpload.remove(key(event.type(), event.code()), event.sourceHash());
+        discardStaged(event.stagedFile());
+    }
+
+    // Uploads committed before a restart; their slots are taken here rather than in submit
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() throws IOException {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Map<String, Path> newest = new HashMap<>();
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            for (Path file : files.sorted(Comparator.comparing(ProfileImageServiceImpl::lastModified)).toList()) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(PENDING)) {
+                    // Staged by an upload that never committed
+                    deleteQuietly(file);
+                    continue;
+                }
+                Path superseded = newest.put(name.substring(0, name.lastIndexOf('.', name.length() - PENDING.length() - 1)), file);
+                deleteQuietly(superseded);
+            }
+        }
+
+        for (Map.Entry<String, Path> entry : newest.entrySet()) {
+            String typeAndCode = entry.getKey();
+            int dot = typeAndCode.indexOf('.');
+            PersonType type = PersonType.valueOf(typeAndCode.substring(0, dot));
+            String code = typeAndCode.substring(dot + 1);
+            if (!slots.tryAcquire()) {
+                log.warn("ProfileImageService | Leaving {} for the next start: all slots taken", entry.getValue());
+                continue;
+            }
+            String sourceHash = sha256(entry.getValue());
+            latestUpload.put(key(type, code), sourceHash);
+            enqueue(new ProfileImageStagedEvent(type, code, entry.getValue(), sourceHash));
+        }
+        log.info("ProfileImageService | Resumed {} pending photos", newest.size());
+    }
+
+    private void enqueue(ProfileImageStagedEvent event) {
+        try {
+            executor.execute(() -> {
+                try {
+                    process(event);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Only while shutting down: the pending file stays and is resumed on the next start
+            slots.release();
+            log.warn("ProfileImageService | Not resizing {} now, executor is shut down", event.sourceHash());
+        }
+    }
+
+    void process(ProfileImageStagedEvent event) {
+        String key = key(event.type(), event.code());
+        try {
+            String hash = event.sourceHash();
+            Path dir = uploadsRoot.resolve(PROFILE_DIR).resolve(hash.substring(0, 2));
+            String thumbnailName = hash + "-" + properties.getThumbnailSize() + ".jpg";
+            String mediumName = hash + "-" + properties.getMediumSize() + ".jpg";
+
+            if (!Files.exists(dir.resolve(thumbnailName)) || !Files.exists(dir.resolve(mediumName))) {
+                long start = System.nanoTime();
+                BufferedImage source = ImageVariants.read(event.stagedFile(), properties.getMaxSourcePixels());
+                Files.createDirectories(dir);
+                writeVariant(source, properties.getMediumSize(), dir.resolve(mediumName));
+                writeVariant(source, properties.getThumbnailSize(), dir.resolve(thumbnailName));
+                log.debug("ProfileImageService | Resized {} ({}x{}) in {}ms", hash,
+                        source.getWidth(), source.getHeight(), (System.nanoTime() - start) / 1_000_000);
+            }
+
+            if (!hash.equals(latestUpload.get(key))) {
+                log.info("ProfileImageService | Skipping {} for {}: a newer photo was uploaded", hash, key);
+                return;
+            }
+            String prefix = PROFILE_DIR + "/" + hash.substring(0, 2) + "/";
+            int updated = switch (event.type()) {
+                case STUDENT -> studentRepository.updateProfileImage(event.code(), prefix + mediumName, prefix + thumbnailName);
+                case TEACHER -> teacherRepository.updateProfileImage(event.code(), prefix + mediumName, prefix + thumbnailName);
+            };
+            latestUpload.remove(key, hash);
+            log.info("ProfileImageService | {} now uses photo {} ({} row updated)", key, hash, updated);
+
+        } catch (Exception e) {
+            latestUpload.remove(key, event.sourceHash());
+            log.error("ProfileImageService | Failed to process photo {} for {}", event.sourceHash(), key, e);
+        } finally {
+            deleteQuietly(event.stagedFile());
+        }
+    }
+
+    // Written to a temp name and moved into place, so a reader never sees a half-written variant
+    private void writeVariant(BufferedImage source, int maxEdge, Path target) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                ImageVariants.writeJpeg(ImageVariants.scaleToFit(source, maxEdge), properties.getJpegQuality(), out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteQuietly(tmp);
+        }
+    }
+
+    private void discardStaged(Path staged) {
+        deleteQuietly(staged);
+        slots.release();
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            in.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String key(PersonType type, String code) {
+        return type + ":" + code;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("ProfileImageService | Could not delete {}", path, e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
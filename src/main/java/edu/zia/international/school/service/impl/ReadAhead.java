@@ -0,0 +1,107 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.storage.StoredFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/*
+* Reads a list of sources, one after another, on a background thread while the caller writes the previous bytes out,
+* so disk/S3 latency overlaps with compression and the network.
+* Memory is bounded by `depth` buffers of `chunkSize` bytes, allocated once and recycled; when the caller falls behind
+* the reader blocks instead of buffering more.
+* */
+final class ReadAhead implements AutoCloseable {
+
+    // data == null marks the end of a source (length 0) or a read failure (length -1, see failure)
+    private record Chunk(byte[] data, int length) {}
+
+    private static final Chunk END_OF_SOURCE = new Chunk(null, 0);
+    private static final Chunk FAILED = new Chunk(null, -1);
+
+    private final BlockingQueue<byte[]> free;
+    private final BlockingQueue<Chunk> filled;
+    private final Future<?> reader;
+    private volatile IOException failure;
+
+    ReadAhead(List<StoredFile.Opener> sources, int chunkSize, int depth, ExecutorService executor) {
+        this.free = new ArrayBlockingQueue<>(depth);
+        this.filled = new ArrayBlockingQueue<>(depth + 1);
+        for (int i = 0; i < depth; i++) {
+            free.add(new byte[chunkSize]);
+        }
+        this.reader = executor.submit(() -> readAll(sources));
+    }
+
+    // Writes the next source, in order, to out
+    void copyNext(OutputStream out) throws IOException {
+        try {
+            while (true) {
+                Chunk chunk = filled.take();
+                if (chunk == END_OF_SOURCE) {
+                    return;
+                }
+                if (chunk == FAILED) {
+                    throw failure;
+                }
+                out.write(chunk.data(), 0, chunk.length());
+                free.put(chunk.data());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for read-ahead");
+        }
+    }
+
+    private void readAll(List<StoredFile.Opener> sources) {
+        try {
+            for (StoredFile.Opener source : sources) {
+                try (InputStream in = source.open()) {
+                    while (true) {
+                        byte[] buffer = free.take();
+                        int length = in.readNBytes(buffer, 0, buffer.length);
+                        if (length == 0) {
+                            free.put(buffer);
+                            break;
+                        }
+                        filled.put(new Chunk(buffer, length));
+                        if (length < buffer.length) {
+                            break;
+                        }
+                    }
+                }
+                filled.put(END_OF_SOURCE);
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            // e.g. an S3 client error; the writer must still be woken up
+            fail(new IOException("Failed to read archive source", e));
+        } catch (InterruptedException e) {
+            // close() while the writer was gone; nothing is waiting for us
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(IOException e) {
+        failure = e;
+        try {
+            filled.put(FAILED);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stops the reader if the download ended early (client went away, write failed)
+    @Override
+    public void close() {
+        reader.cancel(true);
+    }
+}
@@ -0,0 +1,188 @@
+package edu.zia.international.school.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import edu.zia.international.school.config.ExportProperties;
+import edu.zia.international.school.dto.student.StudentListRow;
+import edu.zia.international.school.dto.student.StudentResponse;
+import edu.zia.international.school.dto.teacher.TeacherListRow;
+import edu.zia.international.school.dto.teacher.TeacherResponse;
+import edu.zia.international.school.enums.ExportFormat;
+import edu.zia.international.school.mapper.StudentMapper;
+import edu.zia.international.school.mapper.TeacherMapper;
+import edu.zia.international.school.repository.StudentRepository;
+import edu.zia.international.school.repository.TeacherRepository;
+import edu.zia.international.school.service.RegistryExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/*
+* Streams the registry straight from a forward-only result set to the response: rows are read fetchSize at a time
+* as read-only projections (never managed entities, so the persistence context stays empty), mapped and written
+* one by one. Heap use is the same for 1k or 1M rows.
+* */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RegistryExportServiceImpl implements RegistryExportService {
+
+    private static final List<Column<StudentResponse>> STUDENT_COLUMNS = List.of(
+            new Column<>("studentId", StudentResponse::getStudentId),
+            new Column<>("firstName", StudentResponse::getFirstName),
+            new Column<>("lastName", StudentResponse::getLastName),
+            new Column<>("username", StudentResponse::getUsername),
+            new Column<>("email", StudentResponse::getEmail),
+            new Column<>("phone", StudentResponse::getPhone),
+            new Column<>("gender", StudentResponse::getGender),
+            new Column<>("dateOfBirth", StudentResponse::getDateOfBirth),
+            new Column<>("gradeName", StudentResponse::getGradeName),
+            new Column<>("sectionName", StudentResponse::getSectionName),
+            new Column<>("status", StudentResponse::getStatus),
+            new Column<>("admissionDate", StudentResponse::getAdmissionDate),
+            new Column<>("guardianName", StudentResponse::getGuardianName),
+            new Column<>("guardianPhone", StudentResponse::getGuardianPhone),
+            new Column<>("address", StudentResponse::getAddress),
+            new Column<>("emergencyContactName", StudentResponse::getEmergencyContactName),
+            new Column<>("emergencyContactPhone", StudentResponse::getEmergencyContactPhone),
+            new Column<>("bloodGroup", StudentResponse::getBloodGroup),
+            new Column<>("nationality", StudentResponse::getNationality)
+    );
+
+    private static final List<Column<TeacherResponse>> TEACHER_COLUMNS = List.of(
+            new Column<>("empId", TeacherResponse::getEmpId),
+            new Column<>("fullName", TeacherResponse::getFullName),
+            new Column<>("username", TeacherResponse::getUsername),
+            new Column<>("email", TeacherResponse::getEmail),
+            new Column<>("phone", TeacherResponse::getPhone),
+            new Column<>("gender", TeacherResponse::getGender),
+            new Column<>("dateOfBirth", TeacherResponse::getDateOfBirth),
+            new Column<>("teacherType", TeacherResponse::getTeacherType),
+            new Column<>("status", TeacherResponse::getStatus),
+            new Column<>("subjects", teacher -> teacher.getSubjects() == null ? null : String.join("; ", teacher.getSubjects())),
+            new Column<>("gradeName", TeacherResponse::getGradeName),
+            new Column<>("sectionName", TeacherResponse::getSectionName),
+            new Column<>("qualification", TeacherResponse::getQualification),
+            new Column<>("experienceYears", TeacherResponse::getExperienceYears),
+            new Column<>("joiningDate", TeacherResponse::getJoiningDate),
+            new Column<>("address", TeacherResponse::getAddress),
+            new Column<>("maritalStatus", TeacherResponse::getMaritalStatus),
+            new Column<>("emergencyContactInfo", TeacherResponse::getEmergencyContactInfo),
+            new Column<>("bloodGroup", TeacherResponse::getBloodGroup),
+            new Column<>("nationality", TeacherResponse::getNationality)
+    );
+
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final StudentMapper studentMapper;
+    private final TeacherMapper teacherMapper;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportStudents(ExportFormat format, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<StudentListRow> rows = studentRepository.streamListRows(null, Sort.by("id"), exportProperties.getFetchSize());
+             RowSink<StudentResponse> sink = open(format, STUDENT_COLUMNS, out)) {
+            Iterator<StudentListRow> it = rows.iterator();
+            while (it.hasNext()) {
+                sink.write(studentMapper.toResponse(it.next()));
+                written++;
+            }
+        }
+        log.info("Exported {} students as {}", written, format);
+        return written;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTeachers(ExportFormat format, OutputStream out) throws IOException {
+        long written = 0;
+        int batchSize = exportProperties.getTeacherBatchSize();
+        List<TeacherListRow> batch = new ArrayList<>(batchSize);
+        try (Stream<TeacherListRow> rows = teacherRepository.streamListRows(null, Sort.by("id"), exportProperties.getFetchSize());
+             RowSink<TeacherResponse> sink = open(format, TEACHER_COLUMNS, out)) {
+            Iterator<TeacherListRow> it = rows.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == batchSize || !it.hasNext()) {
+                    // Subjects are a collection, so they are looked up per batch instead of joined into the stream
+                    Map<Long, List<String>> subjects = teacherRepository.findSubjectNamesByTeacher(
+                            batch.stream().map(TeacherListRow::id).toList());
+                    for (TeacherListRow row : batch) {
+                        sink.write(teacherMapper.toResponse(row, subjects.getOrDefault(row.id(), List.of())));
+                    }
+                    written += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        log.info("Exported {} teachers as {}", written, format);
+        return written;
+    }
+
+    private <T> RowSink<T> open(ExportFormat format, List<Column<T>> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            CsvRowWriter csv = new CsvRowWriter(writer);
+            csv.write(columns.stream().map(Column::name).toList());
+            return new RowSink<>() {
+                @Override
+                public void write(T row) throws IOException {
+                    csv.write(columns.stream().map(column -> column.value().apply(row)).toList());
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.flush();
+                }
+            };
+        }
+
+        // NDJSON: one JSON object per line; the servlet stream is left open for the container to complete
+        SequenceWriter json = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+        return new RowSink<>() {
+            @Override
+            public void write(T row) throws IOException {
+                json.write(row);
+            }
+
+            @Override
+            public void close() throws IOException {
+                json.close();
+                writer.write('\n');
+                writer.flush();
+            }
+        };
+    }
+
+    private interface RowSink<T> extends AutoCloseable {
+        void write(T row) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+}
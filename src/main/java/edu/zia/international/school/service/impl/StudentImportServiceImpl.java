@@ -0,0 +1,371 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.StudentImportProperties;
+import edu.zia.international.school.dto.search.NameIndexEntry;
+import edu.zia.international.school.dto.student.CreateStudentRequest;
+import edu.zia.international.school.dto.student.StudentImportResponse;
+import edu.zia.international.school.dto.student.StudentImportRowError;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Role;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.enums.PersonType;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.repository.*;
+import edu.zia.international.school.service.EmailService;
+import edu.zia.international.school.service.IdAllocationService;
+import edu.zia.international.school.service.NameIndexChangedEvent;
+import edu.zia.international.school.service.StudentImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+* Bulk enrolment from a CSV file whose header row names CreateStudentRequest fields (any order, case-insensitive).
+* The file is read row by row; uniqueness is checked against email/phone/username sets loaded once, grades and
+* sections come from an in-memory map, and valid rows are written in chunks: temp passwords hashed in parallel,
+* student IDs from the block allocator, then JDBC batch inserts for users and students.
+* Each chunk is its own transaction, so a failure only affects the rows of that chunk.
+* */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentImportServiceImpl implements StudentImportService {
+
+    private static final String ROLE_NAME = "STUDENT";
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (name, username, email, password, assigned_role, role_id,
+                               created_date, updated_date, is_password_reset, token_version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, 0)
+            """;
+
+    private static final String INSERT_STUDENT_SQL = """
+            INSERT INTO students (student_id, first_name, last_name, email, phone, gender, date_of_birth,
+                                  grade_name, section_name, address, emergency_contact_name, emergency_contact_phone,
+                                  blood_group, nationality, profile_image_url, username, password, role, status,
+                                  guardian_name, guardian_phone, admission_date, grade_id, section_id, user_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final RoleRepository roleRepository;
+    private final GradeRepository gradeRepository;
+    private final SectionRepository sectionRepository;
+    private final IdAllocationService idAllocationService;
+    private final PasswordEncoder passwordEncoder;
+    private final EmailService emailService;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentImportProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public StudentImportResponse importStudents(MultipartFile file) {
+        String filename = Objects.requireNonNullElse(file.getOriginalFilename(), "");
+        if (!filename.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Only .csv files are supported for student import; save spreadsheets as CSV UTF-8");
+        }
+
+        log.info("StudentImportService | Importing students from {} ({} bytes)", filename, file.getSize());
+        long start = System.currentTimeMillis();
+
+        ImportContext context = loadContext();
+        List<StudentImportRowError> errors = new ArrayList<>();
+        int totalRows = 0;
+        int imported = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            CsvRowReader csv = new CsvRowReader(reader);
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "The import file is empty");
+            }
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+
+            List<ImportRow> chunk = new ArrayList<>(properties.getChunkSize());
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                totalRows++;
+                ImportRow row = parseRow(csv.recordLine(), header, fields, context, errors);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == properties.getChunkSize()) {
+                    imported += writeChunk(chunk, context, errors);
+                    chunk = new ArrayList<>(properties.getChunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                imported += writeChunk(chunk, context, errors);
+            }
+        } catch (IOException e) {
+            log.error("StudentImportService | Failed to read {}", filename, e);
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Could not read the import file: " + e.getMessage());
+        }
+
+        errors.sort(Comparator.comparingInt(StudentImportRowError::row));
+        log.info("StudentImportService | Imported {} of {} rows from {} in {} ms ({} failed)",
+                imported, totalRows, filename, System.currentTimeMillis() - start, errors.size());
+        return new StudentImportResponse(totalRows, imported, errors.size(), errors);
+    }
+
+    // ---------------- Parsing & validation ----------------
+
+    private ImportContext loadContext() {
+        ImportContext context = new ImportContext();
+        context.role = roleRepository.findByName(ROLE_NAME)
+                .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
+        context.emails.addAll(userRepository.findAllEmailsLowercase());
+        context.emails.addAll(studentRepository.findAllEmailsLowercase());
+        context.phones.addAll(studentRepository.findAllPhones());
+        context.usernames.addAll(userRepository.findAllUsernames());
+        gradeRepository.findAll().forEach(grade -> context.grades.put(key(grade.getName()), grade));
+        sectionRepository.findAllWithGrade().forEach(section ->
+                context.sections.put(key(section.getGrade().getName()) + '|' + key(section.getName()), section));
+        return context;
+    }
+
+    private ImportRow parseRow(int line, List<String> header, List<String> fields, ImportContext context,
+                               List<StudentImportRowError> errors) {
+        CreateStudentRequest request = new CreateStudentRequest();
+        try {
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                setField(request, header.get(i), fields.get(i));
+            }
+        } catch (DateTimeParseException e) {
+            errors.add(new StudentImportRowError(line, request.getEmail(), "admissionDate must be yyyy-MM-dd"));
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateStudentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            errors.add(new StudentImportRowError(line, request.getEmail(), message));
+            return null;
+        }
+
+        String email = key(request.getEmail());
+        if (context.emails.contains(email)) {
+            errors.add(new StudentImportRowError(line, request.getEmail(), "Email already exists."));
+            return null;
+        }
+        if (context.phones.contains(request.getPhone())) {
+            errors.add(new StudentImportRowError(line, request.getEmail(), "phone already exists."));
+            return null;
+        }
+
+        Grade grade = context.grades.get(key(request.getGradeName()));
+        if (grade == null) {
+            errors.add(new StudentImportRowError(line, request.getEmail(), "Grade not found: " + request.getGradeName()));
+            return null;
+        }
+        Section section = null;
+        if (request.getSectionName() != null && !request.getSectionName().isBlank()) {
+            section = context.sections.get(key(grade.getName()) + '|' + key(request.getSectionName()));
+            if (section == null) {
+                errors.add(new StudentImportRowError(line, request.getEmail(),
+                        "Section '" + request.getSectionName() + "' not found in grade " + request.getGradeName()));
+                return null;
+            }
+        }
+
+        // Claimed now so later rows of the same file see them as taken
+        context.emails.add(email);
+        context.phones.add(request.getPhone());
+
+        ImportRow row = new ImportRow(line, request, grade, section);
+        row.username = uniqueUsername(request.getFirstName(), request.getLastName(), context.usernames);
+        row.tempPassword = StudentServiceImpl.generateRandomPassword();
+        return row;
+    }
+
+    private static void setField(CreateStudentRequest request, String column, String value) {
+        String v = value.isEmpty() ? null : value;
+        switch (column.trim().toLowerCase(Locale.ROOT)) {
+            case "firstname" -> request.setFirstName(v);
+            case "lastname" -> request.setLastName(v);
+            case "email" -> request.setEmail(v);
+            case "phone" -> request.setPhone(v);
+            case "gender" -> request.setGender(v);
+            case "dateofbirth" -> request.setDateOfBirth(v);
+            case "gradename" -> request.setGradeName(v);
+            case "sectionname" -> request.setSectionName(v);
+            case "address" -> request.setAddress(v);
+            case "emergencycontactname" -> request.setEmergencyContactName(v);
+            case "emergencycontactphone" -> request.setEmergencyContactPhone(v);
+            case "bloodgroup" -> request.setBloodGroup(v);
+            case "nationality" -> request.setNationality(v);
+            case "profileimageurl" -> request.setProfileImageUrl(v);
+            case "guardianname" -> request.setGuardianName(v);
+            case "guardianphone" -> request.setGuardianPhone(v);
+            case "admissiondate" -> request.setAdmissionDate(v == null ? null : LocalDate.parse(v));
+            default -> { /* unknown columns are ignored */ }
+        }
+    }
+
+    private static String uniqueUsername(String firstName, String lastName, Set<String> taken) {
+        String base = (firstName.charAt(0) + lastName).toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+        Random random = new Random();
+        String username;
+        int bound = 900;
+        int attempts = 0;
+        do {
+            // Widen the suffix range once the common one is crowded
+            if (++attempts % 20 == 0) {
+                bound *= 10;
+            }
+            username = base + (random.nextInt(bound) + 100);
+        } while (!taken.add(username));
+        return username;
+    }
+
+    // ---------------- Writing ----------------
+
+    private int writeChunk(List<ImportRow> chunk, ImportContext context, List<StudentImportRowError> errors) {
+        try {
+            // Hashing happens on the bounded password pool; parallel submission keeps it busy
+            chunk.parallelStream().forEach(row -> row.encodedPassword = passwordEncoder.encode(row.tempPassword));
+
+            // Before the transaction opens (see IdAllocationService); a rolled-back chunk leaves a gap in the serials
+            chunk.forEach(row -> row.studentId = idAllocationService.nextStudentId(row.request.getAdmissionDate().getYear()));
+            transactionTemplate.executeWithoutResult(status -> {
+                insertUsers(chunk, context.role);
+                resolveUserIds(chunk);
+                insertStudents(chunk);
+                chunk.forEach(row -> emailService.sendEmail(row.request.getEmail(), StudentServiceImpl.WELCOME_SUBJECT,
+                        StudentServiceImpl.welcomeEmailBody(fullName(row.request), row.username, row.tempPassword, row.studentId)));
+            });
+            chunk.forEach(row -> eventPublisher.publishEvent(NameIndexChangedEvent.upsert(PersonType.STUDENT,
+                    new NameIndexEntry(row.studentId, fullName(row.request), row.username))));
+            log.info("StudentImportService | Wrote chunk of {} students (rows {}-{})",
+                    chunk.size(), chunk.get(0).line, chunk.get(chunk.size() - 1).line);
+            return chunk.size();
+        } catch (RuntimeException e) {
+            log.error("StudentImportService | Chunk starting at row {} rolled back", chunk.get(0).line, e);
+            String message = "Not imported, batch failed: " + Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName());
+            chunk.forEach(row -> errors.add(new StudentImportRowError(row.line, row.request.getEmail(), message)));
+            return 0;
+        }
+    }
+
+    private void insertUsers(List<ImportRow> chunk, Role role) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, chunk, chunk.size(), (ps, row) -> {
+            ps.setString(1, fullName(row.request));
+            ps.setString(2, row.username);
+            ps.setString(3, row.request.getEmail());
+            ps.setString(4, row.encodedPassword);
+            ps.setString(5, ROLE_NAME);
+            ps.setLong(6, role.getId());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+
+    private void resolveUserIds(List<ImportRow> chunk) {
+        Map<String, ImportRow> byUsername = chunk.stream()
+                .collect(Collectors.toMap(row -> row.username, row -> row));
+        namedParameterJdbcTemplate.query("SELECT id, username FROM users WHERE username IN (:usernames)",
+                Map.of("usernames", byUsername.keySet()),
+                rs -> {
+                    byUsername.get(rs.getString("username")).userId = rs.getLong("id");
+                });
+    }
+
+    private void insertStudents(List<ImportRow> chunk) {
+        jdbcTemplate.batchUpdate(INSERT_STUDENT_SQL, chunk, chunk.size(), (ps, row) -> {
+            CreateStudentRequest r = row.request;
+            ps.setString(1, row.studentId);
+            ps.setString(2, r.getFirstName());
+            ps.setString(3, r.getLastName());
+            ps.setString(4, r.getEmail());
+            ps.setString(5, r.getPhone());
+            ps.setString(6, r.getGender());
+            ps.setString(7, r.getDateOfBirth());
+            ps.setString(8, row.grade.getName());
+            ps.setString(9, row.section != null ? row.section.getName() : null);
+            ps.setString(10, r.getAddress());
+            ps.setString(11, r.getEmergencyContactName());
+            ps.setString(12, r.getEmergencyContactPhone());
+            ps.setString(13, r.getBloodGroup());
+            ps.setString(14, r.getNationality());
+            ps.setString(15, r.getProfileImageUrl());
+            ps.setString(16, row.username);
+            ps.setString(17, row.encodedPassword);
+            ps.setString(18, ROLE_NAME);
+            ps.setString(19, StudentStatus.ACTIVE.name());
+            ps.setString(20, r.getGuardianName());
+            ps.setString(21, r.getGuardianPhone());
+            ps.setDate(22, Date.valueOf(r.getAdmissionDate()));
+            ps.setLong(23, row.grade.getId());
+            ps.setObject(24, row.section != null ? row.section.getId() : null);
+            ps.setLong(25, row.userId);
+        });
+    }
+
+    private static String fullName(CreateStudentRequest request) {
+        return request.getFirstName() + " " + request.getLastName();
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ImportContext {
+        private Role role;
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        private final Set<String> usernames = new HashSet<>();
+        private final Map<String, Grade> grades = new HashMap<>();
+        private final Map<String, Section> sections = new HashMap<>();
+    }
+
+    private static final class ImportRow {
+        private final int line;
+        private final CreateStudentRequest request;
+        private final Grade grade;
+        private final Section section;
+        private String username;
+        private String tempPassword;
+        private volatile String encodedPassword;
+        private String studentId;
+        private long userId;
+
+        private ImportRow(int line, CreateStudentRequest request, Grade grade, Section section) {
+            this.line = line;
+            this.request = request;
+            this.grade = grade;
+            this.section = section;
+        }
+    }
+}
@@ -1,34 +1,45 @@
 package edu.zia.international.school.service.impl;
 
+import edu.zia.international.school.config.PaginationProperties;
+import edu.zia.international.school.dto.CursorPage;
+import edu.zia.international.school.dto.search.NameIndexEntry;
 import edu.zia.international.school.dto.student.CreateStudentRequest;
+import edu.zia.international.school.dto.student.StudentListRow;
 import edu.zia.international.school.dto.student.StudentResponse;
 import edu.zia.international.school.entity.*;
+import edu.zia.international.school.enums.PersonType;
 import edu.zia.international.school.enums.StudentStatus;
 import edu.zia.international.school.exception.ResourceNotFoundException;
 import edu.zia.international.school.mapper.StudentMapper;
 import edu.zia.international.school.repository.*;
+import edu.zia.international.school.service.EmailService;
+import edu.zia.international.school.service.IdAllocationService;
+import edu.zia.international.school.service.NameIndexChangedEvent;
+import edu.zia.international.school.service.ProfileImageService;
 import edu.zia.international.school.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,20 +49,32 @@ import java.util.stream.Collectors;
 public class StudentServiceImpl implements StudentService {
 
     private static final String ROLE_NAME = "STUDENT";
+    static final String WELCOME_SUBJECT = "Welcome to ZIA International School";
+    private static final Map<String, Function<StudentListRow, String>> STUDENT_SORT_KEYS = Map.of(
+            "id", row -> null,
+            "studentId", StudentListRow::studentId,
+            "firstName", StudentListRow::firstName,
+            "lastName", StudentListRow::lastName
+    );
 
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final GradeRepository gradeRepository;
     private final SectionRepository sectionRepository;
-    private final StudentSerialRepository studentSerialRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
-    private final JavaMailSender javaMailSender;
+    private final IdAllocationService idAllocationService;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+
+    private final EmailService emailService;
+    private final StudentMapper studentMapper;
+    private final ProfileImageService profileImageService;
     private static final Logger logger = LoggerFactory.getLogger(StudentServiceImpl.class);
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StudentResponse createStudent(CreateStudentRequest request) {
         logger.info("Creating new student: {} {} with email: {}", request.getFirstName(), request.getLastName(), request.getEmail());
 
@@ -60,6 +83,12 @@ public class StudentServiceImpl implements StudentService {
             throw new RuntimeException("Email already exists.");
         }
 
+        // 🔹 Generate studentId based on admission year, before the transaction opens (see IdAllocationService)
+        String studentId = idAllocationService.nextStudentId(request.getAdmissionDate().getYear());
+        return transactionTemplate.execute(status -> insertStudent(request, studentId));
+    }
+
+    private StudentResponse insertStudent(CreateStudentRequest request, String studentId) {
         // 🔹 Generate unique student username (first initial + lastname + random)
         String generatedUsername = generateUniqueStudentUsername(request.getFirstName(), request.getLastName());
         logger.info("Generated username for student: {}", generatedUsername);
@@ -95,9 +124,6 @@ public class StudentServiceImpl implements StudentService {
             }
         }
 
-        // 🔹 Generate studentId based on admission date & year
-        String studentId = generateStudentId(request.getAdmissionDate());
-
         // 🔹 Create Student entity
         Student student = Student.builder()
                 .studentId(studentId)
@@ -128,26 +154,38 @@ public class StudentServiceImpl implements StudentService {
                 .build();
 
         Student savedStudent = studentRepository.save(student);
+        publishNameIndexUpdate(savedStudent);
         logger.info("Student created successfully with ID: {}, username: {}, tempPassword: {}", studentId, generatedUsername, tempPassword);
 
         // 🔹 Send welcome email
         sendWelcomeEmail(student.getEmail(), student.getFirstName() + " " + student.getLastName(),
                 generatedUsername, tempPassword, studentId);
 
-        return mapToResponse(savedStudent);
+        return studentMapper.toResponse(savedStudent);
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<StudentResponse> getAllStudents() {
         logger.info("Fetching all students from DB");
-        List<Student> students = studentRepository.findAll();
+        List<StudentListRow> students = studentRepository.findListRows(null, Sort.by("id"), 0, 0);
         logger.info("Total students fetched: {}", students.size());
         return students.stream()
-                .map(this::mapToResponse)
+                .map(studentMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<StudentResponse> getStudentsPage(String cursor, Integer size, String sort, String direction) {
+        logger.info("Fetching students page (sort: {} {}, size: {})", sort, direction, size);
+        return KeysetPages.<Student, StudentListRow, StudentResponse>fetch(
+                (where, order, limit) -> studentRepository.findListRows(where, order, 0, limit),
+                STUDENT_SORT_KEYS, StudentListRow::id, cursor, size, sort, direction, paginationProperties,
+                rows -> rows.stream().map(studentMapper::toResponse).toList());
+    }
+
     @Override
     public StudentResponse getStudentById(String studentId) {
         logger.info("Fetching student with ID: {}", studentId);
@@ -157,7 +195,7 @@ public class StudentServiceImpl implements StudentService {
                     return new ResourceNotFoundException("Student not found with ID: " + studentId);
                 });
         logger.info("Student fetched successfully: {} {}", student.getFirstName(), student.getLastName());
-        return mapToResponse(student);
+        return studentMapper.toResponse(student);
     }
 
     @Override
@@ -220,9 +258,10 @@ public class StudentServiceImpl implements StudentService {
         }
 
         Student updatedStudent = studentRepository.save(student);
+        publishNameIndexUpdate(updatedStudent);
         logger.info("Student updated successfully: {} {}", updatedStudent.getFirstName(), updatedStudent.getLastName());
 
-        return mapToResponse(updatedStudent);
+        return studentMapper.toResponse(updatedStudent);
     }
 
 
@@ -246,6 +285,7 @@ public class StudentServiceImpl implements StudentService {
 
         // Delete the student
         studentRepository.delete(student);
+        eventPublisher.publishEvent(NameIndexChangedEvent.removed(PersonType.STUDENT, studentId));
         logger.info("Deleted student successfully with studentId: {}", studentId);
     }
 
@@ -265,36 +305,11 @@ public class StudentServiceImpl implements StudentService {
             throw new IllegalArgumentException("Uploaded image is empty.");
         }
 
-        try {
-            String uploadsDir = "uploads/";
-            String originalFilename = StringUtils.cleanPath(imageFile.getOriginalFilename());
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = studentId + "_profile" + fileExtension;
-
-            Path uploadPath = Paths.get(uploadsDir);
-            if (!Files.exists(uploadPath)) {
-                log.info("Creating upload directory at: {}", uploadPath.toAbsolutePath());
-                Files.createDirectories(uploadPath);
-            }
-
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            student.setProfileImageUrl(filename);
-            log.info("Image saved at: {} for studentId: {}", filePath.toAbsolutePath(), studentId);
-
-            Student updatedStudent = studentRepository.save(student);
-            log.debug("Student entity updated with image URL for studentId: {}", studentId);
+        // Resized in the background; the response still shows the previous photo until the variants are ready
+        profileImageService.submit(PersonType.STUDENT, studentId, imageFile);
+        log.info("Image queued for processing for studentId: {}", studentId);
 
-            StudentResponse response = new StudentResponse();
-            BeanUtils.copyProperties(updatedStudent, response);
-
-            return response;
-
-        } catch (IOException e) {
-            log.error("Failed to upload image for studentId: {}", studentId, e);
-            throw new RuntimeException("Failed to upload image", e);
-        }
+        return studentMapper.toResponse(student);
     }
 
     @Override
@@ -303,140 +318,59 @@ public class StudentServiceImpl implements StudentService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Student not found with username: " + username));
 
-        return mapToResponse(student);
+        return studentMapper.toResponse(student);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<StudentResponse> getStudentsByGradeAndSection(String gradeName, String sectionName) {
         logger.info("Service: Fetching students for Grade '{}' and Section '{}'", gradeName, sectionName);
 
-        List<Student> students;
-
         if (sectionName == null || sectionName.isEmpty()) {
             // Section not provided, fetch all students for the grade
-            students = studentRepository.findByGradeName(gradeName);
             logger.info("No section provided. Fetching all students for grade '{}'", gradeName);
-        } else {
-            // Section provided, fetch specific grade + section
-            students = studentRepository.findByGradeNameAndSectionName(gradeName, sectionName);
         }
-
-        List<StudentResponse> responses = students.stream().map(student -> StudentResponse.builder()
-                .id(student.getId())
-                .studentId(student.getStudentId())
-                .firstName(student.getFirstName())
-                .lastName(student.getLastName())
-                .email(student.getEmail())
-                .phone(student.getPhone())
-                .gender(student.getGender())
-                .dateOfBirth(student.getDateOfBirth().toString())
-                .gradeName(student.getGradeName())
-                .sectionName(student.getSectionName())
-                .address(student.getAddress())
-                .emergencyContactName(student.getEmergencyContactName())
-                .emergencyContactPhone(student.getEmergencyContactPhone())
-                .bloodGroup(student.getBloodGroup())
-                .nationality(student.getNationality())
-                .profileImageUrl(student.getProfileImageUrl())
-                .username(student.getUsername())
-                .status(student.getStatus().name())
-                .guardianName(student.getGuardianName())
-                .guardianPhone(student.getGuardianPhone())
-                .admissionDate(student.getAdmissionDate())
-                .build()
-        ).collect(Collectors.toList());
+        List<StudentResponse> responses = studentRepository.findListRows(
+                        StudentSpecifications.search(null, null, gradeName, sectionName, null, null), Sort.by("id"), 0, 0)
+                .stream()
+                .map(studentMapper::toResponse)
+                .collect(Collectors.toList());
 
         logger.info("Service: Total students fetched: {}", responses.size());
         return responses;
     }
 
     @Override
-    public List<StudentResponse> searchStudents(Long gradeId, Long sectionId, String gradeName, String sectionName, String studentId, String name) {
-        try {
-            List<Student> students;
-
-            // 🔹 StudentId has highest priority (unique match)
-            if (studentId != null && !studentId.isEmpty()) {
-                log.debug("Searching by studentId: {}", studentId);
-                return studentRepository.findByStudentId(studentId)
-                        .map(s -> List.of(StudentMapper.toResponse(s)))
-                        .orElse(List.of());
-            }
-
-            // 🔹 Priority: gradeId + sectionId → gradeId → sectionId → gradeName → sectionName
-            if (gradeId != null && sectionId != null) {
-                log.debug("Searching by gradeId: {} and sectionId: {}", gradeId, sectionId);
-                students = studentRepository.findByGradeIdAndSectionId(gradeId, sectionId);
-            } else if (gradeId != null) {
-                log.debug("Searching by gradeId: {}", gradeId);
-                students = studentRepository.findByGradeId(gradeId);
-            } else if (sectionId != null) {
-                log.debug("Searching by sectionId: {}", sectionId);
-                students = studentRepository.findBySectionId(sectionId);
-            } else if (gradeName != null && sectionName != null) {
-                log.debug("Searching by gradeName: {} and sectionName: {}", gradeName, sectionName);
-                students = studentRepository.findByGradeNameAndSectionName(gradeName, sectionName);
-            } else if (gradeName != null) {
-                log.debug("Searching by gradeName: {}", gradeName);
-                students = studentRepository.findByGradeName(gradeName);
-            } else if (sectionName != null) {
-                log.debug("Searching by sectionName: {}", sectionName);
-                students = studentRepository.findBySectionName(sectionName);
-            } else {
-                log.debug("Fetching all students (no grade/section filters)");
-                students = studentRepository.findAll();
-            }
-
-            // 🔹 Apply name filter if provided
-            if (name != null && !name.isEmpty()) {
-                String lowerName = name.toLowerCase();
-                students = students.stream()
-                        .filter(s -> (s.getFirstName() + " " + s.getLastName())
-                                .toLowerCase().contains(lowerName))
-                        .toList();
-            }
-
-            return students.stream()
-                    .map(StudentMapper::toResponse)
-                    .toList();
-
-        } catch (Exception e) {
-            log.error("Error while searching students", e);
-            throw new RuntimeException("Error while searching students", e);
-        }
+    @Transactional(readOnly = true)
+    public Page<StudentResponse> searchStudents(Long gradeId, Long sectionId, String gradeName, String sectionName, String studentId, String name,
+                                                int page, Integer size) {
+        int pageSize = size == null || size < 1
+                ? paginationProperties.getDefaultPageSize()
+                : Math.min(size, paginationProperties.getMaxPageSize());
+
+        // 🔹 All filters are combined into one query; the name filter uses the indexed full-name column
+        Specification<Student> where = StudentSpecifications.search(gradeId, sectionId, gradeName, sectionName, studentId, name);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize, Sort.by("lastName", "firstName", "id"));
+        List<StudentListRow> rows = studentRepository.findListRows(where, pageable.getSort(), pageable.getOffset(), pageSize);
+        // The count query only runs when this page is full or not the first one
+        Page<StudentResponse> students = PageableExecutionUtils.getPage(
+                rows.stream().map(studentMapper::toResponse).toList(), pageable, () -> studentRepository.count(where));
+
+        log.debug("Student search matched {} rows, returning page {} ({} items)",
+                students.getTotalElements(), students.getNumber(), students.getNumberOfElements());
+        return students;
     }
 
 
     // ---------------- Utility Methods ----------------
 
-    // ✅ Safe studentId generation
-    private String generateStudentId(LocalDate admissionDate) {
-        int year = admissionDate.getYear();
-
-        StudentSerial serial = studentSerialRepository.findByYear(year)
-                .orElseGet(() -> {
-                    StudentSerial newSerial = new StudentSerial();
-                    newSerial.setYear(year);
-                    newSerial.setLastSerial(0);
-                    return studentSerialRepository.save(newSerial);
-                });
-
-        int nextSerial = serial.getLastSerial() + 1;
-        serial.setLastSerial(nextSerial);
-        studentSerialRepository.save(serial);
-
-        // Format: STD20250001
-        return String.format("STD%d%04d", year, nextSerial);
-    }
-
-
     private String generateUniqueStudentUsername(String firstName, String lastName) {
         int random = new Random().nextInt(900) + 100; // 100-999
         return (firstName.charAt(0) + lastName).toLowerCase() + random;
     }
 
 
-    private String generateRandomPassword() {
+    static String generateRandomPassword() {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789@#$%";
         Random rnd = new Random();
         StringBuilder sb = new StringBuilder(8);
@@ -447,8 +381,14 @@ public class StudentServiceImpl implements StudentService {
     }
 
     private void sendWelcomeEmail(String toEmail, String fullName, String username, String tempPassword, String studentId) {
-        String subject = "Welcome to ZIA International School";
-        String body = String.format("""
+        // Queued in this transaction; delivered by the outbox dispatcher after commit
+        emailService.sendEmail(toEmail, WELCOME_SUBJECT, welcomeEmailBody(fullName, username, tempPassword, studentId));
+        logger.info("Welcome email queued for {}", toEmail);
+    }
+
+    // Shared with the bulk import so both paths send the same welcome text
+    static String welcomeEmailBody(String fullName, String username, String tempPassword, String studentId) {
+        return String.format("""
         Dear %s,
 
         Welcome to ZIA International School!
@@ -466,54 +406,15 @@ public class StudentServiceImpl implements StudentService {
         Regards,
         ZIA International School Admin
         """, fullName, username, tempPassword, studentId);
-
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(toEmail);
-            message.setSubject(subject);
-            message.setText(body);
-            javaMailSender.send(message);
-            logger.info("Welcome email sent successfully to {}", toEmail);
-        } catch (Exception e) {
-            logger.error("Failed to send welcome email to {}: {}", toEmail, e.getMessage());
-        }
     }
 
 
-    private StudentResponse mapToResponse(Student student) {
-        StudentResponse response = StudentResponse.builder()
-                .id(student.getId())
-                .studentId(student.getStudentId())
-                .username(student.getUsername())
-                .firstName(student.getFirstName())
-                .lastName(student.getLastName())
-                .email(student.getEmail())
-                .phone(student.getPhone())
-                .gender(student.getGender())
-                .dateOfBirth(student.getDateOfBirth())
-                .address(student.getAddress())
-                .emergencyContactName(student.getEmergencyContactName())
-                .emergencyContactPhone(student.getEmergencyContactPhone())
-                .bloodGroup(student.getBloodGroup())
-                .nationality(student.getNationality())
-                .profileImageUrl(student.getProfileImageUrl())
-                .guardianName(student.getGuardianName())
-                .guardianPhone(student.getGuardianPhone())
-                .admissionDate(student.getAdmissionDate())
-                .status(student.getStatus() != null ? student.getStatus().name() : null)
-                .build();
-
-        // Set grade and section names if the entities exist
-        if (student.getGrade() != null) {
-            response.setGradeName(student.getGrade().getName());
-        }
-
-        if (student.getSection() != null) {
-            response.setSectionName(student.getSection().getName());
-        }
-
-        return response;
+    // Applied to the suggest index after this transaction commits
+    private void publishNameIndexUpdate(Student student) {
+        eventPublisher.publishEvent(NameIndexChangedEvent.upsert(PersonType.STUDENT, new NameIndexEntry(
+                student.getStudentId(), student.getFirstName() + " " + student.getLastName(), student.getUsername())));
     }
 
 
+
 }
@@ -0,0 +1,211 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.SubmissionArchiveProperties;
+import edu.zia.international.school.dto.search.NameIndexEntry;
+import edu.zia.international.school.entity.AssignmentSubmission;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.exception.ServiceUnavailableException;
+import edu.zia.international.school.repository.AssignmentRepository;
+import edu.zia.international.school.repository.AssignmentSubmissionRepository;
+import edu.zia.international.school.repository.StudentRepository;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.service.SubmissionArchiveService;
+import edu.zia.international.school.storage.StoredFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+* Builds the "all submissions" ZIP while it is being downloaded: entries are written as their bytes arrive,
+* so the first byte goes out immediately and nothing larger than the read-ahead window is held in memory.
+* Layout: "<studentId> - <name>/<original filename>" plus "text-answer.txt" for typed answers; clashing names are
+* numbered. The slot is taken by reserve() before the response is committed and released when the write ends.
+* */
+@Service
+@Slf4j
+public class SubmissionArchiveServiceImpl implements SubmissionArchiveService, DisposableBean {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    // Already compressed formats: deflating them again costs CPU and saves nothing
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "gz", "7z", "rar", "jpg", "jpeg", "png", "gif", "webp", "heic",
+            "mp3", "m4a", "mp4", "mov", "mkv", "webm", "docx", "xlsx", "pptx", "odt", "ods", "odp");
+
+    private final AssignmentRepository assignmentRepository;
+    private final AssignmentSubmissionRepository submissionRepository;
+    private final StudentRepository studentRepository;
+    private final AttachmentStorageService attachmentStorageService;
+    private final SubmissionArchiveProperties properties;
+    private final Semaphore slots;
+    private final ExecutorService readers;
+
+    // One entry of the archive: either a stored file or an inline text answer
+    private record Entry(String path, StoredFile file, String text) {}
+
+    public SubmissionArchiveServiceImpl(AssignmentRepository assignmentRepository,
+                                        AssignmentSubmissionRepository submissionRepository,
+                                        StudentRepository studentRepository,
+                                        AttachmentStorageService attachmentStorageService,
+                                        SubmissionArchiveProperties properties) {
+        this.assignmentRepository = assignmentRepository;
+        this.submissionRepository = submissionRepository;
+        this.studentRepository = studentRepository;
+        this.attachmentStorageService = attachmentStorageService;
+        this.properties = properties;
+        this.slots = new Semaphore(properties.getMaxConcurrent());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.readers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "submission-archive-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Reservation reserve(Long assignmentId) {
+        if (!assignmentRepository.existsById(assignmentId)) {
+            throw new ResourceNotFoundException("Assignment not found with id: " + assignmentId);
+        }
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many submission archives are being built, try again shortly",
+                    properties.getRetryAfterSeconds());
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return new Reservation() {
+            @Override
+            public Long assignmentId() {
+                return assignmentId;
+            }
+
+            @Override
+            public void close() {
+                if (released.compareAndSet(false, true)) {
+                    slots.release();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void writeArchive(Reservation reservation, OutputStream out) throws IOException {
+        Long assignmentId = reservation.assignmentId();
+        try (reservation) {
+            long start = System.currentTimeMillis();
+            List<Entry> entries = plan(assignmentId);
+
+            List<StoredFile.Opener> sources = entries.stream()
+                    .filter(entry -> entry.file() != null)
+                    .map(entry -> entry.file().opener())
+                    .toList();
+
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE));
+            try (ReadAhead readAhead = new ReadAhead(sources, properties.getReadAheadChunkSize(),
+                    properties.getReadAheadDepth(), readers)) {
+                for (Entry entry : entries) {
+                    ZipEntry zipEntry = new ZipEntry(entry.path());
+                    if (entry.file() != null) {
+                        zip.setLevel(isCompressed(entry.path()) ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED);
+                        zipEntry.setTime(entry.file().lastModified());
+                        zip.putNextEntry(zipEntry);
+                        readAhead.copyNext(zip);
+                    } else {
+                        zip.setLevel(Deflater.BEST_SPEED);
+                        zip.putNextEntry(zipEntry);
+                        zip.write(entry.text().getBytes(StandardCharsets.UTF_8));
+                    }
+                    zip.closeEntry();
+                }
+            }
+            // finish, not close: the servlet container owns the response stream
+            zip.finish();
+            zip.flush();
+            log.info("SubmissionArchive | Streamed {} entries for assignment {} in {} ms",
+                    entries.size(), assignmentId, System.currentTimeMillis() - start);
+        }
+    }
+
+    private List<Entry> plan(Long assignmentId) {
+        List<AssignmentSubmission> submissions = submissionRepository.findByAssignmentId(assignmentId).stream()
+                .filter(s -> s.getFileUrl() != null || (s.getTextAnswer() != null && !s.getTextAnswer().isBlank()))
+                .toList();
+
+        Map<String, String> names = studentRepository.findNameIndexEntries(
+                        submissions.stream().map(AssignmentSubmission::getStudentId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(NameIndexEntry::code, NameIndexEntry::name, (a, b) -> a));
+
+        List<Entry> entries = new ArrayList<>();
+        Set<String> usedPaths = new HashSet<>();
+        for (AssignmentSubmission submission : submissions) {
+            String studentName = names.get(submission.getStudentId());
+            String folder = safeName(studentName != null
+                    ? submission.getStudentId() + " - " + studentName
+                    : submission.getStudentId());
+
+            if (submission.getFileUrl() != null) {
+                try {
+                    StoredFile file = attachmentStorageService.open(submission.getFileUrl());
+                    entries.add(new Entry(uniquePath(usedPaths, folder, safeName(file.filename())), file, null));
+                } catch (ResourceNotFoundException e) {
+                    log.warn("SubmissionArchive | Skipping missing file of student {} for assignment {}",
+                            submission.getStudentId(), assignmentId);
+                }
+            }
+            if (submission.getTextAnswer() != null && !submission.getTextAnswer().isBlank()) {
+                entries.add(new Entry(uniquePath(usedPaths, folder, "text-answer.txt"), null, submission.getTextAnswer()));
+            }
+        }
+        return entries;
+    }
+
+    // ZipOutputStream throws on a duplicate name mid-download, so clashes get " (2)", " (3)", ... before the extension.
+    // Compared case-insensitively, as Windows and macOS would overwrite those on extraction.
+    private static String uniquePath(Set<String> usedPaths, String folder, String filename) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        String extension = dot > 0 ? filename.substring(dot) : "";
+        String path = folder + "/" + filename;
+        for (int n = 2; !usedPaths.add(path.toLowerCase(Locale.ROOT)); n++) {
+            path = folder + "/" + base + " (" + n + ")" + extension;
+        }
+        return path;
+    }
+
+    private static boolean isCompressed(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    // Folder and file names safe to extract on Windows and Unix
+    static String safeName(String name) {
+        String cleaned = name.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").strip();
+        return cleaned.isEmpty() || cleaned.equals(".") || cleaned.equals("..") ? "_" : cleaned;
+    }
+
+    @Override
+    public void destroy() {
+        readers.shutdownNow();
+    }
+}
@@ -0,0 +1,337 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.SubmissionUploadProperties;
+import edu.zia.international.school.dto.assignment.StartUploadRequest;
+import edu.zia.international.school.dto.assignment.UploadSessionResponse;
+import edu.zia.international.school.entity.SubmissionUpload;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.repository.SubmissionUploadRepository;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.service.SubmissionUploadService;
+import edu.zia.international.school.storage.BlobRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/*
+* Resumable submission uploads. The client cuts the file into fixed-size chunks and PUTs each one with its SHA-256;
+* a chunk is streamed to disk (never held in memory), checked, and renamed to <index>.chunk, so a dropped connection
+* costs at most one chunk and a resuming client asks for the status and sends only what is missing.
+* Completing streams the chunks, in order, straight into the attachment store, outside any transaction.
+* Each student may have only a few sessions open at once, so abandoned ones can't fill the upload disk.
+* */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SubmissionUploadServiceImpl implements SubmissionUploadService {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+    private static final String CHUNK_SUFFIX = ".chunk";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final SubmissionUploadRepository uploadRepository;
+    private final AttachmentStorageService attachmentStorageService;
+    private final SubmissionUploadProperties properties;
+
+    @Override
+    @Transactional
+    public UploadSessionResponse start(Long assignmentId, String studentId, String username, StartUploadRequest request) {
+        if (request.getFilename() == null || request.getFilename().isBlank()) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "filename is required");
+        }
+        if (request.getSize() <= 0) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "size must be greater than 0");
+        }
+        if (request.getSize() > properties.getMaxFileSize()) {
+            throw new AppRuntimeException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "File is larger than the " + properties.getMaxFileSize() + " byte limit");
+        }
+        if (request.getSha256() != null && !SHA256_HEX.matcher(request.getSha256()).matches()) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "sha256 must be 64 hex characters");
+        }
+        if (request.getContentType() != null && !isMediaType(request.getContentType())) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "contentType is not a valid media type");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (uploadRepository.countByUsernameAndExpiresAtAfter(username, now) >= properties.getMaxOpenSessions()) {
+            throw new AppRuntimeException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many unfinished uploads; finish one or wait for it to expire");
+        }
+
+        int chunkSize = properties.getChunkSize();
+        SubmissionUpload upload = SubmissionUpload.builder()
+                .id(UUID.randomUUID().toString())
+                .assignmentId(assignmentId)
+                .studentId(studentId)
+                .username(username)
+                .filename(request.getFilename())
+                // The client's type is only a hint; the stored one, which downloads are served as, comes from the name
+                .contentType(MediaTypeFactory.getMediaType(request.getFilename())
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM).toString())
+                .sizeBytes(request.getSize())
+                .chunkSize(chunkSize)
+                .totalChunks((int) ((request.getSize() + chunkSize - 1) / chunkSize))
+                .sha256(request.getSha256() != null ? request.getSha256().toLowerCase(Locale.ROOT) : null)
+                .createdAt(now)
+                .expiresAt(now.plusHours(properties.getSessionTtlHours()))
+                .build();
+
+        try {
+            Files.createDirectories(directoryOf(upload.getId()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create upload directory", e);
+        }
+        uploadRepository.save(upload);
+        log.info("SubmissionUpload | {} started {} for assignment {} ({} bytes, {} chunks)",
+                username, upload.getId(), assignmentId, upload.getSizeBytes(), upload.getTotalChunks());
+        return toResponse(upload);
+    }
+
+    // Not @Transactional: the row is only read, and a slow client must not hold a connection while it sends
+    @Override
+    public UploadSessionResponse writeChunk(Long assignmentId, String uploadId, int index, String sha256,
+                                            InputStream content, String username) {
+        SubmissionUpload upload = findSession(assignmentId, uploadId, username);
+        if (index < 0 || index >= upload.getTotalChunks()) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST,
+                    "Chunk index must be between 0 and " + (upload.getTotalChunks() - 1));
+        }
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Chunk SHA-256 must be 64 hex characters");
+        }
+
+        long expectedLength = index == upload.getTotalChunks() - 1
+                ? upload.getSizeBytes() - (long) index * upload.getChunkSize()
+                : upload.getChunkSize();
+
+        Path dir = directoryOf(uploadId);
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(dir, "chunk-" + index + "-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long received = copyAtMost(content, tmp, expectedLength + 1, digest);
+            if (received != expectedLength) {
+                throw new AppRuntimeException(HttpStatus.BAD_REQUEST,
+                        "Chunk " + index + " must be " + expectedLength + " bytes, got " + (received > expectedLength ? "more" : received));
+            }
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (!actual.equalsIgnoreCase(sha256)) {
+                throw new AppRuntimeException(HttpStatus.BAD_REQUEST, "Chunk " + index + " checksum mismatch");
+            }
+            // Renamed only once verified, so a listed chunk is always a complete, correct one
+            Files.move(tmp, dir.resolve(index + CHUNK_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("SubmissionUpload | Chunk {} of {} failed: {}", index, uploadId, e.getMessage());
+            throw new UncheckedIOException("Failed to store chunk " + index, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            deleteQuietly(tmp);
+        }
+        return toResponse(upload);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UploadSessionResponse status(Long assignmentId, String uploadId, String username) {
+        return toResponse(findSession(assignmentId, uploadId, username));
+    }
+
+    // Not @Transactional: re-reading and hashing up to max-file-size bytes must not hold a connection
+    @Override
+    public BlobRef assemble(Long assignmentId, String uploadId, String username) {
+        SubmissionUpload upload = findSession(assignmentId, uploadId, username);
+        List<Integer> received = receivedChunks(uploadId);
+        if (received.size() != upload.getTotalChunks()) {
+            throw new AppRuntimeException(HttpStatus.CONFLICT,
+                    "Upload is incomplete: " + received.size() + " of " + upload.getTotalChunks() + " chunks received");
+        }
+
+        try (InputStream joined = new SequenceInputStream(chunkStreams(directoryOf(uploadId), upload.getTotalChunks()))) {
+            BlobRef blob = attachmentStorageService.put(upload.getFilename(), upload.getContentType(), joined, upload.getSha256());
+            log.info("SubmissionUpload | {} assembled {} as {}", username, uploadId, blob);
+            return blob;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read chunks of upload " + uploadId, e);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(Long assignmentId, String uploadId, String username) {
+        SubmissionUpload upload = findSession(assignmentId, uploadId, username);
+        uploadRepository.delete(upload);
+        Path dir = directoryOf(uploadId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteDirectory(dir);
+            }
+        });
+    }
+
+    // Expired sessions and whatever chunks they collected
+    @Scheduled(fixedDelayString = "${app.submission-upload.sweep-interval-ms:3600000}")
+    public void sweepExpiredUploads() {
+        List<SubmissionUpload> expired = uploadRepository.findByExpiresAtBefore(LocalDateTime.now(),
+                PageRequest.of(0, properties.getSweepBatchSize()));
+        for (SubmissionUpload upload : expired) {
+            deleteDirectory(directoryOf(upload.getId()));
+            uploadRepository.delete(upload);
+        }
+        if (!expired.isEmpty()) {
+            log.info("SubmissionUpload | Removed {} expired upload(s)", expired.size());
+        }
+    }
+
+    // Unknown, expired and other people's sessions all look the same to the caller
+    private SubmissionUpload findSession(Long assignmentId, String uploadId, String username) {
+        try {
+            UUID.fromString(uploadId);
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        }
+        return uploadRepository.findById(uploadId)
+                .filter(upload -> upload.getAssignmentId().equals(assignmentId))
+                .filter(upload -> upload.getUsername().equals(username))
+                .filter(upload -> upload.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + uploadId));
+    }
+
+    private UploadSessionResponse toResponse(SubmissionUpload upload) {
+        List<Integer> received = receivedChunks(upload.getId());
+        return UploadSessionResponse.builder()
+                .uploadId(upload.getId())
+                .size(upload.getSizeBytes())
+                .chunkSize(upload.getChunkSize())
+                .totalChunks(upload.getTotalChunks())
+                .receivedChunks(received)
+                .complete(received.size() == upload.getTotalChunks())
+                .expiresAt(upload.getExpiresAt())
+                .build();
+    }
+
+    private List<Integer> receivedChunks(String uploadId) {
+        Path dir = directoryOf(uploadId);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(CHUNK_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(0, name.length() - CHUNK_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list chunks of upload " + uploadId, e);
+        }
+    }
+
+    private static boolean isMediaType(String value) {
+        try {
+            MediaType.parseMediaType(value);
+            return true;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // Opens each chunk only when the previous one is exhausted, so one file handle is open at a time
+    private static Enumeration<InputStream> chunkStreams(Path dir, int totalChunks) {
+        return new Enumeration<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < totalChunks;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (next >= totalChunks) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return Files.newInputStream(dir.resolve(next++ + CHUNK_SUFFIX));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    // Copies up to limit bytes into target, hashing them; returns how many were read (limit means "too many")
+    private static long copyAtMost(InputStream in, Path target, long limit, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while (total < limit && (read = in.read(buffer, 0, (int) Math.min(buffer.length, limit - total))) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    private Path directoryOf(String uploadId) {
+        return Paths.get(properties.getDirectory()).resolve(uploadId);
+    }
+
+    private static void deleteDirectory(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(SubmissionUploadServiceImpl::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("SubmissionUpload | Could not delete {}", dir, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("SubmissionUpload | Could not delete {}", path, e);
+        }
+    }
+}
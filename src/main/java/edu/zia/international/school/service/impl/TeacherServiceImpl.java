@@ -1,29 +1,34 @@
 package edu.zia.international.school.service.impl;
 
+import edu.zia.international.school.config.PaginationProperties;
+import edu.zia.international.school.dto.CursorPage;
+import edu.zia.international.school.dto.search.NameIndexEntry;
 import edu.zia.international.school.dto.teacher.*;
 import edu.zia.international.school.entity.*;
+import edu.zia.international.school.enums.PersonType;
 import edu.zia.international.school.enums.TeacherStatus;
 import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.mapper.TeacherMapper;
 import edu.zia.international.school.repository.*;
+import edu.zia.international.school.service.EmailService;
+import edu.zia.international.school.service.IdAllocationService;
+import edu.zia.international.school.service.NameIndexChangedEvent;
+import edu.zia.international.school.service.ProfileImageService;
 import edu.zia.international.school.service.TeacherService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.Year;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,6 +38,12 @@ import java.util.stream.Collectors;
 public class TeacherServiceImpl implements TeacherService {
     private static final String ROLE_NAME = "TEACHER";
     private static final String PREFIX_EMPLOYEE_ID = "ZIA";
+    private static final Map<String, Function<TeacherListRow, String>> TEACHER_SORT_KEYS = Map.of(
+            "id", row -> null,
+            "fullName", TeacherListRow::fullName,
+            "empId", TeacherListRow::empId,
+            "username", TeacherListRow::username
+    );
 
     private final TeacherRepository teacherRepository;
     private final UserRepository userRepository;
@@ -40,12 +51,18 @@ public class TeacherServiceImpl implements TeacherService {
     private final SubjectRepository subjectRepository;
     private final GradeRepository gradeRepository;
     private final SectionRepository sectionRepository;
-    private final TeacherSerialRepository teacherSerialRepository;
+    private final IdAllocationService idAllocationService;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
     private final PasswordEncoder passwordEncoder;
-    private final JavaMailSender javaMailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
+    private final TeacherMapper teacherMapper;
+    private final ProfileImageService profileImageService;
 
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TeacherResponse createTeacher(CreateTeacherRequest request) {
         log.info("Creating new teacher {} with email: {}", request.getFullName(), request.getEmail());
 
@@ -53,6 +70,12 @@ public class TeacherServiceImpl implements TeacherService {
             throw new RuntimeException("Email already exists.");
         }
 
+        // 🔢 Generate Emp ID before the transaction opens (see IdAllocationService)
+        String empId = idAllocationService.nextEmpId(Year.now().getValue());
+        return transactionTemplate.execute(status -> insertTeacher(request, empId));
+    }
+
+    private TeacherResponse insertTeacher(CreateTeacherRequest request, String empId) {
         // ✅ Generate unique username automatically (firstname.lastname)
         String generatedUsername = generateUniqueUsername(request.getFullName());
         log.info("Generated username for teacher: {}", generatedUsername);
@@ -93,9 +116,6 @@ public class TeacherServiceImpl implements TeacherService {
             }
         }
 
-        // 🔢 Generate Emp ID
-        String empId = generateEmpId();
-
         // 🧑‍🏫 Create Teacher entity
         Teacher teacher = Teacher.builder()
                 .fullName(request.getFullName())
@@ -119,63 +139,48 @@ public class TeacherServiceImpl implements TeacherService {
                 .build();
 
         Teacher saved = teacherRepository.save(teacher);
+        publishNameIndexUpdate(saved);
         log.info("Teacher saved with ID: {}", saved.getId());
 
-        log.info("Sending welcome mail to user {} at email id {}", user.getName(), user.getEmail());
+        log.info("Queueing welcome mail to user {} at email id {}", user.getName(), user.getEmail());
         sendWelcomeEmail(request.getEmail(), request.getFullName(), generatedUsername, tempPassword, empId);
-        log.info("Welcome email sent to {}", request.getEmail());
 
 
         // 🔁 Prepare response
-        TeacherResponse response = new TeacherResponse();
-        response.setId(saved.getId());
-        response.setFullName(saved.getFullName());
-        response.setEmail(saved.getEmail());
-        response.setUsername(saved.getUsername());
-        response.setPhone(saved.getPhone());
-        response.setSubjects(subjects.stream().map(Subject::getName).toList());
-        response.setGender(saved.getGender());
-        response.setDateOfBirth(saved.getDateOfBirth());
-        response.setQualification(saved.getQualification());
-        response.setAddress(saved.getAddress());
-        response.setJoiningDate(saved.getJoiningDate());
-        response.setExperienceYears(saved.getExperienceYears());
-        response.setEmpId(saved.getEmpId());
-        response.setStatus(saved.getStatus());
-        response.setTeacherType(saved.getTeacherType());
-
-        if (grade != null) response.setGradeName(grade.getName());
-        if (section != null) response.setSectionName(section.getName());
-
-        return response;
+        return teacherMapper.toResponse(saved);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TeacherResponse> getAllTeachers() {
         log.info("Fetching all teachers...");
-        return teacherRepository.findAll().stream().map(teacher -> {
-            TeacherResponse res = new TeacherResponse();
-            BeanUtils.copyProperties(teacher, res);
-
-            // Set subject names
-            res.setSubjects(
-                    teacher.getSubjects().stream()
-                            .map(Subject::getName)
-                            .collect(Collectors.toList())
-            );
-
-            // ✅ Set grade and section if present
-            if (teacher.getGrade() != null) {
-                res.setGradeName(teacher.getGrade().getName());
-            }
-            if (teacher.getSection() != null) {
-                res.setSectionName(teacher.getSection().getName());
-            }
+        return toListResponses(teacherRepository.findListRows(null, Sort.by("id"), 0, 0));
+    }
 
-            return res;
-        }).collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TeacherResponse> getTeachersPage(String cursor, Integer size, String sort, String direction) {
+        log.info("Fetching teachers page (sort: {} {}, size: {})", sort, direction, size);
+        return KeysetPages.<Teacher, TeacherListRow, TeacherResponse>fetch(
+                (where, order, limit) -> teacherRepository.findListRows(where, order, 0, limit),
+                TEACHER_SORT_KEYS, TeacherListRow::id, cursor, size, sort, direction, paginationProperties,
+                this::toListResponses);
     }
 
+    // Applied to the suggest index after this transaction commits
+    private void publishNameIndexUpdate(Teacher teacher) {
+        eventPublisher.publishEvent(NameIndexChangedEvent.upsert(PersonType.TEACHER,
+                new NameIndexEntry(teacher.getEmpId(), teacher.getFullName(), teacher.getUsername())));
+    }
+
+    // 🔹 Rows plus their subject names, fetched with one extra query per chunk of teachers
+    private List<TeacherResponse> toListResponses(List<TeacherListRow> rows) {
+        Map<Long, List<String>> subjectsByTeacher = teacherRepository.findSubjectNamesByTeacher(
+                rows.stream().map(TeacherListRow::id).toList());
+        return rows.stream()
+                .map(row -> teacherMapper.toResponse(row, subjectsByTeacher.getOrDefault(row.id(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
 
     @Override
     public TeacherResponse getTeacherById(Long id) {
@@ -183,11 +188,7 @@ public class TeacherServiceImpl implements TeacherService {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
 
-        TeacherResponse res = new TeacherResponse();
-        BeanUtils.copyProperties(teacher, res);
-        res.setSubjects(teacher.getSubjects().stream()
-                .map(Subject::getName).collect(Collectors.toList()));
-        return res;
+        return teacherMapper.toResponse(teacher);
     }
 
     @Override
@@ -197,10 +198,8 @@ public class TeacherServiceImpl implements TeacherService {
         Teacher teacher = teacherRepository.findByEmpId(empId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher not found with Employee ID:: " + empId));
 
-        TeacherResponse res = new TeacherResponse();
-        BeanUtils.copyProperties(teacher, res);
+        TeacherResponse res = teacherMapper.toResponse(teacher);
         if(teacher.getGrade() != null){
-            res.setGradeName(teacher.getGrade().getName());
             if(Objects.nonNull(teacher.getGrade().getSections())){
                 Optional<String> sectionName = teacher.getGrade().getSections().stream().map(section -> section.getName()).findFirst();
                 res.setSectionName(sectionName.isPresent() ? sectionName.get() : null);
@@ -262,31 +261,11 @@ public class TeacherServiceImpl implements TeacherService {
         }
 
         Teacher updated = teacherRepository.save(teacher);
+        publishNameIndexUpdate(updated);
         log.info("Teacher updated with ID: {}", updated.getId());
 
         // Prepare response
-        TeacherResponse response = new TeacherResponse();
-        response.setId(updated.getId());
-        response.setFullName(updated.getFullName());
-        response.setUsername(updated.getUsername());
-        response.setEmail(updated.getEmail());
-        response.setPhone(updated.getPhone());
-        response.setGender(updated.getGender());
-        response.setDateOfBirth(updated.getDateOfBirth());
-        response.setQualification(updated.getQualification());
-        response.setAddress(updated.getAddress());
-        response.setJoiningDate(updated.getJoiningDate());
-        response.setExperienceYears(updated.getExperienceYears());
-        response.setSubjects(subjects.stream().map(Subject::getName).toList());
-
-        if (updated.getGrade() != null) {
-            response.setGradeName(updated.getGrade().getName());
-        }
-        if (updated.getSection() != null) {
-            response.setSectionName(updated.getSection().getName());
-        }
-
-        return response;
+        return teacherMapper.toResponse(updated);
     }
 
     @Override
@@ -307,6 +286,7 @@ public class TeacherServiceImpl implements TeacherService {
 
         // Delete teacher
         teacherRepository.delete(teacher);
+        eventPublisher.publishEvent(NameIndexChangedEvent.removed(PersonType.TEACHER, teacher.getEmpId()));
         log.info("Teacher and associated User deleted successfully.");
     }
 
@@ -324,6 +304,7 @@ public class TeacherServiceImpl implements TeacherService {
 
         // Then delete the teacher
         teacherRepository.delete(teacher);
+        eventPublisher.publishEvent(NameIndexChangedEvent.removed(PersonType.TEACHER, empId));
 
         log.info("Deleted teacher with empId: {}", empId);
     }
@@ -398,15 +379,10 @@ public class TeacherServiceImpl implements TeacherService {
         }
 
         Teacher updatedTeacher = teacherRepository.save(teacher);
+        publishNameIndexUpdate(updatedTeacher);
         log.info("Teacher with empId {} updated successfully", empId);
 
-        TeacherResponse res = new TeacherResponse();
-        BeanUtils.copyProperties(updatedTeacher, res);
-        res.setSubjects(updatedTeacher.getSubjects().stream().map(Subject::getName).toList());
-        res.setGradeName(gradeName);
-        res.setSectionName(sectionName);
-
-        return res;
+        return teacherMapper.toResponse(updatedTeacher);
     }
 
     private String normalizeEmptyToNull(String input) {
@@ -430,26 +406,6 @@ public class TeacherServiceImpl implements TeacherService {
         return username;
     }
 
-    @Transactional
-    public String generateEmpId() {
-        int currentYear = Year.now().getValue();
-        TeacherSerial serial = teacherSerialRepository.findByYear(currentYear)
-                .orElseGet(() -> {
-                    TeacherSerial newSerial = new TeacherSerial();
-                    newSerial.setYear(currentYear);
-                    newSerial.setLastSerial(0);
-                    return teacherSerialRepository.save(newSerial);
-                });
-
-        // increment safely
-        int nextSerial = serial.getLastSerial() + 1;
-        serial.setLastSerial(nextSerial);
-        teacherSerialRepository.save(serial);
-
-        // format: ZIA2025001
-        return String.format("ZIA%d%03d", currentYear, nextSerial);
-    }
-
     @Override
     public TeacherResponse uploadProfileImage(String empId, MultipartFile imageFile) {
         log.debug("Starting image upload process for empId: {}", empId);
@@ -465,36 +421,11 @@ public class TeacherServiceImpl implements TeacherService {
             throw new IllegalArgumentException("Uploaded image is empty.");
         }
 
-        try {
-            String uploadsDir = "uploads/";
-            String originalFilename = StringUtils.cleanPath(imageFile.getOriginalFilename());
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = empId + "_profile" + fileExtension;
-
-            Path uploadPath = Paths.get(uploadsDir);
-            if (!Files.exists(uploadPath)) {
-                log.info("Creating upload directory at: {}", uploadPath.toAbsolutePath());
-                Files.createDirectories(uploadPath);
-            }
-
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // Resized in the background; the response still shows the previous photo until the variants are ready
+        profileImageService.submit(PersonType.TEACHER, empId, imageFile);
+        log.info("Image queued for processing for empId: {}", empId);
 
-            teacher.setProfileImageUrl(filename);
-            log.info("Image saved at: {} for empId: {}", filePath.toAbsolutePath(), empId);
-
-            Teacher updatedTeacher = teacherRepository.save(teacher);
-            log.debug("Teacher entity updated with image URL for empId: {}", empId);
-
-            TeacherResponse response = new TeacherResponse();
-            BeanUtils.copyProperties(updatedTeacher, response);
-
-            return response;
-
-        } catch (IOException e) {
-            log.error("Failed to upload image for empId: {}", empId, e);
-            throw new RuntimeException("Failed to upload image", e);
-        }
+        return teacherMapper.toResponse(teacher);
     }
 
     @Override
@@ -503,11 +434,7 @@ public class TeacherServiceImpl implements TeacherService {
         Teacher teacher = teacherRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with username: " + username));
 
-        TeacherResponse res = new TeacherResponse();
-        BeanUtils.copyProperties(teacher, res);
-        res.setSubjects(teacher.getSubjects().stream()
-                .map(Subject::getName).collect(Collectors.toList()));
-        return res;
+        return teacherMapper.toResponse(teacher);
     }
 
     @Override
@@ -531,9 +458,7 @@ public class TeacherServiceImpl implements TeacherService {
         Teacher updatedTeacher = teacherRepository.save(teacher);
         log.info("Teacher with username {} updated successfully", username);
 
-        TeacherResponse res = new TeacherResponse();
-        BeanUtils.copyProperties(updatedTeacher, res);
-        return res;
+        return teacherMapper.toResponse(updatedTeacher);
     }
 
     @Override
@@ -549,58 +474,15 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TeacherResponse> searchTeachers(Long gradeId, String gradeName,
                                                 Long sectionId, String sectionName,
                                                 String name, String empId, String teacherType) {
 
-        List<Teacher> teachers;
-
-        if (gradeId != null && sectionId != null) {
-            teachers = teacherRepository.findByGradeIdAndSectionId(gradeId, sectionId);
-        } else if (gradeId != null) {
-            teachers = teacherRepository.findByGradeId(gradeId);
-        } else if (sectionId != null) {
-            teachers = teacherRepository.findBySectionId(sectionId);
-        } else if (gradeName != null && sectionName != null) {
-            teachers = teacherRepository.findByGradeNameAndSectionName(gradeName, sectionName);
-        } else if (gradeName != null) {
-            teachers = teacherRepository.findByGradeName(gradeName);
-        } else if (sectionName != null) {
-            teachers = teacherRepository.findBySectionName(sectionName);
-        } else {
-            teachers = teacherRepository.findAll();
-        }
-
-        // Apply in-memory filters
-        if (name != null && !name.isEmpty()) {
-            String lowerName = name.toLowerCase();
-            teachers = teachers.stream()
-                    .filter(t -> t.getFullName().toLowerCase().contains(lowerName))
-                    .toList();
-        }
-        if (empId != null && !empId.isEmpty()) {
-            teachers = teachers.stream()
-                    .filter(t -> t.getEmpId() != null && t.getEmpId().equalsIgnoreCase(empId))
-                    .toList();
-        }
-        if (teacherType != null && !teacherType.isEmpty()) {
-            teachers = teachers.stream()
-                    .filter(t -> t.getTeacherType() != null && t.getTeacherType().equalsIgnoreCase(teacherType))
-                    .toList();
-        }
-
-        // Map to response
-        return teachers.stream()
-                .map(t -> {
-                    TeacherResponse res = new TeacherResponse();
-                    BeanUtils.copyProperties(t, res);
-                    if (t.getSubjects() != null)
-                        res.setSubjects(t.getSubjects().stream().map(s -> s.getName()).toList());
-                    if (t.getGrade() != null) res.setGradeName(t.getGrade().getName());
-                    if (t.getSection() != null) res.setSectionName(t.getSection().getName());
-                    return res;
-                })
-                .toList();
+        // 🔹 Placement, name, empId and type filters all run in the one query
+        return toListResponses(teacherRepository.findListRows(
+                TeacherSpecifications.search(gradeId, gradeName, sectionId, sectionName, name, empId, teacherType),
+                Sort.by("id"), 0, 0));
     }
 
 
@@ -626,12 +508,8 @@ public class TeacherServiceImpl implements TeacherService {
             ZIA International School Admin
             """, fullName, username, tempPassword, empId);
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-        message.setSubject(subject);
-        message.setText(body);
-
-        javaMailSender.send(message);
+        // Queued in this transaction; delivered by the outbox dispatcher after commit
+        emailService.sendEmail(toEmail, subject, body);
     }
 
 
@@ -0,0 +1,303 @@
+package edu.zia.international.school.service.impl;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+* In-memory trigram index for type-ahead lookup.
+* Each word of a document's texts is indexed as the trigrams of "  word ", so a query word matches any word it is
+* a prefix of ("  ja", " ja" + "jan" for "jan"), and near-misses in longer words still share most trigrams.
+* Every query word must share at least MIN_SCORE of its trigrams with the document; hits are ranked by the
+* share of all query trigrams matched, then shorter first text.
+* Readers share a read lock; updates take the write lock briefly. Removed documents are tombstoned and
+* the postings are rebuilt once tombstones outnumber live documents.
+* */
+public class TrigramIndex<K> {
+
+    public record Hit<K>(K key, double score) {}
+
+    // Share of the query's trigrams a document needs to be a hit; tolerates a typo in longer words
+    private static final double MIN_SCORE = 0.7;
+    // Rank = {matched trigrams, -first text length, -docId}: more matches, then shorter text, then older document
+    private static final Comparator<long[]> WEAKEST_FIRST = Comparator.<long[]>comparingLong(rank -> rank[0])
+            .thenComparingLong(rank -> rank[1])
+            .thenComparingLong(rank -> rank[2]);
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<K, Integer> docIdByKey = new HashMap<>();
+    private final List<K> keys = new ArrayList<>();
+    private final List<String[]> texts = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private int tombstones;
+
+    public void put(K key, String... documentTexts) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            String[] stored = Arrays.stream(documentTexts).map(text -> text == null ? "" : text).toArray(String[]::new);
+            int docId = keys.size();
+            keys.add(key);
+            texts.add(stored);
+            live.set(docId);
+            docIdByKey.put(key, docId);
+            for (long trigram : documentTrigrams(stored)) {
+                postings.computeIfAbsent(trigram, t -> new IntList()).add(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit<K>> search(String query, int limit) {
+        List<long[]> wordTrigrams = queryTrigrams(query);
+        if (wordTrigrams.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<QueryWord> words = new ArrayList<>(wordTrigrams.size());
+            int totalTrigrams = 0;
+            QueryWord source = null;
+            for (long[] trigrams : wordTrigrams) {
+                QueryWord word = new QueryWord(trigrams);
+                words.add(word);
+                totalTrigrams += trigrams.length;
+                if (source == null || word.candidateCost < source.candidateCost) {
+                    source = word;
+                }
+            }
+
+            // Every query word has to match, so candidates come from the word with the fewest of them
+            BitSet seen = new BitSet(keys.size());
+            PriorityQueue<long[]> best = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+            for (int g = 0; g < source.generators; g++) {
+                IntList generator = source.lists[g];
+                words.forEach(QueryWord::rewind);
+                for (int i = 0; i < generator.size; i++) {
+                    int docId = generator.values[i];
+                    if (seen.get(docId) || !live.get(docId)) {
+                        continue;
+                    }
+                    seen.set(docId);
+
+                    // Absent from the source's earlier generators (it would have been seen there), present in this one
+                    int matched = source.count(docId, g + 1, 1);
+                    if (matched < source.minCount) {
+                        continue;
+                    }
+                    for (QueryWord word : words) {
+                        if (word == source) {
+                            continue;
+                        }
+                        int wordMatched = word.count(docId, 0, 0);
+                        if (wordMatched < word.minCount) {
+                            matched = -1;
+                            break;
+                        }
+                        matched += wordMatched;
+                    }
+                    if (matched < 0) {
+                        continue;
+                    }
+
+                    best.add(new long[]{matched, -texts.get(docId)[0].length(), -docId});
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<Hit<K>> hits = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                long[] rank = best.poll();
+                hits.add(new Hit<>(keys.get((int) -rank[2]), (double) rank[0] / totalTrigrams));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(K key) {
+        Integer docId = docIdByKey.remove(key);
+        if (docId == null) {
+            return;
+        }
+        live.clear(docId);
+        texts.set(docId, null);
+        if (++tombstones > MIN_COMPACTION_TOMBSTONES && tombstones > docIdByKey.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        List<K> liveKeys = new ArrayList<>(docIdByKey.size());
+        List<String[]> liveTexts = new ArrayList<>(docIdByKey.size());
+        for (int docId = live.nextSetBit(0); docId >= 0; docId = live.nextSetBit(docId + 1)) {
+            liveKeys.add(keys.get(docId));
+            liveTexts.add(texts.get(docId));
+        }
+        postings.clear();
+        docIdByKey.clear();
+        keys.clear();
+        texts.clear();
+        live.clear();
+        tombstones = 0;
+        for (int i = 0; i < liveKeys.size(); i++) {
+            int docId = keys.size();
+            keys.add(liveKeys.get(i));
+            texts.add(liveTexts.get(i));
+            live.set(docId);
+            docIdByKey.put(liveKeys.get(i), docId);
+            for (long trigram : documentTrigrams(liveTexts.get(i))) {
+                postings.computeIfAbsent(trigram, t -> new IntList()).add(docId);
+            }
+        }
+    }
+
+    private static Set<Long> documentTrigrams(String[] documentTexts) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String text : documentTexts) {
+            for (String word : words(text)) {
+                addTrigrams("  " + word + " ", trigrams);
+            }
+        }
+        return trigrams;
+    }
+
+    // Per query word; no trailing pad, so a query word only has to be a prefix
+    private static List<long[]> queryTrigrams(String query) {
+        List<long[]> perWord = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(words(query))) {
+            Set<Long> trigrams = new LinkedHashSet<>();
+            addTrigrams("  " + word, trigrams);
+            perWord.add(trigrams.stream().mapToLong(Long::longValue).toArray());
+        }
+        return perWord;
+    }
+
+    private static void addTrigrams(String padded, Set<Long> into) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            into.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+    }
+
+    private static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    // One query word's posting lists, rarest first
+    private final class QueryWord {
+        private final IntList[] lists;
+        private final int minCount;
+        // A document with at least minCount of the n trigrams is in one of the (n - minCount + 1) rarest lists
+        private final int generators;
+        private final long candidateCost;
+
+        private QueryWord(long[] trigrams) {
+            int n = trigrams.length;
+            lists = new IntList[n];
+            for (int i = 0; i < n; i++) {
+                lists[i] = postings.getOrDefault(trigrams[i], IntList.EMPTY);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            minCount = (int) Math.ceil(n * MIN_SCORE);
+            generators = n - minCount + 1;
+            long cost = 0;
+            for (int g = 0; g < generators; g++) {
+                cost += lists[g].size;
+            }
+            candidateCost = cost;
+            cursors = new int[n];
+        }
+
+        // Candidates arrive in increasing doc id order (per generator), so each list is probed from where the
+        // previous probe stopped, galloping forward instead of binary searching the whole list
+        private final int[] cursors;
+
+        private void rewind() {
+            Arrays.fill(cursors, 0);
+        }
+
+        // Matches in lists[from..], on top of `matched` already known; stops once minCount is out of reach
+        private int count(int docId, int from, int matched) {
+            for (int l = from; l < lists.length && matched + (lists.length - l) >= minCount; l++) {
+                if (advanceTo(l, docId)) {
+                    matched++;
+                }
+            }
+            return matched;
+        }
+
+        private boolean advanceTo(int l, int docId) {
+            IntList list = lists[l];
+            int low = cursors[l];
+            int high = low;
+            int step = 1;
+            while (high < list.size && list.values[high] < docId) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(list.values, low, Math.min(high + 1, list.size), docId);
+            cursors[l] = index >= 0 ? index : -index - 1;
+            return index >= 0;
+        }
+    }
+
+    // Doc ids are appended in increasing order, so every posting list is sorted
+    private static final class IntList {
+        private static final IntList EMPTY = new IntList();
+
+        private int[] values = new int[4];
+        private int size;
+
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package edu.zia.international.school.storage;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/*
+* What assignments and submissions store for an attachment: "<sha256>/<original filename>".
+* Values written before the blob store (e.g. "uploads/assignments/<uuid>_name.pdf") don't parse and are left alone.
+* */
+public record BlobRef(String sha256, String filename) {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    public static Optional<BlobRef> parse(String value) {
+        if (value == null || value.length() < 66 || value.charAt(64) != '/') {
+            return Optional.empty();
+        }
+        String sha256 = value.substring(0, 64);
+        if (!SHA256_HEX.matcher(sha256).matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlobRef(sha256, value.substring(65)));
+    }
+
+    @Override
+    public String toString() {
+        return sha256 + "/" + filename;
+    }
+}
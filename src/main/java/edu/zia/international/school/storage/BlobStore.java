@@ -0,0 +1,46 @@
+package edu.zia.international.school.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/*
+* Backend SPI for content-addressed attachment bytes. Keys are lowercase SHA-256 hex digests, so a key's content
+* never changes: put is idempotent and callers never overwrite. Reference counting lives in stored_blobs, not here.
+* Chosen by app.storage.backend (local | s3), see StorageConfig.
+* */
+public interface BlobStore {
+
+    boolean exists(String sha256) throws IOException;
+
+    // Takes ownership of `staged` (a fully written temp file); it may be moved instead of copied
+    void put(String sha256, Path staged, long size, String contentType) throws IOException;
+
+    InputStream open(String sha256) throws IOException;
+
+    // From byte `start`, up to `end` inclusive (Long.MAX_VALUE: to the end); the stream may run past end.
+    // This default reads and drops the leading bytes; backends that can seek or fetch a range override it
+    default InputStream open(String sha256, long start, long end) throws IOException {
+        InputStream in = open(sha256);
+        try {
+            in.skipNBytes(start);
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    void delete(String sha256) throws IOException;
+
+    // The blob as a local file, when the backend has one; downloads then go out via sendfile instead of a stream copy
+    default Optional<Path> localPath(String sha256) {
+        return Optional.empty();
+    }
+
+    // ab/cd/abcd…: two levels of 256 directories keep any one directory small, even with millions of blobs
+    static String shardedKey(String sha256) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+}
@@ -0,0 +1,87 @@
+package edu.zia.international.school.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/*
+* Blobs as files under <root>/ab/cd/<sha256>. Writes land under a temp name in the shard directory and are renamed
+* into place, so a concurrent reader sees either nothing or the whole file.
+* */
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+
+    public LocalBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    public Path resolve(String sha256) {
+        return root.resolve(BlobStore.shardedKey(sha256));
+    }
+
+    @Override
+    public boolean exists(String sha256) {
+        return Files.exists(resolve(sha256));
+    }
+
+    @Override
+    public void put(String sha256, Path staged, long size, String contentType) throws IOException {
+        Path target = resolve(sha256);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            // Same filesystem as the staging dir: a rename, no second copy of the bytes
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Path tmp = Files.createTempFile(target.getParent(), ".blob-", ".tmp");
+            try {
+                Files.copy(staged, tmp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException raced) {
+                log.debug("LocalBlobStore | {} written concurrently", sha256);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(String sha256) throws IOException {
+        return Files.newInputStream(resolve(sha256));
+    }
+
+    @Override
+    public InputStream open(String sha256, long start, long end) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(resolve(sha256));
+        try {
+            return Channels.newInputStream(channel.position(start));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(resolve(sha256));
+    }
+
+    @Override
+    public Optional<Path> localPath(String sha256) {
+        Path path = resolve(sha256);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+}
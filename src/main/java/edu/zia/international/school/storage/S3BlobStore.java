@@ -0,0 +1,85 @@
+package edu.zia.international.school.storage;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/*
+* Blobs as objects <prefix>ab/cd/<sha256> in one bucket of any S3-compatible service (AWS, MinIO, Ceph RGW, LocalStack).
+* The upload is streamed from the staged file; S3 has no rename, so the staged file is left for the caller to delete.
+* */
+public class S3BlobStore implements BlobStore {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String keyPrefix;
+
+    public S3BlobStore(S3Client s3, String bucket, String keyPrefix) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix == null ? "" : keyPrefix;
+    }
+
+    private String key(String sha256) {
+        return keyPrefix + BlobStore.shardedKey(sha256);
+    }
+
+    // A HEAD response has no body, so some services (and SDK versions) can't name the error and a missing key
+    // arrives as a bare S3Exception with status 404 instead of NoSuchKeyException
+    @Override
+    public boolean exists(String sha256) {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key(sha256)).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(String sha256, Path staged, long size, String contentType) {
+        s3.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key(sha256))
+                        .contentLength(size)
+                        .contentType(contentType)
+                        .build(),
+                RequestBody.fromFile(staged));
+    }
+
+    @Override
+    public InputStream open(String sha256) {
+        return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key(sha256)).build());
+    }
+
+    // A ranged GET: resuming the tail of a large object fetches only the tail
+    @Override
+    public InputStream open(String sha256, long start, long end) {
+        if (start == 0 && end == Long.MAX_VALUE) {
+            return open(sha256);
+        }
+        return s3.getObject(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key(sha256))
+                .range(end == Long.MAX_VALUE ? "bytes=" + start + "-" : "bytes=" + start + "-" + end)
+                .build());
+    }
+
+    @Override
+    public void delete(String sha256) {
+        s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key(sha256)).build());
+    }
+}
@@ -0,0 +1,25 @@
+package edu.zia.international.school.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/*
+* A downloadable attachment: what the HTTP layer needs for validators and ranges, without reading any bytes.
+* localPath is set when the bytes are a file on this node (zero-copy path); otherwise opener streams them, from the
+* requested offset, so a backend that can fetch a range (S3) never sends the bytes before it.
+* etag is quoted, ready for the ETag header.
+* */
+public record StoredFile(String filename, String contentType, long size, long lastModified,
+                         String etag, Path localPath, Opener opener) {
+
+    @FunctionalInterface
+    public interface Opener {
+        // Positioned at start; the stream may run past end (inclusive), callers stop reading there
+        InputStream open(long start, long end) throws IOException;
+
+        default InputStream open() throws IOException {
+            return open(0, Long.MAX_VALUE);
+        }
+    }
+}
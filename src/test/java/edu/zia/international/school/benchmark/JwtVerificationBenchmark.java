@@ -0,0 +1,81 @@
+package edu.zia.international.school.benchmark;
+
+import edu.zia.international.school.repository.UserRepository;
+import edu.zia.international.school.security.JWTTokenProvider;
+import edu.zia.international.school.security.JwtVerificationResult;
+import edu.zia.international.school.security.TokenVersionCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+* Tokens verified per second on the request hot path.
+* legacyVerify reproduces the old filter (key rebuilt per call, token parsed twice), cachedVerify the current one.
+* Run main() from the IDE, or after mvn test-compile: java -cp <test classpath> org.openjdk.jmh.Main JwtVerificationBenchmark
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "efb4c2bcdf2ad82a8318f4985bedf1ec10a722f0822d5f5c26520e53cb65c279";
+
+    private JWTTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JWTTokenProvider(new TokenVersionCache(Mockito.mock(UserRepository.class)));
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "expirationDate", 604800000L);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+
+        token = Jwts.builder()
+                .subject("jane.doe")
+                .claim(JWTTokenProvider.ROLE_CLAIM, "TEACHER")
+                .claim(JWTTokenProvider.VERSION_CLAIM, 0L)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(legacyKey())
+                .compact();
+    }
+
+    @Benchmark
+    public String legacyVerify() {
+        // validateToken(): fresh key + parser
+        Jwts.parser().verifyWith(legacyKey()).build().parse(token);
+        // getUsername(): fresh key + parser again
+        Claims claims = Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        JwtVerificationResult result = jwtTokenProvider.verify(token);
+        return result.claims().getSubject();
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(SECRET));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package edu.zia.international.school.benchmark;
+
+import edu.zia.international.school.dto.student.StudentResponse;
+import edu.zia.international.school.dto.teacher.TeacherResponse;
+import edu.zia.international.school.entity.*;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.enums.TeacherStatus;
+import edu.zia.international.school.mapper.StudentMapper;
+import edu.zia.international.school.mapper.TeacherMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+* Entity -> response mapping throughput for one row.
+* *BeanUtils is the old reflective copyProperties plus the hand-written fix-ups that followed it;
+* *Generated is the MapStruct mapper that replaced it.
+* Run main() from the IDE, or after mvn test-compile: java -cp <test classpath> org.openjdk.jmh.Main ResponseMappingBenchmark
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private final TeacherMapper teacherMapper = Mappers.getMapper(TeacherMapper.class);
+    private final StudentMapper studentMapper = Mappers.getMapper(StudentMapper.class);
+
+    private Teacher teacher;
+    private Student student;
+
+    @Setup
+    public void setUp() {
+        Grade grade = Grade.builder().id(3L).name("Grade 3").build();
+        Section section = Section.builder().id(9L).name("B").grade(grade).build();
+        teacher = Teacher.builder()
+                .id(42L).fullName("Meera Sharma").email("meera@zis.test").username("msharma")
+                .phone("9800000042").role("TEACHER").gender("F").dateOfBirth(LocalDate.of(1988, 5, 14))
+                .qualification("M.Sc. Mathematics").address("Ward 4, Lalitpur").joiningDate(LocalDate.of(2019, 4, 1))
+                .experienceYears(9).empId("ZIA2019042").status(TeacherStatus.ACTIVE).maritalStatus("Married")
+                .emergencyContactInfo("Ravi 9800000000").bloodGroup("B+").nationality("Nepali")
+                .aadharNumber("123412341234").profileImageUrl("meera.png").teacherType("FULL_TIME")
+                .subjects(List.of(Subject.builder().id(1L).name("Mathematics").build(),
+                        Subject.builder().id(2L).name("Physics").build()))
+                .grade(grade).section(section)
+                .build();
+        student = Student.builder()
+                .id(7L).studentId("STD202500007").firstName("Aarav").lastName("Jha").email("aarav@zis.test")
+                .phone("9811111111").gender("M").dateOfBirth("2015-02-11").gradeName("Grade 3").sectionName("B")
+                .address("Ward 2, Kathmandu").emergencyContactName("Sita Jha").emergencyContactPhone("9822222222")
+                .bloodGroup("O+").nationality("Nepali").profileImageUrl("aarav.png").username("ajha")
+                .password("hash").role("STUDENT").status(StudentStatus.ACTIVE).guardianName("Ram Jha")
+                .guardianPhone("9833333333").admissionDate(LocalDate.of(2021, 4, 15)).grade(grade).section(section)
+                .build();
+    }
+
+    @Benchmark
+    public TeacherResponse teacherBeanUtils() {
+        TeacherResponse res = new TeacherResponse();
+        BeanUtils.copyProperties(teacher, res);
+        res.setSubjects(teacher.getSubjects().stream().map(Subject::getName).toList());
+        if (teacher.getGrade() != null) {
+            res.setGradeName(teacher.getGrade().getName());
+        }
+        if (teacher.getSection() != null) {
+            res.setSectionName(teacher.getSection().getName());
+        }
+        return res;
+    }
+
+    @Benchmark
+    public TeacherResponse teacherGenerated() {
+        return teacherMapper.toResponse(teacher);
+    }
+
+    @Benchmark
+    public StudentResponse studentBeanUtils() {
+        StudentResponse response = new StudentResponse();
+        BeanUtils.copyProperties(student, response);
+        return response;
+    }
+
+    @Benchmark
+    public StudentResponse studentGenerated() {
+        return studentMapper.toResponse(student);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResponseMappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
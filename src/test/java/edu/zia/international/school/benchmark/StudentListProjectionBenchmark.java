@@ -0,0 +1,134 @@
+package edu.zia.international.school.benchmark;
+
+import edu.zia.international.school.dto.student.StudentResponse;
+import edu.zia.international.school.entity.*;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.mapper.StudentMapper;
+import edu.zia.international.school.repository.StudentListRowQueriesImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+* GET /api/students over 50k rows in an in-memory H2 database.
+* managedEntities is the old path (Student entities with grade/section, dirty-checking snapshots, then DTO copy);
+* listRowProjection selects only the response columns into records.
+* Add -prof gc for allocation per call (gc.alloc.rate.norm).
+* Run main() from the IDE, or after mvn test-compile: java -cp <test classpath> org.openjdk.jmh.Main StudentListProjectionBenchmark
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class StudentListProjectionBenchmark {
+
+    private static final int STUDENTS = 50_000;
+    private static final int GRADES = 12;
+    private static final int SECTIONS_PER_GRADE = 4;
+
+    private final StudentMapper mapper = Mappers.getMapper(StudentMapper.class);
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Student.class).addAnnotatedClass(Grade.class).addAnnotatedClass(Section.class)
+                .addAnnotatedClass(Teacher.class).addAnnotatedClass(Subject.class)
+                .addAnnotatedClass(User.class).addAnnotatedClass(Role.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:student-list;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create")
+                .setProperty("hibernate.auto_quote_keyword", "true")
+                // Same column names as the Spring Boot-configured application
+                .setProperty("hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy")
+                .setProperty("hibernate.show_sql", "false")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            Section[] sections = new Section[GRADES * SECTIONS_PER_GRADE];
+            for (int g = 0; g < GRADES; g++) {
+                Grade grade = Grade.builder().name("Grade " + (g + 1)).build();
+                session.persist(grade);
+                for (int s = 0; s < SECTIONS_PER_GRADE; s++) {
+                    Section section = Section.builder().name(String.valueOf((char) ('A' + s))).grade(grade).build();
+                    session.persist(section);
+                    sections[g * SECTIONS_PER_GRADE + s] = section;
+                }
+            }
+            for (int i = 0; i < STUDENTS; i++) {
+                Section section = sections[i % sections.length];
+                session.persist(Student.builder()
+                        .studentId(String.format("STD2025%05d", i))
+                        .firstName("First" + i).lastName("Last" + (i % 997))
+                        .email("student" + i + "@zis.test").phone(String.format("9%09d", i))
+                        .gender(i % 2 == 0 ? "F" : "M").dateOfBirth("2015-04-01")
+                        .gradeName(section.getGrade().getName()).sectionName(section.getName())
+                        .grade(section.getGrade()).section(section)
+                        .address("House " + i + ", Ward " + (i % 30) + ", Kathmandu")
+                        .emergencyContactName("Guardian " + i).emergencyContactPhone(String.format("8%09d", i))
+                        .bloodGroup("O+").nationality("Nepali")
+                        .username("student" + i)
+                        .password("$2a$10$abcdefghijklmnopqrstuuJq8H1c0Wm3KJ0zJq8H1c0Wm3KJ0zJq8H1c")
+                        .role("STUDENT").status(StudentStatus.ACTIVE)
+                        .guardianName("Guardian " + i).guardianPhone(String.format("7%09d", i))
+                        .build());
+                if (i % 1000 == 999) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<StudentResponse> managedEntities() {
+        EntityManager em = sessionFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<StudentResponse> responses = em.createQuery(
+                            "SELECT s FROM Student s LEFT JOIN FETCH s.grade LEFT JOIN FETCH s.section ORDER BY s.id", Student.class)
+                    .getResultList().stream()
+                    .map(mapper::toResponse)
+                    .toList();
+            em.getTransaction().commit();
+            return responses;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<StudentResponse> listRowProjection() {
+        EntityManager em = sessionFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<StudentResponse> responses = new StudentListRowQueriesImpl(em)
+                    .findListRows(null, Sort.by("id"), 0, 0).stream()
+                    .map(mapper::toResponse)
+                    .toList();
+            em.getTransaction().commit();
+            return responses;
+        } finally {
+            em.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StudentListProjectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package edu.zia.international.school.benchmark;
+
+import edu.zia.international.school.service.impl.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+* Type-ahead latency over 200k synthetic people (name, studentId, username).
+* suggest* query the trigram index (top 10); substringScan is the old approach of lower-casing and
+* contains()-matching every name.
+* Run main() from the IDE, or after mvn test-compile: java -cp <test classpath> org.openjdk.jmh.Main TrigramIndexBenchmark
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TrigramIndexBenchmark {
+
+    private static final int PEOPLE = 200_000;
+    private static final String[] FIRST = {"Aarav", "Vivaan", "Aditya", "Ananya", "Diya", "Saanvi", "Ishaan", "Kabir",
+            "Meera", "Riya", "Arjun", "Sara", "Zoya", "Rohan", "Neha", "Kiran", "Farhan", "Emma", "Liam", "Olivia",
+            "Noah", "Ava", "Mia", "Lucas", "Himalaya", "Jane", "John", "Priya", "Rahul", "Sneha"};
+    private static final String[] LAST = {"Sharma", "Verma", "Gupta", "Jha", "Khan", "Singh", "Patel", "Reddy",
+            "Iyer", "Nair", "Das", "Bose", "Mehta", "Kapoor", "Chopra", "Smith", "Johnson", "Brown", "Williams",
+            "Garcia", "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas"};
+
+    private TrigramIndex<String> index;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TrigramIndex<>();
+        names = new ArrayList<>(PEOPLE);
+        for (int i = 0; i < PEOPLE; i++) {
+            String first = FIRST[random.nextInt(FIRST.length)] + (random.nextInt(4) == 0 ? "a" + random.nextInt(50) : "");
+            String last = LAST[random.nextInt(LAST.length)];
+            String name = first + " " + last;
+            String code = String.format("STD%d%04d", 2015 + i % 10, i);
+            names.add(name);
+            index.put(code, name, code, (first.charAt(0) + last).toLowerCase(Locale.ROOT) + (100 + random.nextInt(900)));
+        }
+    }
+
+    @Benchmark
+    public Object suggestShortPrefix() {
+        return index.search("ha", 10);
+    }
+
+    @Benchmark
+    public Object suggestFullName() {
+        return index.search("himalaya jha", 10);
+    }
+
+    @Benchmark
+    public Object suggestStudentId() {
+        return index.search("STD20190123", 10);
+    }
+
+    @Benchmark
+    public Object substringScan() {
+        List<String> hits = new ArrayList<>();
+        for (String name : names) {
+            if (name.toLowerCase().contains("himalaya jha")) {
+                hits.add(name);
+            }
+        }
+        return hits;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrigramIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package edu.zia.international.school.config;
+
+import edu.zia.international.school.entity.AssignmentSubmission;
+import edu.zia.international.school.repository.AssignmentSubmissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* Rows inserted while assignment_submissions was AUTO_INCREMENT must not collide with generator-issued ids.
+* Not transactional: Hibernate reads id_generators on its own connection, which must see the committed row.
+* */
+@DataJpaTest
+@Import(IdGeneratorAlignment.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdGeneratorAlignmentTest {
+
+	@Autowired
+	private IdGeneratorAlignment alignment;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private AssignmentSubmissionRepository submissionRepository;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM assignment_submissions");
+	}
+
+	@Test
+	void newSubmissionsGetIdsAfterLegacyRows() {
+		jdbcTemplate.update("INSERT INTO assignment_submissions (id, student_id) VALUES (1000, 'STD20250001')");
+		alignment.align();
+
+		List<AssignmentSubmission> saved = submissionRepository.saveAllAndFlush(List.of(
+				AssignmentSubmission.builder().studentId("STD20250002").build(),
+				AssignmentSubmission.builder().studentId("STD20250003").build()));
+
+		assertTrue(saved.get(0).getId() > 1000, "got " + saved.get(0).getId());
+		assertTrue(saved.get(1).getId() > saved.get(0).getId());
+	}
+
+	@Test
+	void alignmentNeverMovesTheGeneratorBack() {
+		alignment.align();
+		Long before = nextVal();
+		alignment.align();
+		assertEquals(before, nextVal());
+	}
+
+	private Long nextVal() {
+		return jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = ?",
+				Long.class, AssignmentSubmission.ID_GENERATOR_ROW);
+	}
+}
@@ -0,0 +1,75 @@
+package edu.zia.international.school.config;
+
+import edu.zia.international.school.service.AttachmentStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/*
+* A table as the old publish fan-out left it: placeholder rows, duplicates from re-publishing, no unique index.
+* Not transactional: the cleanup commits its own work, as it does at startup.
+* */
+@DataJpaTest
+@Import(SubmissionRowCleanup.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubmissionRowCleanupTest {
+
+	@MockitoBean
+	private AttachmentStorageService attachmentStorageService;
+
+	@Autowired
+	private SubmissionRowCleanup cleanup;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM assignment_submissions");
+		jdbcTemplate.update("DELETE FROM assignments");
+	}
+
+	@Test
+	void collapsesLegacyRowsAndRestoresTheUniqueIndex() {
+		jdbcTemplate.execute("ALTER TABLE assignment_submissions DROP CONSTRAINT uk_assignment_submissions_student");
+		jdbcTemplate.update("INSERT INTO assignments (id, title, grade_id, section_id) VALUES (1, 'Fractions', 5, 1)");
+		// ZIS0: published twice, graded, then a stray later copy; ZIS1: published twice, resubmitted; ZIS2: never touched
+		insert(1, "ZIS0", "PENDING", null, null);
+		insert(2, "ZIS1", "PENDING", null, null);
+		insert(3, "ZIS2", "PENDING", null, null);
+		insert(4, "ZIS0", "SUBMITTED", "old-essay", 7.0);
+		insert(5, "ZIS1", "SUBMITTED", "draft", null);
+		insert(6, "ZIS2", "PENDING", null, null);
+		insert(7, "ZIS1", "SUBMITTED", "final", null);
+		insert(8, "ZIS0", "SUBMITTED", "stray-copy", null);
+		jdbcTemplate.update("UPDATE assignment_submissions SET submitted_at = CURRENT_TIMESTAMP WHERE id IN (4, 5, 7, 8)");
+
+		cleanup.clean();
+
+		assertEquals(List.of(4L, 7L), jdbcTemplate.queryForList(
+				"SELECT id FROM assignment_submissions ORDER BY id", Long.class));
+		verify(attachmentStorageService).release(List.of("draft"));
+		verify(attachmentStorageService).release(List.of("stray-copy"));
+		assertThrows(DataIntegrityViolationException.class, () -> insert(9, "ZIS0", "PENDING", null, null));
+
+		// Second start: nothing left to do
+		assertDoesNotThrow(() -> cleanup.clean());
+		assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM assignment_submissions", Integer.class));
+	}
+
+	private void insert(long id, String studentId, String status, String fileUrl, Double marks) {
+		jdbcTemplate.update("INSERT INTO assignment_submissions (id, assignment_id, student_id, submission_status, file_url, marks)"
+				+ " VALUES (?, 1, ?, ?, ?, ?)", id, studentId, status, fileUrl, marks);
+	}
+}
@@ -0,0 +1,165 @@
+package edu.zia.international.school.controller;
+
+import edu.zia.international.school.storage.StoredFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadsTest {
+
+	private static final String ETAG = "\"9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08\"";
+	private static final long LAST_MODIFIED = 1_760_000_000_000L;
+
+	@TempDir
+	Path dir;
+
+	private byte[] content;
+	private StoredFile file;
+
+	@BeforeEach
+	void lecture() throws IOException {
+		content = new byte[100_000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i % 251);
+		}
+		Path path = dir.resolve("blob");
+		Files.write(path, content);
+		file = new StoredFile("lecture 3.mp4", "video/mp4", content.length, LAST_MODIFIED, ETAG, path,
+				(start, end) -> Files.newInputStream(path));
+	}
+
+	@Test
+	void sendsWholeFileWithValidators() throws IOException {
+		MockHttpServletResponse response = send(get());
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(content, response.getContentAsByteArray());
+		assertEquals(ETAG, response.getHeader("ETag"));
+		assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		assertEquals(String.valueOf(content.length), response.getHeader("Content-Length"));
+		assertTrue(response.getHeader("Content-Disposition").startsWith("inline;"));
+		assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+		assertEquals("sandbox", response.getHeader("Content-Security-Policy"));
+	}
+
+	@Test
+	void scriptableTypesAreDownloadedNotRendered() throws IOException {
+		for (String type : new String[]{"text/html", "image/svg+xml", "application/xhtml+xml", "text/xml", "nonsense"}) {
+			file = new StoredFile("essay", type, file.size(), LAST_MODIFIED, ETAG, file.localPath(), file.opener());
+			assertTrue(send(get()).getHeader("Content-Disposition").startsWith("attachment;"), type);
+		}
+		for (String type : new String[]{"application/pdf", "image/png", "IMAGE/JPEG", "video/webm", "audio/mpeg"}) {
+			file = new StoredFile("essay", type, file.size(), LAST_MODIFIED, ETAG, file.localPath(), file.opener());
+			assertTrue(send(get()).getHeader("Content-Disposition").startsWith("inline;"), type);
+		}
+	}
+
+	@Test
+	void revalidationReturns304WithoutBody() throws IOException {
+		MockHttpServletRequest byEtag = get();
+		byEtag.addHeader("If-None-Match", ETAG);
+		MockHttpServletResponse response = send(byEtag);
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+
+		MockHttpServletRequest byDate = get();
+		byDate.addHeader("If-Modified-Since", LAST_MODIFIED);
+		assertEquals(304, send(byDate).getStatus());
+	}
+
+	@Test
+	void servesSingleRangeForResume() throws IOException {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=50000-");
+		MockHttpServletResponse response = send(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 50000-99999/100000", response.getHeader("Content-Range"));
+		assertEquals("50000", response.getHeader("Content-Length"));
+		assertArrayEquals(Arrays.copyOfRange(content, 50_000, 100_000), response.getContentAsByteArray());
+	}
+
+	@Test
+	void streamsRangeWhenBackendHasNoLocalFile() throws IOException {
+		List<Long> requestedStarts = new ArrayList<>();
+		file = new StoredFile(file.filename(), file.contentType(), file.size(), LAST_MODIFIED, ETAG, null,
+				(start, end) -> {
+					requestedStarts.add(start);
+					return new ByteArrayInputStream(content, (int) start, content.length - (int) start);
+				});
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=-10");
+		MockHttpServletResponse response = send(request);
+
+		assertEquals(206, response.getStatus());
+		assertArrayEquals(Arrays.copyOfRange(content, 99_990, 100_000), response.getContentAsByteArray());
+		// The backend is asked for the range, not the whole object
+		assertEquals(List.of(99_990L), requestedStarts);
+	}
+
+	@Test
+	void unsatisfiableRangeReturns416() throws IOException {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=200000-");
+		MockHttpServletResponse response = send(request);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */100000", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	void staleIfRangeGetsWholeFile() throws IOException {
+		MockHttpServletRequest request = get();
+		request.addHeader("Range", "bytes=0-99");
+		request.addHeader("If-Range", "\"older-version\"");
+		MockHttpServletResponse response = send(request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(content.length, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void headSendsHeadersOnly() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/api/assignments/1/attachments/0");
+		MockHttpServletResponse response = send(request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(String.valueOf(content.length), response.getHeader("Content-Length"));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void handsLocalFilesToTomcatSendfile() throws IOException {
+		MockHttpServletRequest request = get();
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		request.addHeader("Range", "bytes=10-19");
+		MockHttpServletResponse response = send(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+		assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+	}
+
+	private static MockHttpServletRequest get() {
+		return new MockHttpServletRequest("GET", "/api/assignments/1/attachments/0");
+	}
+
+	private MockHttpServletResponse send(MockHttpServletRequest request) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FileDownloads.send(file, request, response);
+		return response;
+	}
+}
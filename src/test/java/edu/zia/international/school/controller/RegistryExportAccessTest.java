@@ -0,0 +1,68 @@
+package edu.zia.international.school.controller;
+
+import edu.zia.international.school.service.RegistryExportService;
+import edu.zia.international.school.service.StudentImportService;
+import edu.zia.international.school.service.StudentService;
+import edu.zia.international.school.service.TeacherService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The full-roster exports are admin-only, whatever the URL rules in SpringSecurityConfiguration allow
+@SpringJUnitConfig(RegistryExportAccessTest.MethodSecurity.class)
+class RegistryExportAccessTest {
+
+	@Configuration
+	@EnableMethodSecurity
+	@Import({StudentController.class, TeacherController.class})
+	static class MethodSecurity {
+	}
+
+	@MockitoBean
+	private StudentService studentService;
+	@MockitoBean
+	private StudentImportService studentImportService;
+	@MockitoBean
+	private TeacherService teacherService;
+	@MockitoBean
+	private RegistryExportService registryExportService;
+
+	@Autowired
+	private StudentController studentController;
+	@Autowired
+	private TeacherController teacherController;
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void adminGetsBothExports() {
+		ResponseEntity<StreamingResponseBody> students = studentController.exportStudents("csv");
+		assertEquals("text/csv", students.getHeaders().getContentType().toString());
+		assertTrue(students.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("students.csv"));
+		assertEquals("application/x-ndjson", teacherController.exportTeachers("ndjson").getHeaders().getContentType().toString());
+	}
+
+	@Test
+	@WithMockUser(roles = "TEACHER")
+	void teacherIsDenied() {
+		assertThrows(AccessDeniedException.class, () -> studentController.exportStudents("csv"));
+		assertThrows(AccessDeniedException.class, () -> teacherController.exportTeachers("csv"));
+	}
+
+	@Test
+	@WithMockUser(roles = "STUDENT")
+	void studentIsDenied() {
+		assertThrows(AccessDeniedException.class, () -> studentController.exportStudents("ndjson"));
+		assertThrows(AccessDeniedException.class, () -> teacherController.exportTeachers("ndjson"));
+	}
+}
@@ -0,0 +1,57 @@
+package edu.zia.international.school.controller;
+
+import edu.zia.international.school.config.SubmissionArchiveProperties;
+import edu.zia.international.school.service.AssignmentService;
+import edu.zia.international.school.service.SubmissionArchiveService;
+import edu.zia.international.school.service.SubmissionUploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The archive download runs under its own async timeout, not the one sized for exports
+class SubmissionArchiveDownloadTest {
+
+	private static final long EXPORT_TIMEOUT_MS = 600_000;
+
+	private final SubmissionArchiveService submissionArchiveService = mock(SubmissionArchiveService.class);
+	private final SubmissionArchiveService.Reservation reservation = mock(SubmissionArchiveService.Reservation.class);
+	private final SubmissionArchiveProperties properties = new SubmissionArchiveProperties();
+	private final MockMvc mvc = MockMvcBuilders
+			.standaloneSetup(new AssignmentController(mock(AssignmentService.class), submissionArchiveService,
+					properties, mock(SubmissionUploadService.class)))
+			.setAsyncRequestTimeout(EXPORT_TIMEOUT_MS)
+			.build();
+
+	@Test
+	void archiveOutlivesTheGlobalAsyncTimeoutAndReleasesItsSlot() throws Exception {
+		when(submissionArchiveService.reserve(7L)).thenReturn(reservation);
+		doAnswer(call -> {
+			call.<OutputStream>getArgument(1).write("PK".getBytes(StandardCharsets.US_ASCII));
+			return null;
+		}).when(submissionArchiveService).writeArchive(eq(reservation), any());
+
+		MvcResult started = mvc.perform(get("/api/assignments/7/submissions/archive"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertEquals(4 * 60 * 60 * 1000L, started.getRequest().getAsyncContext().getTimeout());
+
+		mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/zip"))
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"assignment-7-submissions.zip\""))
+				.andExpect(content().string("PK"));
+		verify(reservation, atLeastOnce()).close();
+	}
+}
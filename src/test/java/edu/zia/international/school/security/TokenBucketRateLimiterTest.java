@@ -0,0 +1,55 @@
+package edu.zia.international.school.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+	private final AtomicLong nanos = new AtomicLong(1);
+
+	@Test
+	void burstThenRetryAfterThenRefill() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 6, 100, 600_000, nanos::get);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		}
+		// 6 per minute: the next token is 10s away
+		assertEquals(10, limiter.tryAcquire("10.0.0.1"));
+		// Other keys have their own bucket
+		assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+
+		nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+	}
+
+	@Test
+	void idleBucketsExpireOnlyOnceTheyCouldHaveRefilled() {
+		// Full refill takes 60s, longer than the 1s idle setting
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 5, 100, 1_000, nanos::get);
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire("student1");
+		}
+		// 30s later the bucket holds 2.5 tokens; a dropped one would have come back with all 5
+		nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertEquals(0, limiter.tryAcquire("student1"));
+		assertEquals(0, limiter.tryAcquire("student1"));
+		assertTrue(limiter.tryAcquire("student1") > 0, "a drained bucket must not be dropped early");
+
+		nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+		assertEquals(0, limiter.size());
+	}
+
+	@Test
+	void sizeIsBounded() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(20, 20, 1_000, 600_000, nanos::get);
+		for (int i = 0; i < 50_000; i++) {
+			limiter.tryAcquire("10.1." + (i / 256) + "." + (i % 256));
+		}
+		assertTrue(limiter.size() <= 1_000, () -> "size " + limiter.size());
+	}
+}
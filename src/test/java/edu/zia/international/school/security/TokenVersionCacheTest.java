@@ -0,0 +1,78 @@
+package edu.zia.international.school.security;
+
+import edu.zia.international.school.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionCacheTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final AtomicLong nanos = new AtomicLong();
+	private final TokenVersionCache cache = new TokenVersionCache(userRepository, nanos::get);
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void evictInsideATransactionWaitsForTheCommit() {
+		when(userRepository.findTokenVersionByUsername("teacher1")).thenReturn(Optional.of(3L));
+		assertTrue(cache.isCurrent("teacher1", 3));
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.evict("teacher1");
+		// Not committed yet: a request now still sees (and would re-cache) the old version either way
+		when(userRepository.findTokenVersionByUsername("teacher1")).thenReturn(Optional.of(4L));
+		assertTrue(cache.isCurrent("teacher1", 3));
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		assertFalse(cache.isCurrent("teacher1", 3));
+		assertTrue(cache.isCurrent("teacher1", 4));
+	}
+
+	@Test
+	void versionsBumpedOnAnotherNodeAreSeenAfterTheTtl() {
+		when(userRepository.findTokenVersionByUsername("teacher1")).thenReturn(Optional.of(3L));
+		assertTrue(cache.isCurrent("teacher1", 3));
+
+		// Reset handled by another instance: nothing evicts here
+		when(userRepository.findTokenVersionByUsername("teacher1")).thenReturn(Optional.of(4L));
+		nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertTrue(cache.isCurrent("teacher1", 3));
+
+		nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+		assertFalse(cache.isCurrent("teacher1", 3));
+	}
+
+	@Test
+	void unknownUsersAreNotCached() {
+		when(userRepository.findTokenVersionByUsername("new-teacher")).thenReturn(Optional.empty());
+		assertEquals(TokenVersionCache.UNKNOWN_USER, cache.currentVersion("new-teacher"));
+
+		when(userRepository.findTokenVersionByUsername("new-teacher")).thenReturn(Optional.of(0L));
+		assertTrue(cache.isCurrent("new-teacher", 0));
+	}
+
+	@Test
+	void evictOutsideATransactionIsImmediate() {
+		when(userRepository.findTokenVersionByUsername("teacher1")).thenReturn(Optional.of(3L));
+		assertTrue(cache.isCurrent("teacher1", 3));
+
+		when(userRepository.findTokenVersionByUsername("teacher1")).thenReturn(Optional.of(4L));
+		cache.evict("teacher1");
+		assertTrue(cache.isCurrent("teacher1", 4));
+	}
+}
@@ -0,0 +1,163 @@
+package edu.zia.international.school.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import edu.zia.international.school.config.EmailOutboxProperties;
+import edu.zia.international.school.entity.EmailDeadLetter;
+import edu.zia.international.school.entity.EmailOutbox;
+import edu.zia.international.school.repository.EmailDeadLetterRepository;
+import edu.zia.international.school.repository.EmailOutboxRepository;
+import edu.zia.international.school.security.EmailBodyCipher;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* The outbox end to end against an in-process SMTP server: delivery, backoff after a failed attempt,
+* dead-lettering once attempts run out, and the dead-letter retention.
+* */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.mail.username=office@zis.test",
+		"app.mail.outbox.encryption-key=+hemwh2VUaue2Dd5ciO5zV95+qT1JLxyAxq/mDtiWMU="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmailService.class, EmailOutboxDispatcher.class, EmailOutboxProperties.class, EmailBodyCipher.class,
+		EmailOutboxDispatcherTest.Smtp.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+	private static final String RESET_LINK = "https://zis.test/reset?token=s3cr3t-reset-token";
+
+	@RegisterExtension
+	static final GreenMailExtension GREEN_MAIL = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	@TestConfiguration
+	static class Smtp {
+		@Bean
+		JavaMailSender javaMailSender() {
+			JavaMailSenderImpl sender = new JavaMailSenderImpl();
+			sender.setHost("localhost");
+			sender.setPort(ServerSetupTest.SMTP.getPort());
+			return sender;
+		}
+	}
+
+	@Autowired
+	private EmailService emailService;
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+	@Autowired
+	private EmailDeadLetterRepository emailDeadLetterRepository;
+	@Autowired
+	private EmailOutboxProperties properties;
+
+	@AfterEach
+	void cleanUp() {
+		emailOutboxRepository.deleteAll();
+		emailDeadLetterRepository.deleteAll();
+	}
+
+	@Test
+	void queuedEmailIsStoredEncryptedAndDelivered() throws Exception {
+		emailService.sendEmail("parent@zis.test", "Reset your password", "Open " + RESET_LINK);
+
+		EmailOutbox queued = emailOutboxRepository.findAll().get(0);
+		assertFalse(queued.getBody().contains(RESET_LINK));
+
+		dispatcher.dispatch();
+
+		MimeMessage[] received = GREEN_MAIL.getReceivedMessages();
+		assertEquals(1, received.length);
+		assertEquals("Reset your password", received[0].getSubject());
+		assertTrue(GreenMailUtil.getBody(received[0]).contains(RESET_LINK));
+		assertEquals(0, emailOutboxRepository.count());
+	}
+
+	@Test
+	void failedDeliveryIsRetriedWithBackoff() {
+		emailService.sendEmail("parent@zis.test", "Reset your password", "Open " + RESET_LINK);
+		GREEN_MAIL.stop();
+
+		LocalDateTime before = LocalDateTime.now();
+		dispatcher.dispatch();
+
+		EmailOutbox retried = emailOutboxRepository.findAll().get(0);
+		assertEquals(1, retried.getAttempts());
+		assertNotNull(retried.getLastError());
+		Duration backoff = Duration.between(before, retried.getNextAttemptAt());
+		assertTrue(backoff.toSeconds() >= properties.getInitialBackoffSeconds() - 1
+				&& backoff.toSeconds() <= properties.getInitialBackoffSeconds() + 5, backoff::toString);
+		assertEquals(0, emailDeadLetterRepository.count());
+	}
+
+	@Test
+	void lastFailedAttemptMovesTheEmailToDeadLettersWhichExpire() {
+		emailService.sendEmail("parent@zis.test", "Reset your password", "Open " + RESET_LINK);
+		EmailOutbox queued = emailOutboxRepository.findAll().get(0);
+		queued.setAttempts(properties.getMaxAttempts() - 1);
+		emailOutboxRepository.save(queued);
+		GREEN_MAIL.stop();
+
+		dispatcher.dispatch();
+
+		assertEquals(0, emailOutboxRepository.count());
+		EmailDeadLetter deadLetter = emailDeadLetterRepository.findAll().get(0);
+		assertEquals(properties.getMaxAttempts(), deadLetter.getAttempts());
+		assertFalse(deadLetter.getBody().contains(RESET_LINK));
+
+		dispatcher.purgeDeadLetters();
+		assertEquals(1, emailDeadLetterRepository.count());
+
+		deadLetter.setFailedAt(LocalDateTime.now().minusDays(properties.getDeadLetterRetentionDays() + 1));
+		emailDeadLetterRepository.save(deadLetter);
+		dispatcher.purgeDeadLetters();
+		assertEquals(0, emailDeadLetterRepository.count());
+	}
+
+	@Test
+	void undecryptableRowIsDeadLetteredWithoutHoldingBackTheRest() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		// Encrypted under a key this node doesn't have (rotated away)
+		emailOutboxRepository.save(EmailOutbox.builder()
+				.recipient("old@zis.test")
+				.subject("Welcome")
+				.body("v1:" + Base64.getEncoder().encodeToString(new byte[40]))
+				.attempts(0)
+				.nextAttemptAt(now.minusSeconds(1))
+				.createdAt(now.minusSeconds(1))
+				.build());
+		emailService.sendEmail("parent@zis.test", "Reset your password", "Open " + RESET_LINK);
+
+		dispatcher.dispatch();
+
+		MimeMessage[] received = GREEN_MAIL.getReceivedMessages();
+		assertEquals(1, received.length);
+		assertEquals("Reset your password", received[0].getSubject());
+		assertEquals(0, emailOutboxRepository.count());
+		EmailDeadLetter deadLetter = emailDeadLetterRepository.findAll().get(0);
+		assertEquals("old@zis.test", deadLetter.getRecipient());
+		assertEquals(1, deadLetter.getAttempts());
+		assertTrue(deadLetter.getLastError().contains("Could not decrypt email body"), deadLetter.getLastError());
+	}
+}
@@ -0,0 +1,142 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.PaginationProperties;
+import edu.zia.international.school.entity.Assignment;
+import edu.zia.international.school.entity.AssignmentSubmission;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.entity.Student;
+import edu.zia.international.school.enums.AssignmentStatus;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.enums.SubmissionStatus;
+import edu.zia.international.school.mapper.AssignmentMapperImpl;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.service.SubmissionUploadService;
+import edu.zia.international.school.storage.StoredFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+* Who may download what: staff anything, a student the attachments of assignments for their grade/section
+* and only their own submitted file.
+* */
+@DataJpaTest
+@Import({AssignmentServiceImpl.class, AssignmentMapperImpl.class, PaginationProperties.class})
+class AssignmentFileAccessTest {
+
+	@MockitoBean
+	private AttachmentStorageService attachmentStorageService;
+	@MockitoBean
+	private SubmissionUploadService submissionUploadService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private AssignmentServiceImpl assignmentService;
+
+	private Long assignmentId;
+
+	@BeforeEach
+	void seed() {
+		Grade grade = entityManager.persist(Grade.builder().name("Grade 5").build());
+		Section sectionA = entityManager.persist(Section.builder().name("A").grade(grade).build());
+		Section sectionB = entityManager.persist(Section.builder().name("B").grade(grade).build());
+		student(0, grade, sectionA);
+		student(1, grade, sectionA);
+		student(2, grade, sectionB);
+
+		Assignment assignment = entityManager.persist(Assignment.builder()
+				.title("Fractions worksheet")
+				.dueDate(LocalDate.now().plusDays(7))
+				.gradeId(grade.getId())
+				.sectionId(sectionA.getId())
+				.createdByRole("TEACHER")
+				.createdByUserId("teacher1")
+				.createdAt(LocalDateTime.now())
+				.attachments(List.of("sheet-ref"))
+				.status(AssignmentStatus.PUBLISHED)
+				.build());
+		assignmentId = assignment.getId();
+		entityManager.persist(AssignmentSubmission.builder()
+				.assignment(assignment)
+				.studentId("ZIS1")
+				.fileUrl("essay-ref")
+				.submissionStatus(SubmissionStatus.SUBMITTED)
+				.build());
+		entityManager.flush();
+
+		when(attachmentStorageService.open(anyString())).thenAnswer(call -> new StoredFile(call.getArgument(0),
+				"application/pdf", 1, 0L, "\"e\"", null, (start, end) -> new ByteArrayInputStream(new byte[1])));
+	}
+
+	@Test
+	@WithMockUser(username = "student0", roles = "STUDENT")
+	void studentInTheSectionGetsTheAttachment() {
+		assertEquals("sheet-ref", assignmentService.getAttachmentFile(assignmentId, 0, "student0").filename());
+	}
+
+	@Test
+	@WithMockUser(username = "student2", roles = "STUDENT")
+	void studentFromAnotherSectionIsDenied() {
+		assertThrows(AccessDeniedException.class, () -> assignmentService.getAttachmentFile(assignmentId, 0, "student2"));
+		verify(attachmentStorageService, never()).open(anyString());
+	}
+
+	@Test
+	@WithMockUser(username = "student1", roles = "STUDENT")
+	void studentGetsTheirOwnSubmission() {
+		assertEquals("essay-ref", assignmentService.getSubmissionFile(assignmentId, "ZIS1", "student1").filename());
+	}
+
+	@Test
+	@WithMockUser(username = "student0", roles = "STUDENT")
+	void studentCannotDownloadAClassmatesSubmission() {
+		assertThrows(AccessDeniedException.class, () -> assignmentService.getSubmissionFile(assignmentId, "ZIS1", "student0"));
+		verify(attachmentStorageService, never()).open(anyString());
+	}
+
+	@Test
+	@WithMockUser(username = "teacher1", roles = "TEACHER")
+	void staffGetAnyFile() {
+		assertEquals("sheet-ref", assignmentService.getAttachmentFile(assignmentId, 0, "teacher1").filename());
+		assertEquals("essay-ref", assignmentService.getSubmissionFile(assignmentId, "ZIS1", "teacher1").filename());
+	}
+
+	private void student(int n, Grade grade, Section section) {
+		entityManager.persist(Student.builder()
+				.studentId("ZIS" + n)
+				.firstName("First" + n)
+				.lastName("Last" + n)
+				.email("student" + n + "@zis.test")
+				.phone(String.format("98%08d", n))
+				.gender("F")
+				.dateOfBirth("2015-01-01")
+				.gradeName(grade.getName())
+				.sectionName(section.getName())
+				.grade(grade)
+				.section(section)
+				.username("student" + n)
+				.password("x")
+				.role("STUDENT")
+				.status(StudentStatus.ACTIVE)
+				.build());
+	}
+}
@@ -0,0 +1,141 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.PaginationProperties;
+import edu.zia.international.school.dto.assignment.AssignmentResponse;
+import edu.zia.international.school.dto.assignment.AssignmentSubmissionResponse;
+import edu.zia.international.school.dto.assignment.CreateAssignmentRequest;
+import edu.zia.international.school.entity.AssignmentSubmission;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.entity.Student;
+import edu.zia.international.school.enums.AssignmentStatus;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.enums.SubmissionStatus;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.mapper.AssignmentMapperImpl;
+import edu.zia.international.school.repository.AssignmentSubmissionRepository;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.service.SubmissionUploadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* PENDING submissions are derived from the roster; rows appear only when a student submits or is graded.
+* */
+@DataJpaTest
+@Import({AssignmentServiceImpl.class, AssignmentMapperImpl.class, PaginationProperties.class})
+class AssignmentSubmissionsTest {
+
+	@MockitoBean
+	private AttachmentStorageService attachmentStorageService;
+	@MockitoBean
+	private SubmissionUploadService submissionUploadService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private AssignmentServiceImpl assignmentService;
+	@Autowired
+	private AssignmentSubmissionRepository submissionRepository;
+
+	private Grade grade;
+	private Section sectionA;
+	private int students;
+
+	@BeforeEach
+	void seed() {
+		grade = entityManager.persist(Grade.builder().name("Grade 5").build());
+		sectionA = entityManager.persist(Section.builder().name("A").grade(grade).build());
+		Section sectionB = entityManager.persist(Section.builder().name("B").grade(grade).build());
+		student(sectionA);
+		student(sectionA);
+		student(sectionB);
+		entityManager.flush();
+	}
+
+	@Test
+	void publishingWritesNoSubmissionRows() {
+		AssignmentResponse published = publishToSectionA();
+
+		assertEquals(0, submissionRepository.count());
+		List<AssignmentSubmissionResponse> submissions = assignmentService.getSubmissions(published.getId());
+		assertEquals(List.of("ZIS0", "ZIS1"), submissions.stream().map(AssignmentSubmissionResponse::getStudentId).toList());
+		assertTrue(submissions.stream().allMatch(s -> s.getSubmissionStatus() == SubmissionStatus.PENDING));
+		// No row yet, so no id
+		assertTrue(submissions.stream().allMatch(s -> s.getId() == null));
+	}
+
+	@Test
+	void studentsJoiningLaterSeeTheAssignment() {
+		AssignmentResponse published = publishToSectionA();
+		student(sectionA);
+		entityManager.flush();
+
+		assertEquals(3, assignmentService.getSubmissions(published.getId()).size());
+	}
+
+	@Test
+	void gradingAVirtualSubmissionWritesItsRow() {
+		Long id = publishToSectionA().getId();
+
+		AssignmentSubmissionResponse graded = assignmentService.updateSubmissionStatus(id, "ZIS1",
+				SubmissionStatus.SUBMITTED, 8.5, "Well argued");
+		assertNotNull(graded.getId());
+		assertEquals(8.5, graded.getMarks());
+
+		entityManager.flush();
+		entityManager.clear();
+		assertEquals(1, submissionRepository.count());
+		List<AssignmentSubmissionResponse> submissions = assignmentService.getSubmissions(id);
+		assertEquals(2, submissions.size());
+		assertEquals(1, submissions.stream().filter(s -> s.getSubmissionStatus() == SubmissionStatus.PENDING).count());
+
+		// Section B isn't on this assignment's roster
+		assertThrows(ResourceNotFoundException.class, () -> assignmentService.updateSubmissionStatus(id, "ZIS2",
+				SubmissionStatus.SUBMITTED, 5.0, null));
+		assertEquals(List.of(), submissionRepository.findAll().stream()
+				.map(AssignmentSubmission::getStudentId).filter("ZIS2"::equals).toList());
+	}
+
+	private AssignmentResponse publishToSectionA() {
+		CreateAssignmentRequest request = CreateAssignmentRequest.builder()
+				.title("Fractions worksheet")
+				.dueDate(LocalDate.now().plusDays(7))
+				.gradeId(grade.getId())
+				.sectionId(sectionA.getId())
+				.status(AssignmentStatus.PUBLISHED)
+				.build();
+		return assignmentService.createAssignmentAsTeacher(request, null, "teacher1");
+	}
+
+	private void student(Section section) {
+		int n = students++;
+		entityManager.persist(Student.builder()
+				.studentId("ZIS" + n)
+				.firstName("First" + n)
+				.lastName("Last" + n)
+				.email("student" + n + "@zis.test")
+				.phone(String.format("98%08d", n))
+				.gender("F")
+				.dateOfBirth("2015-01-01")
+				.gradeName(grade.getName())
+				.sectionName(section.getName())
+				.grade(grade)
+				.section(section)
+				.username("student" + n)
+				.password("x")
+				.role("STUDENT")
+				.status(StudentStatus.ACTIVE)
+				.build());
+	}
+}
@@ -0,0 +1,159 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.StorageProperties;
+import edu.zia.international.school.entity.StoredBlob;
+import edu.zia.international.school.repository.StoredBlobRepository;
+import edu.zia.international.school.storage.BlobRef;
+import edu.zia.international.school.storage.BlobStore;
+import edu.zia.international.school.storage.LocalBlobStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* Dedupe, reference counting and the sweeper against the local backend.
+* H2 runs in MySQL mode for the INSERT ... ON DUPLICATE KEY UPDATE reference upsert.
+* */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:storage;MODE=MySQL;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AttachmentStorageServiceImpl.class, StorageProperties.class, AttachmentStorageServiceTest.LocalBackend.class})
+class AttachmentStorageServiceTest {
+
+	private static final byte[] WORKSHEET = "Fractions worksheet, page 1".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	static Path root;
+
+	@DynamicPropertySource
+	static void storageDirs(DynamicPropertyRegistry registry) {
+		registry.add("app.storage.staging-dir", () -> root.resolve("incoming").toString());
+		registry.add("app.storage.release-grace-minutes", () -> "-1");
+	}
+
+	@TestConfiguration
+	static class LocalBackend {
+		@Bean
+		BlobStore blobStore() {
+			return new LocalBlobStore(root.resolve("blobs"));
+		}
+	}
+
+	@Autowired
+	private AttachmentStorageServiceImpl storage;
+	@Autowired
+	private StoredBlobRepository storedBlobRepository;
+	@Autowired
+	private BlobStore blobStore;
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void identicalUploadsAreStoredOnce() throws IOException {
+		BlobRef first = BlobRef.parse(storage.store(upload("grade-5a.pdf", WORKSHEET))).orElseThrow();
+		BlobRef second = BlobRef.parse(storage.store(upload("grade-5b.pdf", WORKSHEET))).orElseThrow();
+
+		assertEquals(first.sha256(), second.sha256());
+		assertEquals("grade-5a.pdf", first.filename());
+		assertEquals("grade-5b.pdf", second.filename());
+
+		Path blob = ((LocalBlobStore) blobStore).resolve(first.sha256());
+		assertEquals(root.resolve("blobs").resolve(first.sha256().substring(0, 2))
+				.resolve(first.sha256().substring(2, 4)).resolve(first.sha256()), blob);
+		assertArrayEquals(WORKSHEET, Files.readAllBytes(blob));
+		assertEquals(2, refCount(first.sha256()));
+		try (Stream<Path> staged = Files.list(root.resolve("incoming"))) {
+			assertEquals(0, staged.count());
+		}
+	}
+
+	@Test
+	void sharedBlobSurvivesUntilLastReferenceIsReleased() {
+		String refA = storage.store(upload("a.pdf", WORKSHEET));
+		String refB = storage.store(upload("b.pdf", WORKSHEET));
+		String sha256 = BlobRef.parse(refA).orElseThrow().sha256();
+
+		storage.release(List.of(refA));
+		storage.sweepReleasedBlobs();
+		assertEquals(1, refCount(sha256));
+		assertTrue(Files.exists(((LocalBlobStore) blobStore).resolve(sha256)));
+
+		storage.release(List.of(refB));
+		entityManager.clear();
+		storage.sweepReleasedBlobs();
+		entityManager.flush();
+		entityManager.clear();
+		assertTrue(storedBlobRepository.findById(sha256).isEmpty());
+		assertFalse(Files.exists(((LocalBlobStore) blobStore).resolve(sha256)));
+
+		// Uploaded again after the sweep: the bytes are written back
+		storage.store(upload("a.pdf", WORKSHEET));
+		assertTrue(Files.exists(((LocalBlobStore) blobStore).resolve(sha256)));
+		assertEquals(1, refCount(sha256));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void bytesOfARolledBackUploadAreSwept() {
+		byte[] draft = "Draft that never got saved".getBytes(StandardCharsets.UTF_8);
+		String sha256 = transactionTemplate.execute(status -> {
+			String ref = storage.store(upload("draft.pdf", draft));
+			status.setRollbackOnly();
+			return BlobRef.parse(ref).orElseThrow().sha256();
+		});
+
+		assertTrue(Files.exists(((LocalBlobStore) blobStore).resolve(sha256)));
+		assertEquals(0, storedBlobRepository.findById(sha256).orElseThrow().getRefCount());
+
+		storage.sweepReleasedBlobs();
+		assertTrue(storedBlobRepository.findById(sha256).isEmpty());
+		assertFalse(Files.exists(((LocalBlobStore) blobStore).resolve(sha256)));
+	}
+
+	@Test
+	void legacyPathsAreNotReferences() {
+		assertTrue(BlobRef.parse("uploads/assignments/4f1c_notes.pdf").isEmpty());
+		assertDoesNotThrow(() -> storage.release(List.of("uploads/assignments/4f1c_notes.pdf")));
+	}
+
+	@Test
+	void filenamesCannotEscapeTheReference() {
+		assertEquals("passwd", AttachmentStorageServiceImpl.safeFilename("../../etc/passwd"));
+		assertEquals("report.pdf", AttachmentStorageServiceImpl.safeFilename("C:\\Users\\t\\report.pdf"));
+		assertEquals("file", AttachmentStorageServiceImpl.safeFilename(null));
+	}
+
+	private int refCount(String sha256) {
+		entityManager.flush();
+		entityManager.clear();
+		return storedBlobRepository.findById(sha256).map(StoredBlob::getRefCount).orElse(0);
+	}
+
+	private static MockMultipartFile upload(String name, byte[] content) {
+		return new MockMultipartFile("files", name, "application/pdf", content);
+	}
+}
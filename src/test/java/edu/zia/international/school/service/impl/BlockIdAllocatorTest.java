@@ -0,0 +1,76 @@
+package edu.zia.international.school.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockIdAllocatorTest {
+
+	private static final int CREATORS = 64;
+	private static final int IDS_PER_CREATOR = 500;
+
+	@Test
+	void noDuplicatesUnderParallelCreators() throws Exception {
+		// Stands in for the serial table: each reservation is an atomic read-modify-write, as under the row lock
+		Map<Integer, AtomicInteger> lastSerialByYear = new ConcurrentHashMap<>();
+		AtomicInteger reservations = new AtomicInteger();
+		BlockIdAllocator.BlockReserver reserver = (year, blockSize) -> {
+			reservations.incrementAndGet();
+			return lastSerialByYear.computeIfAbsent(year, y -> new AtomicInteger()).getAndAdd(blockSize) + 1;
+		};
+
+		// Two "nodes" sharing the same table
+		BlockIdAllocator nodeA = new BlockIdAllocator(reserver, 20);
+		BlockIdAllocator nodeB = new BlockIdAllocator(reserver, 20);
+
+		ExecutorService pool = Executors.newFixedThreadPool(CREATORS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<List<String>>> futures = new ArrayList<>();
+		for (int i = 0; i < CREATORS; i++) {
+			BlockIdAllocator node = i % 2 == 0 ? nodeA : nodeB;
+			int year = 2025 + i % 3;
+			futures.add(pool.submit(() -> {
+				start.await();
+				List<String> ids = new ArrayList<>(IDS_PER_CREATOR);
+				for (int n = 0; n < IDS_PER_CREATOR; n++) {
+					ids.add(String.format("STD%d%04d", year, node.next(year)));
+				}
+				return ids;
+			}));
+		}
+		start.countDown();
+
+		Set<String> unique = ConcurrentHashMap.newKeySet();
+		int total = 0;
+		for (Future<List<String>> future : futures) {
+			List<String> ids = future.get(30, TimeUnit.SECONDS);
+			total += ids.size();
+			unique.addAll(ids);
+		}
+		pool.shutdown();
+
+		assertEquals(CREATORS * IDS_PER_CREATOR, total);
+		assertEquals(total, unique.size(), "duplicate IDs were handed out");
+		// At most one partially used block per node and year
+		assertTrue(reservations.get() <= total / 20 + 2 * 3);
+	}
+
+	@Test
+	void blocksAreHandedOutInOrderWithinANode() {
+		AtomicInteger last = new AtomicInteger();
+		BlockIdAllocator allocator = new BlockIdAllocator((year, blockSize) -> last.getAndAdd(blockSize) + 1, 3);
+
+		for (int expected = 1; expected <= 10; expected++) {
+			assertEquals(expected, allocator.next(2025));
+		}
+		assertEquals(12, last.get());
+	}
+}
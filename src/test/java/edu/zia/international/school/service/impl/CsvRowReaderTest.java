@@ -0,0 +1,62 @@
+package edu.zia.international.school.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowReaderTest {
+
+	@Test
+	void readsPlainAndQuotedFields() throws IOException {
+		CsvRowReader csv = reader("ZIS1, Amina ,\"Rahman, Jr.\",\"say \"\"hi\"\"\",\n");
+
+		assertEquals(List.of("ZIS1", "Amina", "Rahman, Jr.", "say \"hi\"", ""), csv.next());
+		assertNull(csv.next());
+	}
+
+	@Test
+	void quotedFieldsSpanLinesAndRecordLineIsWhereTheRecordStarts() throws IOException {
+		CsvRowReader csv = reader("firstName,address\r\nAmina,\"12 Lake Road\r\nPokhara\"\r\n\r\nBikash,Kathmandu");
+
+		assertEquals(List.of("firstName", "address"), csv.next());
+		assertEquals(1, csv.recordLine());
+		assertEquals(List.of("Amina", "12 Lake Road\r\nPokhara"), csv.next());
+		assertEquals(2, csv.recordLine());
+		// Blank lines are skipped but still counted; no newline at the end of the file
+		assertEquals(List.of("Bikash", "Kathmandu"), csv.next());
+		assertEquals(5, csv.recordLine());
+		assertNull(csv.next());
+	}
+
+	@Test
+	void bareCarriageReturnEndsARecord() throws IOException {
+		CsvRowReader csv = reader("a,b\rc,d\r");
+
+		assertEquals(List.of("a", "b"), csv.next());
+		assertEquals(List.of("c", "d"), csv.next());
+		assertNull(csv.next());
+	}
+
+	@Test
+	void unterminatedQuoteIsAnError() throws IOException {
+		CsvRowReader csv = reader("a,b\nc,\"never closed\nd,e\n");
+
+		assertEquals(List.of("a", "b"), csv.next());
+		IOException error = assertThrows(IOException.class, csv::next);
+		assertEquals("Unterminated quoted field starting on line 2", error.getMessage());
+	}
+
+	@Test
+	void emptyInputHasNoRecords() throws IOException {
+		assertNull(reader("").next());
+		assertNull(reader("\r\n\n").next());
+	}
+
+	private static CsvRowReader reader(String csv) {
+		return new CsvRowReader(new StringReader(csv));
+	}
+}
@@ -0,0 +1,43 @@
+package edu.zia.international.school.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvRowWriterTest {
+
+	@Test
+	void quotesOnlyFieldsThatNeedIt() throws IOException {
+		assertEquals("ZIS1,Amina,\"Rahman, Jr.\",\"say \"\"hi\"\"\",\"line\r\nbreak\"\r\n",
+				write(List.of("ZIS1", "Amina", "Rahman, Jr.", "say \"hi\"", "line\r\nbreak")));
+	}
+
+	@Test
+	void nullIsAnEmptyField() throws IOException {
+		assertEquals("a,,c\r\n", write(Arrays.asList("a", null, "c")));
+	}
+
+	@Test
+	void formulasAreWrittenAsText() throws IOException {
+		assertEquals("\"'=HYPERLINK(\"\"x\"\")\",'+977 9800000001,'-2+3,'@SUM(A1),'\tcmd,plain\r\n",
+				write(List.of("=HYPERLINK(\"x\")", "+977 9800000001", "-2+3", "@SUM(A1)", "\tcmd", "plain")));
+		// The prefix comes before quoting, so it stays inside the quotes
+		assertEquals("\"'=1,2\"\r\n", write(List.of("=1,2")));
+	}
+
+	@Test
+	void numbersAreNotPrefixed() throws IOException {
+		assertEquals("-3,12\r\n", write(List.of(-3, 12L)));
+	}
+
+	private static String write(List<?> fields) throws IOException {
+		StringWriter out = new StringWriter();
+		new CsvRowWriter(out).write(fields);
+		return out.toString();
+	}
+}
@@ -0,0 +1,94 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.IdAllocationProperties;
+import edu.zia.international.school.entity.StudentSerial;
+import edu.zia.international.school.entity.TeacherSerial;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.repository.StudentSerialRepository;
+import edu.zia.international.school.repository.TeacherSerialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* The database side of the allocator: blocks reserved in the serial tables, the first row of a year created on demand,
+* the ID format's serial limit, and the rule that callers allocate outside their transaction.
+* Blocks of 3 students and 2 teachers.
+* */
+@DataJpaTest(properties = {
+		"app.id-allocation.student-block-size=3",
+		"app.id-allocation.teacher-block-size=2"
+})
+@Import({IdAllocationServiceImpl.class, IdAllocationProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdAllocationServiceTest {
+
+	@Autowired
+	private IdAllocationServiceImpl idAllocationService;
+	@Autowired
+	private StudentSerialRepository studentSerialRepository;
+	@Autowired
+	private TeacherSerialRepository teacherSerialRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		studentSerialRepository.deleteAll();
+		teacherSerialRepository.deleteAll();
+	}
+
+	@Test
+	void studentIdsComeFromBlocksReservedInTheSerialTable() {
+		List<String> ids = IntStream.range(0, 4).mapToObj(i -> idAllocationService.nextStudentId(2031)).toList();
+
+		assertEquals(List.of("STD20310001", "STD20310002", "STD20310003", "STD20310004"), ids);
+		// The year's row was created on first use; two blocks of 3 reserved so far
+		assertEquals(6, studentSerialRepository.findAll().stream()
+				.filter(serial -> serial.getYear() == 2031).findFirst().orElseThrow().getLastSerial());
+	}
+
+	@Test
+	void blocksContinueFromAnotherNodesReservation() {
+		studentSerialRepository.save(StudentSerial.builder().year(2032).lastSerial(40).build());
+		teacherSerialRepository.save(new TeacherSerial(2032, 7));
+
+		assertEquals("STD20320041", idAllocationService.nextStudentId(2032));
+		assertEquals("ZIA2032008", idAllocationService.nextEmpId(2032));
+		assertEquals(9, teacherSerialRepository.findById(2032).orElseThrow().getLastSerial());
+	}
+
+	@Test
+	void employeeSerialsStopAtTheFormatLimit() {
+		teacherSerialRepository.save(new TeacherSerial(2033, 998));
+
+		assertEquals("ZIA2033999", idAllocationService.nextEmpId(2033));
+		AppRuntimeException exhausted = assertThrows(AppRuntimeException.class, () -> idAllocationService.nextEmpId(2033));
+		assertEquals(HttpStatus.CONFLICT, exhausted.getHttpStatus());
+	}
+
+	@Test
+	void studentSerialsStopAtTheFormatLimit() {
+		studentSerialRepository.save(StudentSerial.builder().year(2034).lastSerial(9999).build());
+
+		assertThrows(AppRuntimeException.class, () -> idAllocationService.nextStudentId(2034));
+	}
+
+	@Test
+	void allocatingInsideATransactionFails() {
+		assertThrows(IllegalStateException.class,
+				() -> transactionTemplate.executeWithoutResult(status -> idAllocationService.nextStudentId(2035)));
+		assertTrue(studentSerialRepository.findAll().isEmpty());
+	}
+}
@@ -0,0 +1,103 @@
+package edu.zia.international.school.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageVariantsTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void scalesLongestEdgeWithoutUpscaling() {
+		BufferedImage landscape = ImageVariants.scaleToFit(new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB), 640);
+		assertEquals(640, landscape.getWidth());
+		assertEquals(480, landscape.getHeight());
+
+		BufferedImage portrait = ImageVariants.scaleToFit(new BufferedImage(300, 1200, BufferedImage.TYPE_INT_RGB), 160);
+		assertEquals(40, portrait.getWidth());
+		assertEquals(160, portrait.getHeight());
+
+		BufferedImage small = ImageVariants.scaleToFit(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), 640);
+		assertEquals(100, small.getWidth());
+		assertEquals(50, small.getHeight());
+	}
+
+	@Test
+	void flattensTransparencyOntoWhite() {
+		BufferedImage transparent = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage flattened = ImageVariants.scaleToFit(transparent, 160);
+
+		assertEquals(BufferedImage.TYPE_INT_RGB, flattened.getType());
+		assertEquals(0xFFFFFF, flattened.getRGB(5, 5) & 0xFFFFFF);
+	}
+
+	@Test
+	void reEncodingDropsSourceMetadata() throws IOException {
+		Path source = dir.resolve("upload.jpg");
+		Files.write(source, jpegWithComment("GPS 27.7172N 85.3240E"));
+		assertTrue(contains(Files.readAllBytes(source), "GPS 27.7172N"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BufferedImage decoded = ImageVariants.read(source, 1_000_000);
+		ImageVariants.writeJpeg(ImageVariants.scaleToFit(decoded, 16), 0.85f, out);
+
+		byte[] variant = out.toByteArray();
+		assertFalse(contains(variant, "GPS 27.7172N"));
+		assertNotNull(ImageIO.read(new ByteArrayInputStream(variant)));
+	}
+
+	@Test
+	void rejectsOversizedAndNonImageSources() throws IOException {
+		Path large = dir.resolve("large.png");
+		ImageIO.write(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "png", large.toFile());
+		assertThrows(IOException.class, () -> ImageVariants.read(large, 100 * 100));
+
+		Path text = dir.resolve("notes.jpg");
+		Files.writeString(text, "not an image");
+		assertFalse(ImageVariants.isReadable(text));
+		assertTrue(ImageVariants.isReadable(large));
+	}
+
+	// A JPEG carrying a COM segment, standing in for camera/EXIF metadata
+	private static byte[] jpegWithComment(String comment) throws IOException {
+		BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), null);
+		IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree("javax_imageio_jpeg_image_1.0");
+		IIOMetadataNode com = new IIOMetadataNode("com");
+		com.setAttribute("comment", comment);
+		((IIOMetadataNode) root.getElementsByTagName("markerSequence").item(0)).appendChild(com);
+		metadata.setFromTree("javax_imageio_jpeg_image_1.0", root);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+			writer.setOutput(output);
+			writer.write(new IIOImage(image, null, metadata));
+		} finally {
+			writer.dispose();
+		}
+		return out.toByteArray();
+	}
+
+	private static boolean contains(byte[] haystack, String needle) {
+		return new String(haystack, StandardCharsets.ISO_8859_1).contains(needle);
+	}
+}
@@ -0,0 +1,220 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.PaginationProperties;
+import edu.zia.international.school.dto.assignment.AssignmentResponse;
+import edu.zia.international.school.dto.student.StudentResponse;
+import edu.zia.international.school.entity.Assignment;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.entity.Student;
+import edu.zia.international.school.entity.Subject;
+import edu.zia.international.school.entity.Teacher;
+import edu.zia.international.school.enums.AssignmentStatus;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.enums.TeacherStatus;
+import edu.zia.international.school.mapper.AssignmentMapperImpl;
+import edu.zia.international.school.mapper.StudentMapperImpl;
+import edu.zia.international.school.mapper.TeacherMapperImpl;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.service.EmailService;
+import edu.zia.international.school.service.IdAllocationService;
+import edu.zia.international.school.service.ProfileImageService;
+import edu.zia.international.school.service.SubmissionUploadService;
+import edu.zia.international.school.support.QueryCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+* Pins the statement count of every student/teacher/assignment list path, so an N+1 regression fails the build.
+* Runs on the embedded H2 database; Hibernate builds the schema from the entities.
+* */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({StudentServiceImpl.class, TeacherServiceImpl.class, AssignmentServiceImpl.class, PaginationProperties.class,
+		StudentMapperImpl.class, TeacherMapperImpl.class, AssignmentMapperImpl.class})
+class ListQueryCountTest {
+
+	private static final int STUDENTS_PER_SECTION = 3;
+
+	@MockitoBean
+	private PasswordEncoder passwordEncoder;
+	@MockitoBean
+	private EmailService emailService;
+	@MockitoBean
+	private IdAllocationService idAllocationService;
+	@MockitoBean
+	private ProfileImageService profileImageService;
+	@MockitoBean
+	private AttachmentStorageService attachmentStorageService;
+	@MockitoBean
+	private SubmissionUploadService submissionUploadService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private StudentServiceImpl studentService;
+	@Autowired
+	private TeacherServiceImpl teacherService;
+	@Autowired
+	private AssignmentServiceImpl assignmentService;
+
+	private QueryCounter queries;
+
+	@BeforeEach
+	void seed() {
+		List<Subject> subjects = List.of(
+				entityManager.persist(Subject.builder().name("Maths").build()),
+				entityManager.persist(Subject.builder().name("Science").build()),
+				entityManager.persist(Subject.builder().name("English").build()));
+
+		int n = 0;
+		for (String gradeName : List.of("Grade 1", "Grade 2")) {
+			Grade grade = entityManager.persist(Grade.builder().name(gradeName).build());
+			for (String sectionName : List.of("A", "B")) {
+				Section section = entityManager.persist(Section.builder().name(sectionName).grade(grade).build());
+				for (int i = 0; i < STUDENTS_PER_SECTION; i++, n++) {
+					entityManager.persist(student(n, grade, section));
+				}
+				entityManager.persist(teacher(n, grade, section, List.of(subjects.get(n % 3), subjects.get((n + 1) % 3))));
+				entityManager.persist(assignment(n, grade, section));
+			}
+		}
+		// Start every test from an empty persistence context so lazy loads actually hit the database
+		entityManager.flush();
+		entityManager.clear();
+		queries = QueryCounter.of(entityManagerFactory);
+	}
+
+	@Test
+	void allStudentsIsOneQuery() {
+		assertEquals(12, queries.assertQueries(1, () -> studentService.getAllStudents()).size());
+		// Projections only: nothing is materialized as a managed entity
+		assertEquals(0, queries.entitiesLoaded());
+	}
+
+	@Test
+	void studentsPageIsOneQuery() {
+		assertEquals(5, queries.assertQueries(1, () -> studentService.getStudentsPage(null, 5, "lastName", "asc")).items().size());
+	}
+
+	@Test
+	void studentsByGradeAndSectionIsOneQuery() {
+		assertEquals(3, queries.assertQueries(1, () -> studentService.getStudentsByGradeAndSection("Grade 1", "A")).size());
+	}
+
+	@Test
+	void studentSearchIsOneQuery() {
+		// A short first page needs no count query
+		assertEquals(6, queries.assertQueries(1, () -> studentService.searchStudents(
+				null, null, "Grade 2", null, null, null, 0, 50)).getNumberOfElements());
+	}
+
+	@Test
+	void studentNameSearchMatchesFullNameOrLastNamePrefix() {
+		// Last1, Last10, Last11, matched case-insensitively through the generated last_name_normalized column
+		assertEquals(3, queries.assertQueries(1, () -> studentService.searchStudents(
+				null, null, null, null, null, "LAST1", 0, 50)).getNumberOfElements());
+		assertEquals(1, studentService.searchStudents(null, null, null, null, null, " first2   last", 0, 50).getNumberOfElements());
+	}
+
+	@Test
+	void fullStudentSearchPageReportsMore() {
+		Page<StudentResponse> page = studentService.searchStudents(null, null, null, null, null, "first", 0, 5);
+		assertEquals(5, page.getSize());
+		assertEquals(12, page.getTotalElements());
+		assertTrue(page.hasNext());
+	}
+
+	// Teacher lists are the scalar rows plus one subject-name lookup for the whole list
+
+	@Test
+	void allTeachersIsTwoQueries() {
+		assertEquals(4, queries.assertQueries(2, () -> teacherService.getAllTeachers()).size());
+	}
+
+	@Test
+	void teacherSearchIsTwoQueries() {
+		assertEquals(2, queries.assertQueries(2, () -> teacherService.searchTeachers(
+				null, "Grade 1", null, null, null, null, null)).size());
+	}
+
+	@Test
+	void teachersPageIsTwoQueries() {
+		assertEquals(4, queries.assertQueries(2, () -> teacherService.getTeachersPage(null, 10, "fullName", "asc")).items().size());
+	}
+
+	// Creator names and attachments for the whole page, not per assignment
+
+	@Test
+	void adminAssignmentPageIsThreeQueries() {
+		List<AssignmentResponse> page = queries.assertQueries(3, () -> assignmentService.getAllAssignmentsAdmin(0, 10)).getContent();
+		assertEquals(4, page.size());
+		assertEquals("Teacher 12", page.get(0).getCreatedByTeacherId());
+		assertEquals(2, page.get(0).getAttachmentUrls().size());
+	}
+
+	private static Assignment assignment(int n, Grade grade, Section section) {
+		return Assignment.builder()
+				.title("Assignment " + n)
+				.gradeId(grade.getId())
+				.sectionId(section.getId())
+				.createdByRole("TEACHER")
+				.createdByUserId("teacher" + n)
+				.createdAt(LocalDateTime.now().plusMinutes(n))
+				.attachments(List.of("notes-" + n + ".pdf", "worksheet-" + n + ".pdf"))
+				.status(AssignmentStatus.PUBLISHED)
+				.build();
+	}
+
+	private static Student student(int n, Grade grade, Section section) {
+		return Student.builder()
+				.studentId("ZIS" + n)
+				.firstName("First" + n)
+				.lastName("Last" + n)
+				.email("student" + n + "@zis.test")
+				.phone(String.format("98%08d", n))
+				.gender("F")
+				.dateOfBirth("2015-01-01")
+				.gradeName(grade.getName())
+				.sectionName(section.getName())
+				.grade(grade)
+				.section(section)
+				.username("student" + n)
+				.password("x")
+				.role("STUDENT")
+				.status(StudentStatus.ACTIVE)
+				.build();
+	}
+
+	private static Teacher teacher(int n, Grade grade, Section section, List<Subject> subjects) {
+		return Teacher.builder()
+				.fullName("Teacher " + n)
+				.email("teacher" + n + "@zis.test")
+				.username("teacher" + n)
+				.empId("EMP" + n)
+				.role("TEACHER")
+				.status(TeacherStatus.ACTIVE)
+				.teacherType("FULL_TIME")
+				.subjects(subjects)
+				.grade(grade)
+				.section(section)
+				.build();
+	}
+}
@@ -0,0 +1,65 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.dto.search.NameIndexEntry;
+import edu.zia.international.school.dto.search.SearchSuggestion;
+import edu.zia.international.school.enums.PersonType;
+import edu.zia.international.school.repository.StudentRepository;
+import edu.zia.international.school.repository.TeacherRepository;
+import edu.zia.international.school.service.NameIndexChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NameSuggestServiceImplTest {
+
+	private final StudentRepository studentRepository = mock(StudentRepository.class);
+	private final TeacherRepository teacherRepository = mock(TeacherRepository.class);
+	private final NameSuggestServiceImpl service = new NameSuggestServiceImpl(studentRepository, teacherRepository);
+
+	@BeforeEach
+	void load() {
+		when(studentRepository.findAllNameIndexEntries()).thenReturn(List.of(
+				new NameIndexEntry("ZIS1", "Janet Smith", "jsmith"),
+				new NameIndexEntry("ZIS2", "Peter Jones", "pjones")));
+		when(teacherRepository.findAllNameIndexEntries()).thenReturn(List.of(
+				new NameIndexEntry("ZIE1", "Janet Adams", "jadams")));
+		service.loadIndex();
+	}
+
+	@Test
+	void writesOnThisNodeApplyImmediately() {
+		service.onNameIndexChanged(NameIndexChangedEvent.upsert(PersonType.STUDENT,
+				new NameIndexEntry("ZIS1", "Janet Brown", "jsmith")));
+		service.onNameIndexChanged(NameIndexChangedEvent.removed(PersonType.STUDENT, "ZIS2"));
+
+		assertEquals(List.of("ZIS1"), codes(service.suggest("brown", PersonType.STUDENT, null)));
+		assertEquals(List.of(), codes(service.suggest("smith", null, null)));
+		assertEquals(List.of(), codes(service.suggest("peter", null, null)));
+	}
+
+	@Test
+	void rebuildPicksUpChangesMadeOnOtherNodes() {
+		// Rename, delete and insert committed elsewhere: no event reaches this node
+		when(studentRepository.findAllNameIndexEntries()).thenReturn(List.of(
+				new NameIndexEntry("ZIS1", "Janet Brown", "jsmith"),
+				new NameIndexEntry("ZIS3", "Maria Lopez", "mlopez")));
+		assertEquals(List.of("ZIS1"), codes(service.suggest("smith", null, null)));
+
+		service.loadIndex();
+
+		assertEquals(List.of("ZIS1"), codes(service.suggest("brown", null, null)));
+		assertEquals(List.of(), codes(service.suggest("smith", null, null)));
+		assertEquals(List.of(), codes(service.suggest("peter", null, null)));
+		assertEquals(List.of("ZIS3"), codes(service.suggest("lopez", null, null)));
+		assertEquals(List.of("ZIS1", "ZIE1"), codes(service.suggest("janet", null, null)));
+	}
+
+	private static List<String> codes(List<SearchSuggestion> suggestions) {
+		return suggestions.stream().map(SearchSuggestion::code).toList();
+	}
+}
@@ -0,0 +1,212 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.ProfileImageProperties;
+import edu.zia.international.school.entity.Student;
+import edu.zia.international.school.enums.PersonType;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.exception.ServiceUnavailableException;
+import edu.zia.international.school.repository.StudentRepository;
+import edu.zia.international.school.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* The service around ImageVariants: hand-off to the workers after commit, newer uploads winning over slower
+* older ones, 503 once every slot is taken, and resuming committed uploads after a restart.
+* One worker and one queue slot, so at most two uploads are in flight.
+* */
+@DataJpaTest(properties = {
+		"app.profile-images.threads=1",
+		"app.profile-images.queue-capacity=1"
+})
+@Import({ProfileImageProperties.class, ProfileImageServiceTest.Pipeline.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProfileImageServiceTest {
+
+	@TempDir
+	static Path root;
+
+	@DynamicPropertySource
+	static void stagingDir(DynamicPropertyRegistry registry) {
+		registry.add("app.profile-images.staging-dir", () -> root.resolve("incoming").toString());
+	}
+
+	@TestConfiguration
+	static class Pipeline {
+		@Bean
+		ProfileImageServiceImpl profileImageService(ProfileImageProperties properties, StudentRepository studentRepository,
+													TeacherRepository teacherRepository, ApplicationEventPublisher eventPublisher) {
+			return new ProfileImageServiceImpl(properties, studentRepository, teacherRepository, eventPublisher,
+					root.resolve("uploads"));
+		}
+	}
+
+	@Autowired
+	private ProfileImageServiceImpl profileImageService;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void seed() {
+		studentRepository.save(Student.builder()
+				.studentId("ZIS1")
+				.firstName("Amina")
+				.lastName("Rahman")
+				.email("amina@zis.test")
+				.phone("9800000001")
+				.gender("F")
+				.dateOfBirth("2015-01-01")
+				.gradeName("Grade 5")
+				.sectionName("A")
+				.username("amina")
+				.password("x")
+				.role("STUDENT")
+				.status(StudentStatus.ACTIVE)
+				.build());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		studentRepository.deleteAll();
+	}
+
+	@Test
+	void photoIsResizedInTheBackgroundAfterCommit() throws Exception {
+		byte[] photo = png(Color.RED);
+		transactionTemplate.executeWithoutResult(status -> {
+			profileImageService.submit(PersonType.STUDENT, "ZIS1", upload(photo));
+			// Nothing is handed to the workers before the commit
+			assertNull(profileImageUrl());
+		});
+
+		awaitIdle();
+		String hash = sha256(photo);
+		assertEquals("profiles/" + hash.substring(0, 2) + "/" + hash + "-640.jpg", profileImageUrl());
+		assertTrue(Files.exists(root.resolve("uploads").resolve(profileImageUrl())));
+	}
+
+	@Test
+	void olderUploadCommittingLastDoesNotReplaceTheNewerPhoto() throws Exception {
+		byte[] older = png(Color.RED);
+		byte[] newer = png(Color.BLUE);
+		TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		requiresNew.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+
+		transactionTemplate.executeWithoutResult(outer -> {
+			profileImageService.submit(PersonType.STUDENT, "ZIS1", upload(older));
+			requiresNew.executeWithoutResult(inner -> profileImageService.submit(PersonType.STUDENT, "ZIS1", upload(newer)));
+		});
+
+		awaitIdle();
+		assertTrue(profileImageUrl().contains(sha256(newer)));
+	}
+
+	@Test
+	void uploadsBeyondTheInFlightLimitAreRefused() {
+		transactionTemplate.executeWithoutResult(status -> {
+			profileImageService.submit(PersonType.STUDENT, "ZIS1", upload(png(Color.RED)));
+			profileImageService.submit(PersonType.STUDENT, "ZIS1", upload(png(Color.GREEN)));
+			assertThrows(ServiceUnavailableException.class,
+					() -> profileImageService.submit(PersonType.STUDENT, "ZIS1", upload(png(Color.BLUE))));
+			status.setRollbackOnly();
+		});
+
+		// The rollback gave both slots back and left nothing staged
+		assertEquals(0, stagedFiles());
+		assertDoesNotThrow(() -> profileImageService.submit(PersonType.STUDENT, "ZIS1", upload(png(Color.BLUE))));
+		awaitIdle();
+	}
+
+	@Test
+	void committedUploadsAreResumedAfterARestart() throws Exception {
+		Path incoming = Files.createDirectories(root.resolve("incoming"));
+		byte[] stale = png(Color.RED);
+		byte[] latest = png(Color.BLUE);
+		Files.write(incoming.resolve("STUDENT.ZIS1.100.pending"), stale);
+		Files.write(incoming.resolve("STUDENT.ZIS1.200.pending"), latest);
+		Files.setLastModifiedTime(incoming.resolve("STUDENT.ZIS1.100.pending"),
+				FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+		// Staged by an upload whose transaction never committed
+		Files.write(incoming.resolve("STUDENT.ZIS1.300.part"), png(Color.GREEN));
+
+		profileImageService.resumePending();
+
+		awaitIdle();
+		assertTrue(profileImageUrl().contains(sha256(latest)));
+	}
+
+	private String profileImageUrl() {
+		return studentRepository.findByStudentId("ZIS1").orElseThrow().getProfileImageUrl();
+	}
+
+	// Every staged file is deleted once its resize finishes (or is skipped)
+	private void awaitIdle() {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (stagedFiles() > 0) {
+			assertTrue(System.currentTimeMillis() < deadline, "resize did not finish");
+			Thread.onSpinWait();
+		}
+	}
+
+	private long stagedFiles() {
+		try (Stream<Path> files = Files.list(root.resolve("incoming"))) {
+			return files.count();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static MockMultipartFile upload(byte[] content) {
+		return new MockMultipartFile("image", "photo.png", "image/png", content);
+	}
+
+	private static byte[] png(Color color) {
+		BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(color);
+		graphics.fillRect(0, 0, 800, 600);
+		graphics.dispose();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ImageIO.write(image, "png", out);
+			return out.toByteArray();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String sha256(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+}
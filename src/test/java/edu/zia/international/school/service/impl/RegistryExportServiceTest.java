@@ -0,0 +1,135 @@
+package edu.zia.international.school.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.zia.international.school.config.ExportProperties;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.entity.Student;
+import edu.zia.international.school.entity.Subject;
+import edu.zia.international.school.entity.Teacher;
+import edu.zia.international.school.enums.ExportFormat;
+import edu.zia.international.school.enums.StudentStatus;
+import edu.zia.international.school.enums.TeacherStatus;
+import edu.zia.international.school.mapper.StudentMapperImpl;
+import edu.zia.international.school.mapper.TeacherMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* Both export formats over real rows; a teacher batch size of 2 makes the subject lookup span several batches.
+* */
+@DataJpaTest(properties = {
+		"app.export.teacher-batch-size=2"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({RegistryExportServiceImpl.class, ExportProperties.class, StudentMapperImpl.class, TeacherMapperImpl.class})
+class RegistryExportServiceTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private RegistryExportServiceImpl exportService;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void seed() {
+		Subject maths = entityManager.persist(Subject.builder().name("Maths").build());
+		Subject science = entityManager.persist(Subject.builder().name("Science").build());
+		Grade grade = entityManager.persist(Grade.builder().name("Grade 5").build());
+		Section section = entityManager.persist(Section.builder().name("A").grade(grade).build());
+
+		entityManager.persist(student(1, "Amina", "Rahman, Jr.", grade, section));
+		entityManager.persist(student(2, "=HYPERLINK(\"http://evil.test\")", "Shrestha", grade, section));
+		for (int n = 1; n <= 3; n++) {
+			entityManager.persist(Teacher.builder()
+					.fullName("Teacher " + n)
+					.email("teacher" + n + "@zis.test")
+					.username("teacher" + n)
+					.empId("EMP" + n)
+					.role("TEACHER")
+					.status(TeacherStatus.ACTIVE)
+					.teacherType("FULL_TIME")
+					.subjects(n == 2 ? List.of(maths, science) : List.of(maths))
+					.grade(grade)
+					.section(section)
+					.build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void studentsAsNdjson() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(2, exportService.exportStudents(ExportFormat.NDJSON, out));
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertEquals("ZIS1", first.get("studentId").asText());
+		assertEquals("Rahman, Jr.", first.get("lastName").asText());
+		assertEquals("Grade 5", first.get("gradeName").asText());
+		assertEquals("=HYPERLINK(\"http://evil.test\")", objectMapper.readTree(lines[1]).get("firstName").asText());
+	}
+
+	@Test
+	void studentsAsCsv() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(2, exportService.exportStudents(ExportFormat.CSV, out));
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("studentId,firstName,lastName,username,email,"));
+		assertTrue(lines[1].startsWith("ZIS1,Amina,\"Rahman, Jr.\",student1,student1@zis.test,"));
+		// Formula-looking names come out as text
+		assertTrue(lines[2].startsWith("ZIS2,\"'=HYPERLINK(\"\"http://evil.test\"\")\",Shrestha,"));
+	}
+
+	@Test
+	void teachersCarryTheirSubjectsAcrossBatches() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(3, exportService.exportTeachers(ExportFormat.CSV, out));
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals(4, lines.length);
+		assertTrue(lines[0].contains(",subjects,"));
+		assertTrue(lines[1].contains(",Maths,"));
+		assertTrue(lines[2].contains("Maths; Science") || lines[2].contains("Science; Maths"), lines[2]);
+		assertTrue(lines[3].startsWith("EMP3,Teacher 3,") && lines[3].contains(",Maths,"));
+	}
+
+	private static Student student(int n, String firstName, String lastName, Grade grade, Section section) {
+		return Student.builder()
+				.studentId("ZIS" + n)
+				.firstName(firstName)
+				.lastName(lastName)
+				.email("student" + n + "@zis.test")
+				.phone(String.format("98%08d", n))
+				.gender("F")
+				.dateOfBirth("2015-01-01")
+				.gradeName(grade.getName())
+				.sectionName(section.getName())
+				.grade(grade)
+				.section(section)
+				.username("student" + n)
+				.password("x")
+				.role("STUDENT")
+				.status(StudentStatus.ACTIVE)
+				.build();
+	}
+}
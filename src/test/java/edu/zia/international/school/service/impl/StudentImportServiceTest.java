@@ -0,0 +1,175 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.StudentImportProperties;
+import edu.zia.international.school.dto.student.StudentImportResponse;
+import edu.zia.international.school.dto.student.StudentImportRowError;
+import edu.zia.international.school.entity.Grade;
+import edu.zia.international.school.entity.Role;
+import edu.zia.international.school.entity.Section;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.repository.GradeRepository;
+import edu.zia.international.school.repository.RoleRepository;
+import edu.zia.international.school.repository.SectionRepository;
+import edu.zia.international.school.service.EmailService;
+import edu.zia.international.school.service.IdAllocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+/*
+* The per-row error report: validation, duplicates against the database and earlier rows, unknown grade/section,
+* unparseable dates, and a failing chunk reported against each of its rows. Chunks of 2; chunks really commit.
+* */
+@DataJpaTest(properties = {
+		"app.student-import.chunk-size=2"
+})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({StudentImportServiceImpl.class, StudentImportProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentImportServiceTest {
+
+	private static final String HEADER =
+			"firstName,lastName,email,phone,gender,dateOfBirth,gradeName,sectionName,guardianName,guardianPhone,admissionDate\n";
+
+	@MockitoBean
+	private IdAllocationService idAllocationService;
+	@MockitoBean
+	private PasswordEncoder passwordEncoder;
+	@MockitoBean
+	private EmailService emailService;
+
+	@Autowired
+	private StudentImportServiceImpl studentImportService;
+	@Autowired
+	private RoleRepository roleRepository;
+	@Autowired
+	private GradeRepository gradeRepository;
+	@Autowired
+	private SectionRepository sectionRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final AtomicInteger serial = new AtomicInteger();
+
+	@BeforeEach
+	void seed() {
+		Role role = roleRepository.save(new Role(0, "STUDENT"));
+		Grade grade = gradeRepository.save(Grade.builder().name("Grade 5").build());
+		sectionRepository.save(Section.builder().name("A").grade(grade).build());
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		jdbcTemplate.update("""
+				INSERT INTO users (name, username, email, password, assigned_role, role_id,
+				                   created_date, updated_date, is_password_reset, token_version)
+				VALUES ('Taken User', 'taken', 'taken@zis.test', 'x', 'STUDENT', ?, ?, ?, false, 0)
+				""", role.getId(), now, now);
+
+		when(passwordEncoder.encode(anyString())).thenReturn("hash");
+		when(idAllocationService.nextStudentId(anyInt()))
+				.thenAnswer(call -> String.format("STD%d%04d", call.<Integer>getArgument(0), serial.incrementAndGet()));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM students");
+		jdbcTemplate.update("DELETE FROM users");
+		sectionRepository.deleteAll();
+		gradeRepository.deleteAll();
+		roleRepository.deleteAll();
+	}
+
+	@Test
+	void everyRejectedRowIsReportedWithItsLine() {
+		StudentImportResponse response = studentImportService.importStudents(csv(HEADER
+				+ row("Amina", "amina@zis.test", "9800000001", "Grade 5", "A", "2031-04-01")    // 2
+				+ row("Bad", "not-an-email", "9800000002", "Grade 5", "A", "2031-04-01")        // 3
+				+ row("Taken", "TAKEN@zis.test", "9800000003", "Grade 5", "A", "2031-04-01")    // 4
+				+ row("Again", "Amina@zis.test", "9800000004", "Grade 5", "A", "2031-04-01")    // 5
+				+ row("Phone", "phone@zis.test", "9800000001", "Grade 5", "A", "2031-04-01")    // 6
+				+ row("Nine", "nine@zis.test", "9800000006", "Grade 9", "A", "2031-04-01")      // 7
+				+ row("Zed", "zed@zis.test", "9800000007", "Grade 5", "Z", "2031-04-01")        // 8
+				+ row("Date", "date@zis.test", "9800000008", "Grade 5", "A", "01/04/2031")      // 9
+				+ row("Bikash", "bikash@zis.test", "9800000009", "grade 5", "", "2031-04-01"))); // 10
+
+		assertEquals(9, response.totalRows());
+		assertEquals(2, response.imported());
+		assertEquals(7, response.failed());
+		assertEquals(List.of(
+				new StudentImportRowError(3, "not-an-email", "Email should be valid"),
+				new StudentImportRowError(4, "TAKEN@zis.test", "Email already exists."),
+				new StudentImportRowError(5, "Amina@zis.test", "Email already exists."),
+				new StudentImportRowError(6, "phone@zis.test", "phone already exists."),
+				new StudentImportRowError(7, "nine@zis.test", "Grade not found: Grade 9"),
+				new StudentImportRowError(8, "zed@zis.test", "Section 'Z' not found in grade Grade 5"),
+				new StudentImportRowError(9, "date@zis.test", "admissionDate must be yyyy-MM-dd")), response.errors());
+		assertEquals(List.of("amina@zis.test", "bikash@zis.test"),
+				jdbcTemplate.queryForList("SELECT email FROM students ORDER BY email", String.class));
+	}
+
+	@Test
+	void failingChunkIsReportedAgainstEachOfItsRowsAndRolledBack() {
+		doThrow(new IllegalStateException("mail queue down"))
+				.when(emailService).sendEmail(eq("fail@zis.test"), anyString(), anyString());
+
+		StudentImportResponse response = studentImportService.importStudents(csv(HEADER
+				+ row("Amina", "amina@zis.test", "9800000001", "Grade 5", "A", "2031-04-01")   // 2  chunk 1
+				+ row("Fail", "fail@zis.test", "9800000002", "Grade 5", "A", "2031-04-01")     // 3  chunk 1
+				+ row("Bikash", "bikash@zis.test", "9800000003", "Grade 5", "A", "2031-04-01"))); // 4  chunk 2
+
+		assertEquals(1, response.imported());
+		assertEquals(List.of(
+				new StudentImportRowError(2, "amina@zis.test", "Not imported, batch failed: mail queue down"),
+				new StudentImportRowError(3, "fail@zis.test", "Not imported, batch failed: mail queue down")), response.errors());
+		assertEquals(List.of("bikash@zis.test"), jdbcTemplate.queryForList("SELECT email FROM students", String.class));
+		assertEquals(List.of("bikash@zis.test", "taken@zis.test"),
+				jdbcTemplate.queryForList("SELECT email FROM users ORDER BY email", String.class));
+	}
+
+	@Test
+	void unreadableFilesAreRejectedAsAWhole() {
+		AppRuntimeException xlsx = assertThrows(AppRuntimeException.class, () -> studentImportService.importStudents(
+				new MockMultipartFile("file", "students.xlsx", "application/octet-stream", new byte[]{0x50, 0x4B})));
+		assertEquals(HttpStatus.BAD_REQUEST, xlsx.getHttpStatus());
+
+		AppRuntimeException empty = assertThrows(AppRuntimeException.class,
+				() -> studentImportService.importStudents(csv("")));
+		assertEquals("The import file is empty", empty.getMessage());
+
+		AppRuntimeException unterminated = assertThrows(AppRuntimeException.class, () -> studentImportService.importStudents(
+				csv(HEADER + "\"Amina,Rahman\n")));
+		assertEquals(HttpStatus.BAD_REQUEST, unterminated.getHttpStatus());
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Integer.class));
+	}
+
+	private static String row(String firstName, String email, String phone, String grade, String section, String admitted) {
+		return String.join(",", firstName, "Student", email, phone, "F", "2015-01-01", grade, section,
+				"Guardian", "9810000000", admitted) + "\n";
+	}
+
+	private static MockMultipartFile csv(String content) {
+		return new MockMultipartFile("file", "students.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,196 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.SubmissionArchiveProperties;
+import edu.zia.international.school.dto.search.NameIndexEntry;
+import edu.zia.international.school.entity.AssignmentSubmission;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.exception.ServiceUnavailableException;
+import edu.zia.international.school.repository.AssignmentRepository;
+import edu.zia.international.school.repository.AssignmentSubmissionRepository;
+import edu.zia.international.school.repository.StudentRepository;
+import edu.zia.international.school.service.AttachmentStorageService;
+import edu.zia.international.school.service.SubmissionArchiveService;
+import edu.zia.international.school.storage.StoredFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SubmissionArchiveServiceTest {
+
+	private final AssignmentSubmissionRepository submissionRepository = mock(AssignmentSubmissionRepository.class);
+	private final StudentRepository studentRepository = mock(StudentRepository.class);
+	private final AttachmentStorageService storage = mock(AttachmentStorageService.class);
+	private final AssignmentRepository assignmentRepository = mock(AssignmentRepository.class);
+	private final SubmissionArchiveProperties properties = new SubmissionArchiveProperties();
+
+	private SubmissionArchiveServiceImpl archives;
+	private byte[] video;
+
+	@BeforeEach
+	void setUp() {
+		// Small buffers so every file spans many read-ahead chunks
+		properties.setReadAheadChunkSize(1024);
+		properties.setReadAheadDepth(2);
+		properties.setMaxConcurrent(1);
+		archives = new SubmissionArchiveServiceImpl(assignmentRepository, submissionRepository,
+				studentRepository, storage, properties);
+
+		when(assignmentRepository.existsById(9L)).thenReturn(true);
+
+		video = new byte[300_000];
+		new Random(7).nextBytes(video);
+		byte[] essay = "Photosynthesis converts light into chemical energy.".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+		when(submissionRepository.findByAssignmentId(9L)).thenReturn(List.of(
+				submission("S-001", "blob-a/experiment.mp4", null),
+				submission("S-002", "blob-b/essay.txt", "See attached: \"final\" draft"),
+				submission("S-003", null, null)));
+		when(studentRepository.findNameIndexEntries(anyCollection())).thenReturn(List.of(
+				new NameIndexEntry("S-001", "Aarav Jha", "ajha"),
+				new NameIndexEntry("S-002", "Meera/Shah", "mshah")));
+		when(storage.open("blob-a/experiment.mp4")).thenReturn(file("experiment.mp4", video));
+		when(storage.open("blob-b/essay.txt")).thenReturn(file("essay.txt", essay));
+	}
+
+	@AfterEach
+	void tearDown() {
+		archives.destroy();
+	}
+
+	@Test
+	void writesOneFolderPerStudentInSubmissionOrder() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		archives.writeArchive(archives.reserve(9L), out);
+
+		Map<String, byte[]> entries = unzip(out.toByteArray());
+		assertEquals(List.of(
+				"S-001 - Aarav Jha/experiment.mp4",
+				"S-002 - Meera_Shah/essay.txt",
+				"S-002 - Meera_Shah/text-answer.txt"), List.copyOf(entries.keySet()));
+		assertArrayEquals(video, entries.get("S-001 - Aarav Jha/experiment.mp4"));
+		assertEquals("See attached: \"final\" draft",
+				new String(entries.get("S-002 - Meera_Shah/text-answer.txt"), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void readFailureAbortsTheArchive() {
+		when(storage.open("blob-b/essay.txt")).thenReturn(new StoredFile("essay.txt", "text/plain", 10, 0L,
+				"\"b\"", null, (start, end) -> {
+			throw new IOException("disk gone");
+		}));
+
+		IOException failure = assertThrows(IOException.class, () -> archives.writeArchive(archives.reserve(9L), new ByteArrayOutputStream()));
+		assertEquals("disk gone", failure.getMessage());
+	}
+
+	@Test
+	void concurrentArchivesAreCapped() throws Exception {
+		// A writer that blocks holds the only slot
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SubmissionArchiveService.Reservation held = archives.reserve(9L);
+		Thread first = new Thread(() -> {
+			try {
+				archives.writeArchive(held, new OutputStream() {
+					@Override
+					public void write(int b) {
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) {
+						writing.countDown();
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+			} catch (IOException ignored) {
+			}
+		});
+		first.start();
+		writing.await();
+
+		assertThrows(ServiceUnavailableException.class, () -> archives.reserve(9L));
+		release.countDown();
+		first.join();
+		assertDoesNotThrow(() -> archives.writeArchive(archives.reserve(9L), new ByteArrayOutputStream()));
+	}
+
+	@Test
+	void slotIsTakenAtReservationNotWhenWritingStarts() {
+		// The response is committed between the two calls, so the 503 has to come from reserve
+		SubmissionArchiveService.Reservation reservation = archives.reserve(9L);
+		assertThrows(ServiceUnavailableException.class, () -> archives.reserve(9L));
+
+		reservation.close();
+		reservation.close();
+		SubmissionArchiveService.Reservation next = archives.reserve(9L);
+		// Closing twice gave back one slot, not two
+		assertThrows(ServiceUnavailableException.class, () -> archives.reserve(9L));
+		next.close();
+	}
+
+	@Test
+	void unknownAssignmentIsRejectedBeforeTakingASlot() {
+		assertThrows(ResourceNotFoundException.class, () -> archives.reserve(404L));
+		assertDoesNotThrow(() -> archives.reserve(9L).close());
+	}
+
+	@Test
+	void clashingEntryNamesAreNumbered() throws IOException {
+		// An uploaded file named like the typed answer, and the same name in two cases
+		when(submissionRepository.findByAssignmentId(9L)).thenReturn(List.of(
+				submission("S-002", "blob-c/text-answer.txt", "typed answer"),
+				submission("S-002", "blob-d/TEXT-ANSWER.txt", null)));
+		when(storage.open("blob-c/text-answer.txt")).thenReturn(file("text-answer.txt", new byte[]{1}));
+		when(storage.open("blob-d/TEXT-ANSWER.txt")).thenReturn(file("TEXT-ANSWER.txt", new byte[]{2}));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		archives.writeArchive(archives.reserve(9L), out);
+
+		assertEquals(List.of(
+				"S-002 - Meera_Shah/text-answer.txt",
+				"S-002 - Meera_Shah/text-answer (2).txt",
+				"S-002 - Meera_Shah/TEXT-ANSWER (3).txt"), List.copyOf(unzip(out.toByteArray()).keySet()));
+	}
+
+	private static AssignmentSubmission submission(String studentId, String fileUrl, String textAnswer) {
+		return AssignmentSubmission.builder().studentId(studentId).fileUrl(fileUrl).textAnswer(textAnswer).build();
+	}
+
+	private static StoredFile file(String name, byte[] content) {
+		return new StoredFile(name, "application/octet-stream", content.length, 1_760_000_000_000L,
+				"\"" + name + "\"", null, (start, end) -> new ByteArrayInputStream(content));
+	}
+
+	private static Map<String, byte[]> unzip(byte[] archive) throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				entries.put(entry.getName(), zip.readAllBytes());
+			}
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,199 @@
+package edu.zia.international.school.service.impl;
+
+import edu.zia.international.school.config.StorageProperties;
+import edu.zia.international.school.config.SubmissionUploadProperties;
+import edu.zia.international.school.dto.assignment.StartUploadRequest;
+import edu.zia.international.school.dto.assignment.UploadSessionResponse;
+import edu.zia.international.school.exception.AppRuntimeException;
+import edu.zia.international.school.exception.ResourceNotFoundException;
+import edu.zia.international.school.repository.SubmissionUploadRepository;
+import edu.zia.international.school.storage.BlobRef;
+import edu.zia.international.school.storage.BlobStore;
+import edu.zia.international.school.storage.LocalBlobStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* Chunk verification, resume status and reassembly, with 10-byte chunks so a short text spans several.
+* */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:uploads;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"app.submission-upload.chunk-size=10"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SubmissionUploadServiceImpl.class, SubmissionUploadProperties.class, AttachmentStorageServiceImpl.class,
+		StorageProperties.class, SubmissionUploadServiceTest.LocalBackend.class})
+class SubmissionUploadServiceTest {
+
+	// 25 bytes: chunks of 10, 10 and 5
+	private static final byte[] ESSAY = "Photosynthesis, in short.".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	static Path root;
+
+	@DynamicPropertySource
+	static void dirs(DynamicPropertyRegistry registry) {
+		registry.add("app.submission-upload.directory", () -> root.resolve("uploads").toString());
+		registry.add("app.storage.staging-dir", () -> root.resolve("incoming").toString());
+	}
+
+	@TestConfiguration
+	static class LocalBackend {
+		@Bean
+		BlobStore blobStore() {
+			return new LocalBlobStore(root.resolve("blobs"));
+		}
+	}
+
+	@Autowired
+	private SubmissionUploadServiceImpl uploads;
+	@Autowired
+	private SubmissionUploadRepository uploadRepository;
+	@Autowired
+	private BlobStore blobStore;
+
+	@Test
+	void resumingClientSeesWhichChunksArrived() {
+		UploadSessionResponse session = start();
+		assertEquals(3, session.getTotalChunks());
+		assertEquals(List.of(), session.getReceivedChunks());
+
+		sendChunk(session, 2);
+		UploadSessionResponse status = sendChunk(session, 0);
+		assertEquals(List.of(0, 2), status.getReceivedChunks());
+		assertFalse(status.isComplete());
+
+		// Re-sending a chunk (the client never saw the response) is harmless
+		sendChunk(session, 0);
+		assertEquals(List.of(0, 2), uploads.status(1L, session.getUploadId(), "stu-001").getReceivedChunks());
+
+		AppRuntimeException incomplete = assertThrows(AppRuntimeException.class,
+				() -> uploads.assemble(1L, session.getUploadId(), "stu-001"));
+		assertEquals(HttpStatus.CONFLICT, incomplete.getHttpStatus());
+	}
+
+	@Test
+	void corruptOrWrongSizedChunksAreRejected() {
+		UploadSessionResponse session = start();
+		byte[] chunk = chunk(1);
+		byte[] corrupted = chunk.clone();
+		corrupted[3] ^= 1;
+
+		AppRuntimeException badChecksum = assertThrows(AppRuntimeException.class, () -> uploads.writeChunk(1L,
+				session.getUploadId(), 1, sha256(chunk), new ByteArrayInputStream(corrupted), "stu-001"));
+		assertEquals(HttpStatus.BAD_REQUEST, badChecksum.getHttpStatus());
+
+		byte[] truncated = Arrays.copyOf(chunk, 7);
+		assertThrows(AppRuntimeException.class, () -> uploads.writeChunk(1L,
+				session.getUploadId(), 1, sha256(truncated), new ByteArrayInputStream(truncated), "stu-001"));
+
+		byte[] oversized = Arrays.copyOf(chunk, 11);
+		assertThrows(AppRuntimeException.class, () -> uploads.writeChunk(1L,
+				session.getUploadId(), 1, sha256(oversized), new ByteArrayInputStream(oversized), "stu-001"));
+
+		assertEquals(List.of(), uploads.status(1L, session.getUploadId(), "stu-001").getReceivedChunks());
+		assertThrows(ResourceNotFoundException.class, () -> uploads.status(1L, session.getUploadId(), "stu-002"));
+	}
+
+	@Test
+	void assembledChunksBecomeTheStoredFile() throws IOException {
+		UploadSessionResponse session = start();
+		for (int i = session.getTotalChunks() - 1; i >= 0; i--) {
+			sendChunk(session, i);
+		}
+
+		BlobRef ref = uploads.assemble(1L, session.getUploadId(), "stu-001");
+		assertEquals("essay.txt", ref.filename());
+		assertEquals(sha256(ESSAY), ref.sha256());
+		assertArrayEquals(ESSAY, Files.readAllBytes(((LocalBlobStore) blobStore).resolve(ref.sha256())));
+
+		uploads.complete(1L, session.getUploadId(), "stu-001");
+		assertTrue(uploadRepository.findById(session.getUploadId()).isEmpty());
+	}
+
+	@Test
+	void wholeFileMismatchStoresNothing() throws IOException {
+		byte[] other = "Something else entirely".getBytes(StandardCharsets.UTF_8);
+		UploadSessionResponse session = uploads.start(1L, "S-001", "stu-001",
+				new StartUploadRequest("essay.txt", "text/plain", ESSAY.length, sha256(other)));
+		for (int i = 0; i < session.getTotalChunks(); i++) {
+			sendChunk(session, i);
+		}
+
+		AppRuntimeException mismatch = assertThrows(AppRuntimeException.class,
+				() -> uploads.assemble(1L, session.getUploadId(), "stu-001"));
+		assertEquals(HttpStatus.BAD_REQUEST, mismatch.getHttpStatus());
+		assertFalse(blobStore.exists(sha256(ESSAY)));
+		try (Stream<Path> staged = Files.list(root.resolve("incoming"))) {
+			assertEquals(0, staged.count());
+		}
+	}
+
+	@Test
+	void openSessionsPerStudentAreCapped() {
+		for (int i = 0; i < 3; i++) {
+			start();
+		}
+		AppRuntimeException tooMany = assertThrows(AppRuntimeException.class, this::start);
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, tooMany.getHttpStatus());
+
+		assertDoesNotThrow(() -> uploads.start(1L, "S-002", "stu-002",
+				new StartUploadRequest("essay.txt", null, ESSAY.length, null)));
+	}
+
+	@Test
+	void declaredContentTypeIsNotTrusted() {
+		UploadSessionResponse session = uploads.start(1L, "S-001", "stu-001",
+				new StartUploadRequest("essay.txt", "text/html", ESSAY.length, null));
+		assertEquals("text/plain", uploadRepository.findById(session.getUploadId()).orElseThrow().getContentType());
+
+		assertThrows(AppRuntimeException.class, () -> uploads.start(1L, "S-001", "stu-001",
+				new StartUploadRequest("essay.txt", "not a type", ESSAY.length, null)));
+	}
+
+	private UploadSessionResponse start() {
+		return uploads.start(1L, "S-001", "stu-001",
+				new StartUploadRequest("essay.txt", "text/plain", ESSAY.length, sha256(ESSAY)));
+	}
+
+	private UploadSessionResponse sendChunk(UploadSessionResponse session, int index) {
+		byte[] chunk = chunk(index);
+		return uploads.writeChunk(1L, session.getUploadId(), index, sha256(chunk),
+				new ByteArrayInputStream(chunk), "stu-001");
+	}
+
+	private static byte[] chunk(int index) {
+		return Arrays.copyOfRange(ESSAY, index * 10, Math.min(ESSAY.length, index * 10 + 10));
+	}
+
+	private static String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package edu.zia.international.school.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+	private final TrigramIndex<String> index = new TrigramIndex<>();
+
+	@Test
+	void queryWordMatchesAsAPrefixOfAnyWordInAnyText() {
+		index.put("ZIS1", "Janet Smith", "ZIS1", "jsmith");
+		index.put("ZIS2", "Peter Jones", "ZIS2", "pjones");
+
+		assertEquals(List.of("ZIS1"), keys(index.search("jan", 10)));
+		assertEquals(List.of("ZIS2"), keys(index.search("JON", 10)));
+		assertEquals(List.of("ZIS2"), keys(index.search("pjon", 10)));
+		assertEquals("ZIS1", index.search("zis1", 10).get(0).key());
+		// Prefix only: "net" is inside "janet" but does not start a word
+		assertEquals(List.of(), keys(index.search("net", 10)));
+	}
+
+	@Test
+	void everyQueryWordHasToMatch() {
+		index.put("ZIS1", "Janet Smith");
+		index.put("ZIS2", "Janet Jones");
+
+		assertEquals(List.of("ZIS2"), keys(index.search("janet jones", 10)));
+		assertEquals(List.of(), keys(index.search("janet brown", 10)));
+		// Punctuation and case only separate words
+		assertEquals(List.of("ZIS2"), keys(index.search("  JONES,janet ", 10)));
+	}
+
+	@Test
+	void toleratesATypoInALongerWord() {
+		index.put("ZIS1", "Christopher Wallace");
+
+		List<TrigramIndex.Hit<String>> hits = index.search("christophar", 10);
+		assertEquals(List.of("ZIS1"), keys(hits));
+		assertTrue(hits.get(0).score() < 1.0);
+		assertEquals(List.of(), keys(index.search("chrxstxpher", 10)));
+	}
+
+	@Test
+	void ranksFullerMatchesThenShorterNamesThenOlderDocuments() {
+		index.put("ZIS1", "Anna Marie Kowalski");
+		index.put("ZIS2", "Anna Kowalska");
+		index.put("ZIS3", "Annabel Kowalska");
+		index.put("ZIS4", "Anna Kowalska");
+
+		List<TrigramIndex.Hit<String>> hits = index.search("anna kowalska", 10);
+		// ZIS1 misses a trigram of "kowalska"; the exact matches tie on score and length, the older wins
+		assertEquals(List.of("ZIS2", "ZIS4", "ZIS3", "ZIS1"), keys(hits));
+		assertEquals(1.0, hits.get(0).score());
+		assertTrue(hits.get(3).score() < hits.get(2).score());
+
+		assertEquals(List.of("ZIS2", "ZIS4"), keys(index.search("anna kowalska", 2)));
+	}
+
+	@Test
+	void putReplacesAndRemoveDropsADocument() {
+		index.put("ZIS1", "Janet Smith");
+		index.put("ZIS1", "Janet Brown");
+		assertEquals(List.of(), keys(index.search("smith", 10)));
+		assertEquals(List.of("ZIS1"), keys(index.search("brown", 10)));
+		assertEquals(1, index.size());
+
+		index.remove("ZIS1");
+		assertEquals(List.of(), keys(index.search("janet", 10)));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void compactionKeepsLiveDocumentsSearchable() {
+		// Re-putting every document tombstones the previous copy; the second round triggers a compaction
+		for (String surname : List.of("Alvarez", "Bennett", "Castillo")) {
+			for (int n = 0; n < 800; n++) {
+				index.put("ZIS" + n, "S" + n + " " + surname);
+			}
+		}
+		assertEquals(800, index.size());
+		assertEquals(List.of("ZIS42"), keys(index.search("s42 castillo", 1)));
+		assertEquals(List.of(), keys(index.search("alvarez", 10)));
+		assertEquals(List.of(), keys(index.search("bennett", 10)));
+	}
+
+	private static List<String> keys(List<TrigramIndex.Hit<String>> hits) {
+		return hits.stream().map(TrigramIndex.Hit::key).toList();
+	}
+}
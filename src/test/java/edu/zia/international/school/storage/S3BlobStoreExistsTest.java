@@ -0,0 +1,43 @@
+package edu.zia.international.school.storage;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// How HEAD outcomes map to exists(), without a server; S3BlobStoreTest covers the real round trip
+class S3BlobStoreExistsTest {
+
+	private static final String SHA256 = "df2b15eb7d9d5d45483c0b25fd8418d53fa11f0a212e5e8babb029b3fca11264";
+
+	private final S3Client s3 = mock(S3Client.class);
+	private final S3BlobStore blobStore = new S3BlobStore(s3, "attachments", "blobs/");
+
+	@Test
+	void presentObjectExists() {
+		when(s3.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+		assertTrue(blobStore.exists(SHA256));
+	}
+
+	@Test
+	void missingKeyIsAbsentWhicheverWayTheServiceReportsIt() {
+		when(s3.headObject(any(HeadObjectRequest.class))).thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+		assertFalse(blobStore.exists(SHA256));
+
+		when(s3.headObject(any(HeadObjectRequest.class))).thenThrow(S3Exception.builder().statusCode(404).build());
+		assertFalse(blobStore.exists(SHA256));
+	}
+
+	@Test
+	void otherErrorsPropagate() {
+		when(s3.headObject(any(HeadObjectRequest.class))).thenThrow(S3Exception.builder().statusCode(403).build());
+		assertEquals(403, assertThrows(S3Exception.class, () -> blobStore.exists(SHA256)).statusCode());
+	}
+}
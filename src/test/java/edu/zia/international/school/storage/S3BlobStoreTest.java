@@ -0,0 +1,161 @@
+package edu.zia.international.school.storage;
+
+import edu.zia.international.school.config.StorageProperties;
+import edu.zia.international.school.entity.StoredBlob;
+import edu.zia.international.school.repository.StoredBlobRepository;
+import edu.zia.international.school.service.impl.AttachmentStorageServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+* The S3 backend against MinIO: the SPI itself, then dedupe, reference counting and the sweeper on top of it.
+* Needs Docker; skipped where it isn't available.
+* */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:s3storage;MODE=MySQL;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AttachmentStorageServiceImpl.class, StorageProperties.class, S3BlobStoreTest.S3Backend.class})
+class S3BlobStoreTest {
+
+	private static final String BUCKET = "attachments";
+	private static final byte[] WORKSHEET = "Fractions worksheet, page 1".getBytes(StandardCharsets.UTF_8);
+	private static final String WORKSHEET_SHA256 = "df2b15eb7d9d5d45483c0b25fd8418d53fa11f0a212e5e8babb029b3fca11264";
+
+	@Container
+	static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+	@TempDir
+	static Path root;
+
+	@DynamicPropertySource
+	static void storageDirs(DynamicPropertyRegistry registry) {
+		registry.add("app.storage.staging-dir", () -> root.resolve("incoming").toString());
+		registry.add("app.storage.release-grace-minutes", () -> "-1");
+	}
+
+	@TestConfiguration
+	static class S3Backend {
+		@Bean(destroyMethod = "close")
+		S3Client s3Client() {
+			S3Client s3 = S3Client.builder()
+					.httpClientBuilder(UrlConnectionHttpClient.builder())
+					.endpointOverride(URI.create(MINIO.getS3URL()))
+					.region(Region.US_EAST_1)
+					.forcePathStyle(true)
+					.credentialsProvider(StaticCredentialsProvider.create(
+							AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+					.build();
+			s3.createBucket(b -> b.bucket(BUCKET));
+			return s3;
+		}
+
+		@Bean
+		BlobStore blobStore(S3Client s3Client) {
+			return new S3BlobStore(s3Client, BUCKET, "blobs/");
+		}
+	}
+
+	@Autowired
+	private BlobStore blobStore;
+	@Autowired
+	private S3Client s3;
+	@Autowired
+	private AttachmentStorageServiceImpl storage;
+	@Autowired
+	private StoredBlobRepository storedBlobRepository;
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void putExistsOpenDelete() throws IOException {
+		Path staged = Files.write(root.resolve("staged"), WORKSHEET);
+		assertFalse(blobStore.exists(WORKSHEET_SHA256));
+
+		blobStore.put(WORKSHEET_SHA256, staged, WORKSHEET.length, "application/pdf");
+		assertTrue(blobStore.exists(WORKSHEET_SHA256));
+		// Sharded key under the prefix
+		assertDoesNotThrow(() -> s3.headObject(HeadObjectRequest.builder().bucket(BUCKET)
+				.key("blobs/df/2b/" + WORKSHEET_SHA256).build()));
+
+		try (InputStream in = blobStore.open(WORKSHEET_SHA256)) {
+			assertArrayEquals(WORKSHEET, in.readAllBytes());
+		}
+		try (InputStream in = blobStore.open(WORKSHEET_SHA256, 10, 19)) {
+			assertArrayEquals(Arrays.copyOfRange(WORKSHEET, 10, 20), in.readAllBytes());
+		}
+		try (InputStream in = blobStore.open(WORKSHEET_SHA256, 20, Long.MAX_VALUE)) {
+			assertArrayEquals(Arrays.copyOfRange(WORKSHEET, 20, WORKSHEET.length), in.readAllBytes());
+		}
+
+		blobStore.delete(WORKSHEET_SHA256);
+		assertFalse(blobStore.exists(WORKSHEET_SHA256));
+		assertThrows(NoSuchKeyException.class, () -> blobStore.open(WORKSHEET_SHA256).close());
+	}
+
+	@Test
+	void sharedObjectIsDeletedWithItsLastReference() throws IOException {
+		String refA = storage.store(upload("a.pdf"));
+		String refB = storage.store(upload("b.pdf"));
+		String sha256 = BlobRef.parse(refA).orElseThrow().sha256();
+		assertEquals(sha256, BlobRef.parse(refB).orElseThrow().sha256());
+		assertEquals(2, refCount(sha256));
+		assertTrue(blobStore.exists(sha256));
+
+		storage.release(List.of(refA));
+		storage.sweepReleasedBlobs();
+		assertEquals(1, refCount(sha256));
+		assertTrue(blobStore.exists(sha256));
+
+		storage.release(List.of(refB));
+		entityManager.flush();
+		entityManager.clear();
+		storage.sweepReleasedBlobs();
+		entityManager.flush();
+		entityManager.clear();
+		assertTrue(storedBlobRepository.findById(sha256).isEmpty());
+		assertFalse(blobStore.exists(sha256));
+	}
+
+	private int refCount(String sha256) {
+		entityManager.flush();
+		entityManager.clear();
+		return storedBlobRepository.findById(sha256).map(StoredBlob::getRefCount).orElse(0);
+	}
+
+	private static MockMultipartFile upload(String name) {
+		return new MockMultipartFile("files", name, "application/pdf", WORKSHEET);
+	}
+}
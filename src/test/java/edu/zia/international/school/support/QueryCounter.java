@@ -0,0 +1,50 @@
+package edu.zia.international.school.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+* Counts the JDBC statements Hibernate prepares, so list paths can pin their query count.
+* Needs spring.jpa.properties.hibernate.generate_statistics=true on the test context.
+* */
+public final class QueryCounter {
+
+	private final Statistics statistics;
+
+	private QueryCounter(Statistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public static QueryCounter of(EntityManagerFactory entityManagerFactory) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		if (!statistics.isStatisticsEnabled()) {
+			throw new IllegalStateException("Hibernate statistics are disabled; set hibernate.generate_statistics=true");
+		}
+		return new QueryCounter(statistics);
+	}
+
+	public void reset() {
+		statistics.clear();
+	}
+
+	public long count() {
+		return statistics.getPrepareStatementCount();
+	}
+
+	public long entitiesLoaded() {
+		return statistics.getEntityLoadCount();
+	}
+
+	// Runs the action from a clean counter and fails unless it issued exactly the expected statements
+	public <T> T assertQueries(long expected, Supplier<T> action) {
+		reset();
+		T result = action.get();
+		assertEquals(expected, count(), () -> "Expected " + expected + " SQL statements but " + count() + " were executed");
+		return result;
+	}
+}